@@ -0,0 +1,119 @@
+package com.example.weatherappphfinal.managers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.work.Configuration;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.weatherappphfinal.services.NotificationWorker;
+import com.example.weatherappphfinal.services.WeatherWorker;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the scheduler against WorkManager's test harness to show that repeated launches keep one daily job.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WorkSchedulerTest {
+
+    private WorkManager workManager;
+    private WorkScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Configuration config = new Configuration.Builder()
+                .setMinimumLoggingLevel(Log.DEBUG)
+                .setExecutor(new SynchronousExecutor())
+                .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, config);
+        workManager = WorkManager.getInstance(context);
+        context.getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE).edit().clear().commit();
+        scheduler = new WorkScheduler(context, workManager, Runnable::run);
+    }
+
+    @Test
+    public void everyLaunch_keepsOneDailyJob() {
+        for (int launch = 0; launch < 5; launch++) {
+            scheduler.ensureDailyWeather();
+        }
+
+        List<WorkInfo> pending = scheduler.getPendingJobs();
+        assertEquals(1, pending.size());
+        WorkInfo daily = pending.get(0);
+        assertEquals(WorkInfo.State.ENQUEUED, daily.getState());
+        assertEquals(NetworkType.CONNECTED, daily.getConstraints().getRequiredNetworkType());
+        assertTrue(daily.getConstraints().requiresBatteryNotLow());
+        assertEquals(TimeUnit.HOURS.toMillis(24), daily.getPeriodicityInfo().getRepeatIntervalMillis());
+        assertEquals(TimeUnit.HOURS.toMillis(WorkScheduler.FLEX_HOURS), daily.getPeriodicityInfo().getFlexIntervalMillis());
+    }
+
+    @Test
+    public void firstRun_fallsInTheMorningWindow() {
+        long now = System.currentTimeMillis();
+        scheduler.ensureDailyWeather();
+
+        // When WorkManager will first run the job, after its initial delay and the flex offset
+        long next = scheduler.getPendingJobs().get(0).getNextScheduleTimeMillis();
+        Calendar run = Calendar.getInstance();
+        run.setTimeInMillis(next);
+        assertEquals(WorkScheduler.NOTIFICATION_HOUR - WorkScheduler.FLEX_HOURS, run.get(Calendar.HOUR_OF_DAY));
+        assertEquals(0, run.get(Calendar.MINUTE));
+        // The earliest window WorkManager can reach: at least interval - flex away, and no later than the one after
+        assertTrue(next - now >= TimeUnit.HOURS.toMillis(24 - WorkScheduler.FLEX_HOURS));
+        assertTrue(next - now < TimeUnit.HOURS.toMillis(48 - WorkScheduler.FLEX_HOURS));
+    }
+
+    @Test
+    public void workersStackedByEarlierReleases_areCancelled() throws Exception {
+        // What MainActivity used to do on each of three launches
+        for (int launch = 0; launch < 3; launch++) {
+            workManager.enqueue(new PeriodicWorkRequest.Builder(WeatherWorker.class, 24, TimeUnit.HOURS).build());
+        }
+
+        scheduler.ensureDailyWeather();
+
+        int active = 0;
+        for (WorkInfo info : workManager.getWorkInfosByTag(WeatherWorker.class.getName()).get()) {
+            if (!info.getState().isFinished()) active++;
+        }
+        assertEquals(1, active);
+    }
+
+    @Test
+    public void dailyRun_needsNoNotificationJob() throws Exception {
+        scheduler.ensureDailyWeather();
+
+        // The daily job posts the notification itself, so nothing else is ever queued
+        assertTrue(workManager.getWorkInfosByTag(NotificationWorker.class.getName()).get().isEmpty());
+        assertEquals(1, scheduler.getPendingJobs().size());
+    }
+
+    @Test
+    public void initialDelay_endsAtTheNotificationHour() {
+        Calendar morning = Calendar.getInstance();
+        morning.set(2025, Calendar.NOVEMBER, 25, 5, 30, 0);
+        morning.set(Calendar.MILLISECOND, 0);
+        assertEquals(TimeUnit.MINUTES.toMillis(90), WorkScheduler.initialDelay(morning.getTimeInMillis()));
+
+        Calendar evening = (Calendar) morning.clone();
+        evening.set(Calendar.HOUR_OF_DAY, 20);
+        assertEquals(TimeUnit.HOURS.toMillis(11) - TimeUnit.MINUTES.toMillis(30), WorkScheduler.initialDelay(evening.getTimeInMillis()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.weatherappphfinal.managers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.services.ForecastCache;
+import com.example.weatherappphfinal.services.ForecastSource;
+import com.example.weatherappphfinal.services.LocationService;
+import com.example.weatherappphfinal.services.PlaceResolver;
+import com.example.weatherappphfinal.services.WeatherService;
+import com.example.weatherappphfinal.utils.StartupTrace;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * StartupPipeline prepares everything the main screen needs while the splash screen is up:
+ * it reads preferences, opens the forecast cache and geocode index, and prefetches the forecast
+ * for the last city. The splash screen is released as soon as there is something to show, or
+ * after MAX_WAIT_MS at the latest, provided the preferences have been read by then so it is known
+ * whether onboarding is done. A prefetch still running then keeps going in the background and is
+ * shared with the main screen's own load.
+ */
+public class StartupPipeline {
+
+    // Longest the splash screen waits for the pipeline
+    public static final long MAX_WAIT_MS = 800;
+
+    /**
+     * Called once on the main thread when the app can leave the splash screen.
+     */
+    public interface Callback {
+        void onReady(boolean onboardingComplete);
+    }
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final StartupTrace trace = StartupTrace.get();
+    private final ForecastSource forecasts = WeatherService.source();
+    private final PlaceResolver places = LocationService.resolver();
+    private Callback callback; // Cleared once delivered; only touched on the main thread
+    private Boolean onboardingFlag; // Null until the background stage has read it; only touched on the main thread
+    private boolean timedOut; // Only touched on the main thread
+
+    public StartupPipeline(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Start the pipeline
+     * @param callback Told when to navigate, exactly once
+     */
+    public void start(Callback callback) {
+        this.callback = callback;
+        // Upper bound: never hold the splash screen longer than this, whatever the network does
+        mainHandler.postDelayed(this::timeout, MAX_WAIT_MS);
+        executor.execute(this::run);
+        executor.shutdown();
+    }
+
+    /**
+     * Stop waiting, e.g. when the splash screen is destroyed. Background work already started still finishes.
+     */
+    public void cancel() {
+        callback = null;
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void run() {
+        boolean onboardingComplete;
+        String lastCity;
+        try (StartupTrace.Span ignored = trace.begin("prefs")) {
+            SharedPreferences prefs = appContext.getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE);
+            onboardingComplete = prefs.getBoolean("onboardingComplete", false);
+            lastCity = prefs.getString("lastCity", "Manila");
+        }
+        mainHandler.post(() -> onboardingFlagRead(onboardingComplete));
+
+        // Onboarding comes first, so there is no forecast to show yet
+        if (!onboardingComplete) {
+            post(false, "onboarding");
+            return;
+        }
+
+        try (StartupTrace.Span ignored = trace.begin("forecast-cache")) {
+            WeatherService.initCache(new File(appContext.getCacheDir(), "forecast"));
+        }
+        try (StartupTrace.Span ignored = trace.begin("geocode-index")) {
+            LocationService.initGeocodeIndex(new File(appContext.getFilesDir(), "geocode.idx"),
+                    () -> appContext.getAssets().open("ph_places.tsv"));
+            LocationService.getGeocodeIndex();
+        }
+
+        LocationModel location;
+        try (StartupTrace.Span ignored = trace.begin("geocode")) {
+            location = places.getPhilippineLocation(lastCity);
+        }
+        if (location == null) {
+            post(true, "no-location");
+            return;
+        }
+
+        // Anything cached, even stale, can be rendered at once; the main screen revalidates it
+        ForecastCache.Entry cached;
+        try (StartupTrace.Span ignored = trace.begin("cache-lookup")) {
+            cached = forecasts.getCachedWeather(location.getLatitude(), location.getLongitude());
+        }
+        if (cached != null) {
+            post(true, cached.isFresh() ? "cache-fresh" : "cache-stale");
+            if (cached.isFresh()) return;
+        }
+
+        try (StartupTrace.Span ignored = trace.begin("forecast-prefetch")) {
+            forecasts.fetchWeather(location.getLatitude(), location.getLongitude());
+        }
+        post(true, "prefetched");
+    }
+
+    private void post(boolean onboardingComplete, String reason) {
+        mainHandler.post(() -> ready(onboardingComplete, reason));
+    }
+
+    // The preferences are read on the background stage, never here, so the timeout cannot block the main thread
+    private void timeout() {
+        timedOut = true;
+        if (onboardingFlag != null) ready(onboardingFlag, "timeout");
+    }
+
+    // If the timeout came first, it was waiting for this to know where to navigate
+    private void onboardingFlagRead(boolean complete) {
+        onboardingFlag = complete;
+        if (timedOut) ready(complete, "timeout");
+    }
+
+    // Deliver the callback once, whichever of the pipeline and the timeout gets here first
+    private void ready(boolean onboardingComplete, String reason) {
+        if (callback == null) return;
+        Callback target = callback;
+        callback = null;
+        mainHandler.removeCallbacksAndMessages(null);
+        trace.mark("splash-released:" + reason);
+        target.onReady(onboardingComplete);
+    }
+}
@@ -2,20 +2,32 @@ package com.example.weatherappphfinal.managers;
 
 import android.Manifest;
 import android.app.Activity;
+import android.content.Context;
 import android.content.pm.PackageManager;
-import android.location.Location;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 import androidx.core.app.ActivityCompat;
+import com.example.weatherappphfinal.listeners.SnapshotListener;
 import com.example.weatherappphfinal.listeners.WeatherListener;
 import com.example.weatherappphfinal.models.LocationModel;
 import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.services.ApiException;
+import com.example.weatherappphfinal.services.ForecastCache;
+import com.example.weatherappphfinal.services.ForecastSource;
+import com.example.weatherappphfinal.services.FusedLocationProvider;
 import com.example.weatherappphfinal.services.LocationService;
+import com.example.weatherappphfinal.services.LocationStrategy;
+import com.example.weatherappphfinal.services.MultiCityFetcher;
+import com.example.weatherappphfinal.services.PlaceResolver;
+import com.example.weatherappphfinal.services.SnapshotStore;
+import com.example.weatherappphfinal.services.WeatherPipeline;
 import com.example.weatherappphfinal.services.WeatherService;
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.location.Priority;
+import com.example.weatherappphfinal.utils.TextNormalizer;
 
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -25,10 +37,19 @@ import java.util.concurrent.Executors;
  */
 public class WeatherManager {
 
+    private static final String TAG = "WeatherManager";
+
     private final ExecutorService executorService; // For background tasks
+    private final ExecutorService networkPool; // Bounded pool for concurrent multi-city requests
+    private final ExecutorService batchExecutor; // Waits on multi-city loads, so they never hold up single loads
+    private final RequestCoalescer<String, WeatherListener> loads; // Deduplicates and supersedes single-location loads
     private final Handler mainHandler; // To post results back to the main thread
-    private final FusedLocationProviderClient fusedLocationClient; // For device location
+    private final LocationStrategy locationStrategy; // For device location, cheapest fix first
     private final Activity activity; // Reference to the activity
+    private final SnapshotStore snapshots; // Last forecast shown per city, for instant cold starts
+    private final ForecastSource forecasts; // Forecasts, cache first
+    private final PlaceResolver places; // Place names and coordinates, offline first
+    private final WeatherPipeline pipeline; // Forecast and place name loaded side by side
 
     /**
      * Constructor initializes background executor, main thread handler, and location client
@@ -36,59 +57,141 @@ public class WeatherManager {
     public WeatherManager(Activity activity) {
         this.activity = activity;
         this.executorService = Executors.newSingleThreadExecutor();
+        this.networkPool = Executors.newFixedThreadPool(MultiCityFetcher.DEFAULT_POOL_SIZE);
+        this.batchExecutor = Executors.newSingleThreadExecutor();
         this.mainHandler = new Handler(Looper.getMainLooper());
-        this.fusedLocationClient = LocationServices.getFusedLocationProviderClient(activity);
+        this.loads = new RequestCoalescer<>(executorService, mainHandler::post);
+        this.locationStrategy = new LocationStrategy(new FusedLocationProvider(activity.getApplicationContext()));
+        WeatherService.initCache(new File(activity.getCacheDir(), "forecast"));
+        Context appContext = activity.getApplicationContext();
+        this.snapshots = new SnapshotStore(new File(appContext.getFilesDir(), "snapshots"), SnapshotStore.DEFAULT_MAX_SNAPSHOTS);
+        LocationService.initGeocodeIndex(new File(appContext.getFilesDir(), "geocode.idx"),
+                () -> appContext.getAssets().open("ph_places.tsv"));
+        this.forecasts = WeatherService.source();
+        this.places = LocationService.resolver();
+        this.pipeline = new WeatherPipeline(forecasts, places);
     }
 
     /**
-     * Load weather by city name
+     * Read the last forecast saved for a city and pass it to the listener, without any network call.
+     * Runs ahead of loads submitted afterwards, so the snapshot is always delivered before fresh data.
+     * @param cityName Name of the city as it was displayed
+     * @param listener Callback, only called if a snapshot exists
+     */
+    public void loadSnapshot(String cityName, SnapshotListener listener) {
+        executorService.execute(() -> {
+            SnapshotStore.Snapshot snapshot = snapshots.load(cityName);
+            if (snapshot != null) {
+                mainHandler.post(() -> listener.onSnapshotLoaded(snapshot.weather, snapshot.cityName, snapshot.fetchedAt));
+            }
+        });
+    }
+
+    /**
+     * Load weather by city name. A repeated request for the same place while one is in flight
+     * joins it, and a request for another place cancels it.
      * @param locationName Name of the city or location
      * @param listener Callback interface to return weather results
      */
     public void loadWeather(String locationName, WeatherListener listener) {
-        executorService.execute(() -> {
+        loads.submit("name:" + TextNormalizer.normalize(locationName), listener, emitter -> {
             // Get coordinates for the Philippine city
-            LocationModel location = LocationService.getPhilippineLocation(locationName);
+            LocationModel location = places.getPhilippineLocation(locationName);
             if (location == null) {
-                // Post error back to main thread if location not found
-                mainHandler.post(() -> listener.onWeatherError("Location not found"));
-                return;
-            }
-
-            // Fetch weather data from service
-            WeatherModel weather = WeatherService.getWeather(location.getLatitude(), location.getLongitude());
-            if (weather == null) {
-                mainHandler.post(() -> listener.onWeatherError("Failed to fetch weather"));
+                // Report the error back to the main thread if location not found
+                emitter.emit(l -> l.onWeatherError("Location not found"));
                 return;
             }
 
-            // Post successful result back to main thread
-            mainHandler.post(() -> listener.onWeatherLoaded(weather, location.getName()));
+            // Serve from the cache first, then revalidate
+            deliverWeather(location.getLatitude(), location.getLongitude(), CompletableFuture.completedFuture(location.getName()),
+                    "Failed to fetch weather", emitter);
         });
     }
 
     /**
-     * Load weather by latitude and longitude
+     * Load weather by latitude and longitude, coalesced like loads by name
      * @param latitude Latitude of the location
      * @param longitude Longitude of the location
      * @param listener Callback interface to return weather results
      */
     public void loadWeather(double latitude, double longitude, WeatherListener listener) {
-        executorService.execute(() -> {
-            WeatherModel weather = WeatherService.getWeather(latitude, longitude);
-            if (weather == null) {
-                mainHandler.post(() -> listener.onWeatherError("Failed to fetch weather for your location"));
-                return;
+        loadWeather(latitude, longitude, latitude, longitude, listener);
+    }
+
+    /**
+     * Load the forecast for one point, named after another, e.g. a device fix snapped to the cache grid
+     * and the fix as measured, so a place near a boundary is not named after the grid point
+     */
+    private void loadWeather(double latitude, double longitude, double nameLatitude, double nameLongitude, WeatherListener listener) {
+        loads.submit("coordinates:" + ForecastCache.keyFor(latitude, longitude), listener, emitter -> {
+            // Look up the human-readable name while the forecast loads; falls back to "Your Location"
+            CompletableFuture<String> locationName = pipeline.locationName(nameLatitude, nameLongitude);
+
+            deliverWeather(latitude, longitude, locationName, "Failed to fetch weather for your location", emitter);
+        });
+    }
+
+    /**
+     * Load weather for several cities at once, e.g. the saved-cities dashboard.
+     * Cities are geocoded concurrently and their forecasts fetched in batched requests;
+     * each city is passed to the listener as soon as its forecast arrives. Runs beside single
+     * loads, so a search made meanwhile does not wait for the whole batch.
+     * @param locationNames Names of the cities
+     * @param listener Callback interface, called once per city
+     */
+    public void loadWeather(List<String> locationNames, WeatherListener listener) {
+        MultiCityFetcher fetcher = new MultiCityFetcher(networkPool, mainHandler::post, WeatherService.MAX_BATCH_SIZE, forecasts, places);
+        batchExecutor.execute(() -> {
+            try {
+                fetcher.fetch(locationNames, listener);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+        });
+    }
 
-            // Try to get the human-readable location name
-            String locationName = LocationService.getLocationNameFromCoordinates(latitude, longitude);
-            if (locationName == null) {
-                locationName = "Your Location"; // fallback
+    /**
+     * Refresh the cached forecasts of several cities in the background without reporting them,
+     * e.g. the saved cities, so switching to one shows its weather at once.
+     * Cities whose cached forecast is still fresh cost no forecast request.
+     * @param locationNames Names of the cities
+     */
+    public void prefetchWeather(List<String> locationNames) {
+        MultiCityFetcher fetcher = new MultiCityFetcher(networkPool, mainHandler::post, WeatherService.MAX_BATCH_SIZE, forecasts, places);
+        batchExecutor.execute(() -> {
+            try {
+                fetcher.prefetch(locationNames);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+        });
+    }
 
-            final String finalLocationName = locationName;
-            mainHandler.post(() -> listener.onWeatherLoaded(weather, finalLocationName));
+    /**
+     * Deliver weather using stale-while-revalidate: a cached forecast is emitted immediately,
+     * and if it is missing or stale a fresh one is fetched and emitted when it arrives.
+     * The fetch runs concurrently with the place name lookup, and the cached forecast does not
+     * wait for the name. Must be called from a coalesced load.
+     */
+    private void deliverWeather(double latitude, double longitude, CompletableFuture<String> locationName, String errorMessage,
+                                RequestCoalescer.Emitter<WeatherListener> emitter) {
+        pipeline.revalidate(latitude, longitude, locationName, new WeatherPipeline.RevalidationListener() {
+            @Override
+            public void onWeather(WeatherModel weather, String name) {
+                emitter.emit(l -> l.onWeatherLoaded(weather, name));
+            }
+
+            @Override
+            public void onSettled(WeatherModel weather, String name, long fetchedAt) {
+                snapshots.save(name, weather, fetchedAt);
+            }
+
+            @Override
+            public void onError(ApiException error) {
+                String message = ApiException.userMessage(error, errorMessage);
+                emitter.emit(l -> l.onWeatherError(message));
+            }
         });
     }
 
@@ -103,25 +206,32 @@ public class WeatherManager {
             return;
         }
 
-        // Get current location with high accuracy
-        fusedLocationClient.getCurrentLocation(Priority.PRIORITY_HIGH_ACCURACY, null)
-                .addOnSuccessListener(activity, location -> {
-                    if (location != null) {
-                        // Load weather for current coordinates
-                        loadWeather(location.getLatitude(), location.getLongitude(), listener);
-                    } else {
-                        mainHandler.post(() -> listener.onWeatherError("Could not get current location"));
-                    }
-                })
-                .addOnFailureListener(activity, e -> mainHandler.post(() -> listener.onWeatherError("Failed to get current location")));
+        // Acquiring a fix blocks for up to the tier timeouts, so keep it off the load executor
+        networkPool.execute(() -> {
+            LocationStrategy.Result location = locationStrategy.acquire();
+            if (location == null) {
+                Log.w(TAG, "No location fix", locationStrategy.getLastError());
+                mainHandler.post(() -> listener.onWeatherError("Could not get current location"));
+                return;
+            }
+            // Forecast for the snapped coordinates, so nearby fixes share the cached forecast; name for the fix itself
+            loadWeather(location.latitude, location.longitude, location.rawLatitude, location.rawLongitude, listener);
+        });
     }
 
     /**
      * Shutdown the executor to free resources
      */
     public void shutdown() {
+        loads.cancelAll();
         if (executorService != null) {
             executorService.shutdown();
         }
+        if (batchExecutor != null) {
+            batchExecutor.shutdown();
+        }
+        if (networkPool != null) {
+            networkPool.shutdown();
+        }
     }
 }
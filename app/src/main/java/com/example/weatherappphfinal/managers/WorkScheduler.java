@@ -0,0 +1,157 @@
+package com.example.weatherappphfinal.managers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.WorkQuery;
+
+import com.example.weatherappphfinal.services.WeatherWorker;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkScheduler owns all background work of the app: one daily job that fetches the forecast
+ * and posts the notification itself. The job is unique by name, so scheduling it again on each
+ * launch is a no-op rather than another periodic worker; it only runs with a network connection,
+ * within a flex window so the system can batch it with other work while the battery is not low.
+ */
+public class WorkScheduler {
+
+    // Unique job name; the daily check keeps the name it was first released with
+    public static final String DAILY_WEATHER = "dailyWeatherCheck";
+
+    // Tag on every job enqueued here, used by the inspection API
+    public static final String TAG = "weatherScheduler";
+
+    // The daily check runs between NOTIFICATION_HOUR - FLEX_HOURS and NOTIFICATION_HOUR
+    static final int NOTIFICATION_HOUR = 7;
+    static final long FLEX_HOURS = 1;
+
+    // Bump when a job's request changes, so installs that already have it pick up the new one
+    static final int JOBS_VERSION = 3;
+    private static final String PREF_JOBS_VERSION = "scheduledJobsVersion";
+
+    private static final Executor background = Executors.newSingleThreadExecutor();
+
+    private final WorkManager workManager;
+    private final SharedPreferences prefs;
+    private final Executor executor;
+
+    public WorkScheduler(Context context) {
+        this(context, WorkManager.getInstance(context), background);
+    }
+
+    /**
+     * @param workManager The WorkManager to schedule on, a test instance in tests.
+     * @param executor    Runs the follow-up of WorkManager queries.
+     */
+    WorkScheduler(Context context, WorkManager workManager, Executor executor) {
+        this.workManager = workManager;
+        this.prefs = context.getApplicationContext().getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE);
+        this.executor = executor;
+    }
+
+    /**
+     * Make sure the daily weather check is scheduled exactly once. Safe to call on every launch.
+     */
+    public void ensureDailyWeather() {
+        // Keep the running schedule unless its request changed since it was enqueued
+        boolean current = prefs.getInt(PREF_JOBS_VERSION, 0) == JOBS_VERSION;
+        workManager.enqueueUniquePeriodicWork(DAILY_WEATHER,
+                current ? ExistingPeriodicWorkPolicy.KEEP : ExistingPeriodicWorkPolicy.CANCEL_AND_REENQUEUE,
+                dailyWeatherRequest(System.currentTimeMillis()));
+        if (!current) {
+            prefs.edit().putInt(PREF_JOBS_VERSION, JOBS_VERSION).apply();
+            cancelUnnamedWeatherWork();
+        }
+    }
+
+    /**
+     * Lists the jobs of this scheduler that have not finished yet. Blocks, so call it off the main thread.
+     *
+     * @return The enqueued, blocked and running jobs, or an empty list if WorkManager could not be queried.
+     */
+    public List<WorkInfo> getPendingJobs() {
+        WorkQuery query = WorkQuery.Builder.fromTags(Collections.singletonList(TAG))
+                .addStates(Arrays.asList(WorkInfo.State.ENQUEUED, WorkInfo.State.BLOCKED, WorkInfo.State.RUNNING))
+                .build();
+        try {
+            return workManager.getWorkInfos(query).get();
+        } catch (ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * One line per pending job, e.g. for logs or a debug screen.
+     */
+    public String describePendingJobs() {
+        StringBuilder out = new StringBuilder();
+        for (WorkInfo info : getPendingJobs()) {
+            if (out.length() > 0) out.append('\n');
+            out.append(info.getTags()).append(' ').append(info.getState())
+                    .append(" next run in ").append(TimeUnit.MILLISECONDS.toMinutes(info.getNextScheduleTimeMillis() - System.currentTimeMillis()))
+                    .append(" min, attempt ").append(info.getRunAttemptCount());
+        }
+        return out.toString();
+    }
+
+    PeriodicWorkRequest dailyWeatherRequest(long nowMillis) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        return new PeriodicWorkRequest.Builder(WeatherWorker.class, 24, TimeUnit.HOURS, FLEX_HOURS, TimeUnit.HOURS)
+                .setInitialDelay(initialDelay(nowMillis), TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .addTag(TAG)
+                .build();
+    }
+
+    // Milliseconds until the next NOTIFICATION_HOUR. WorkManager holds the first run of a flexed job
+    // back by another interval - flex (23 h), so it becomes due when the following window opens
+    static long initialDelay(long nowMillis) {
+        Calendar now = Calendar.getInstance();
+        now.setTimeInMillis(nowMillis);
+        Calendar windowEnd = (Calendar) now.clone();
+        windowEnd.set(Calendar.HOUR_OF_DAY, NOTIFICATION_HOUR);
+        windowEnd.set(Calendar.MINUTE, 0);
+        windowEnd.set(Calendar.SECOND, 0);
+        windowEnd.set(Calendar.MILLISECOND, 0);
+        if (!windowEnd.after(now)) {
+            windowEnd.add(Calendar.DAY_OF_YEAR, 1);
+        }
+        return windowEnd.getTimeInMillis() - nowMillis;
+    }
+
+    // Earlier releases enqueued a new, unnamed daily worker on every launch; cancel those
+    private void cancelUnnamedWeatherWork() {
+        ListenableFuture<List<WorkInfo>> infos = workManager.getWorkInfosByTag(WeatherWorker.class.getName());
+        infos.addListener(() -> {
+            try {
+                for (WorkInfo info : infos.get()) {
+                    if (!info.getTags().contains(TAG) && !info.getState().isFinished()) {
+                        workManager.cancelWorkById(info.getId());
+                    }
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                e.printStackTrace();
+            }
+        }, executor);
+    }
+}
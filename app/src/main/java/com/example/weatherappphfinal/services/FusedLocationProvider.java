@@ -0,0 +1,55 @@
+package com.example.weatherappphfinal.services;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.Location;
+import android.os.SystemClock;
+
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * LocationProvider backed by Google Play services' fused location provider.
+ * Callers must hold the location permission.
+ */
+@SuppressLint("MissingPermission") // Checked by the callers before acquiring a location
+public class FusedLocationProvider implements LocationProvider {
+
+    private final FusedLocationProviderClient client;
+
+    public FusedLocationProvider(Context context) {
+        this.client = LocationServices.getFusedLocationProviderClient(context);
+    }
+
+    @Override
+    public Fix lastKnown() throws Exception {
+        return toFix(Tasks.await(client.getLastLocation()));
+    }
+
+    @Override
+    public Fix current(Accuracy accuracy, long timeoutMs) throws Exception {
+        int priority = accuracy == Accuracy.HIGH ? Priority.PRIORITY_HIGH_ACCURACY : Priority.PRIORITY_BALANCED_POWER_ACCURACY;
+        CancellationTokenSource cancellation = new CancellationTokenSource();
+        try {
+            return toFix(Tasks.await(client.getCurrentLocation(priority, cancellation.getToken()), timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return null;
+        } finally {
+            // Stops the request if it is still running, so a timed out fix does not keep the GPS on
+            cancellation.cancel();
+        }
+    }
+
+    private static Fix toFix(Location location) {
+        if (location == null) return null;
+        long ageMs = (SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos()) / 1_000_000;
+        return new Fix(location.getLatitude(), location.getLongitude(),
+                location.hasAccuracy() ? location.getAccuracy() : Float.MAX_VALUE, ageMs);
+    }
+}
@@ -11,9 +11,12 @@ import androidx.core.app.NotificationCompat;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 import com.example.weatherappphfinal.R;
+import com.example.weatherappphfinal.models.WeatherModel;
 import com.example.weatherappphfinal.ui.MainActivity;
 import java.util.Locale;
 
+// Renders the daily weather notification. WeatherWorker posts it directly through show();
+// the worker itself only still runs notification jobs enqueued by earlier releases.
 public class NotificationWorker extends Worker {
 
     private static final String CHANNEL_ID = "weather_notification_channel";
@@ -41,20 +44,32 @@ public class NotificationWorker extends Worker {
         int precipitation = getInputData().getInt(KEY_PRECIPITATION, 0);
         double pressure = getInputData().getDouble(KEY_PRESSURE, 0);
 
-        sendNotification(locationName, temp, desc, humidity, windSpeed, precipitation, pressure);
+        sendNotification(getApplicationContext(), locationName, temp, desc, humidity, windSpeed, precipitation, pressure);
         return Result.success();
     }
 
-    private void sendNotification(String locationName, double temperature, String weatherDescription, int humidity, double windSpeed, int precipitationProbability, double pressure) {
-        NotificationManager notificationManager = (NotificationManager) getApplicationContext().getSystemService(Context.NOTIFICATION_SERVICE);
+    /**
+     * Post the daily weather notification, replacing the previous one.
+     *
+     * @param context      Any context; its application context is used.
+     * @param locationName The place the forecast is for.
+     * @param weather      The forecast to summarize.
+     */
+    public static void show(Context context, String locationName, WeatherModel weather) {
+        sendNotification(context.getApplicationContext(), locationName, weather.getTemperature(), weather.getWeatherDescription(),
+                weather.getHumidity(), weather.getWindSpeed(), weather.getPrecipitationProbability(), weather.getPressure());
+    }
+
+    private static void sendNotification(Context context, String locationName, double temperature, String weatherDescription, int humidity, double windSpeed, int precipitationProbability, double pressure) {
+        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Weather Notifications", NotificationManager.IMPORTANCE_DEFAULT);
             notificationManager.createNotificationChannel(channel);
         }
 
-        Intent intent = new Intent(getApplicationContext(), MainActivity.class);
-        PendingIntent pendingIntent = PendingIntent.getActivity(getApplicationContext(), 0, intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        Intent intent = new Intent(context, MainActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
 
         String title = String.format(Locale.US, "Weather for %s: %d°C, %s",
                 locationName,
@@ -71,7 +86,7 @@ public class NotificationWorker extends Worker {
                 precipitationProbability,
                 pressure);
 
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(getApplicationContext(), CHANNEL_ID)
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
                 .setSmallIcon(R.drawable.ic_stat_cloud)
                 .setContentTitle("Daily Weather Forecast")
                 .setContentText(title)
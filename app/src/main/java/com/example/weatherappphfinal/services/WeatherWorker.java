@@ -4,29 +4,43 @@ import android.Manifest;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
-import android.location.Location;
 import android.location.LocationManager;
+import android.os.SystemClock;
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.core.app.ActivityCompat;
-import androidx.work.Data;
-import androidx.work.OneTimeWorkRequest;
-import androidx.work.WorkManager;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
+import com.example.weatherappphfinal.managers.WorkScheduler;
 import com.example.weatherappphfinal.models.LocationModel;
 import com.example.weatherappphfinal.models.WeatherModel;
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.location.Priority;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
 
-import java.util.concurrent.ExecutionException;
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
 
-// Worker that fetches weather data and triggers notifications
+// Worker that fetches weather data and posts the daily notification, all in one job
 public class WeatherWorker extends Worker {
 
+    private static final String TAG = "WeatherWorker";
+
+    // Summary of the last run, for inspection
+    public static final String PREF_LAST_RUN = "lastDailyRun";
+
+    // Name resolved for the last GPS position, by forecast cache key, so a cached run needs no reverse geocode
+    private static final String PREF_PLACE_KEY = "lastPlaceKey";
+    private static final String PREF_PLACE_NAME = "lastPlaceName";
+
+    private static final Histogram runTime = Metrics.histogram("worker.run");
+    private static final LongAdder failedRuns = Metrics.counter("worker.failed");
+
+    private final ForecastSource forecasts = WeatherService.source();
+    private final PlaceResolver places = LocationService.resolver();
+
+
     public WeatherWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
     }
@@ -34,77 +48,114 @@ public class WeatherWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
+        long start = SystemClock.elapsedRealtime();
+        long span = Metrics.start();
+
+        // Share the forecast cache with the app so a recent fetch is not repeated
+        WeatherService.initCache(new File(getApplicationContext().getCacheDir(), "forecast"));
+        LocationService.initGeocodeIndex(new File(getApplicationContext().getFilesDir(), "geocode.idx"),
+                () -> getApplicationContext().getAssets().open("ph_places.tsv"));
+
         // Check if GPS is enabled
         LocationManager lm = (LocationManager) getApplicationContext().getSystemService(Context.LOCATION_SERVICE);
         boolean isGpsEnabled = lm.isProviderEnabled(LocationManager.GPS_PROVIDER);
 
-        // If GPS is enabled and permission granted → fetch current location weather
-        if (isGpsEnabled && ActivityCompat.checkSelfPermission(getApplicationContext(), Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
-            return fetchCurrentLocationWeather();
+        // Count what this run costs on the network; requests of the app running meanwhile are not included
+        NetworkUsage usage = new NetworkUsage();
+
+        // If GPS is enabled and permission granted → current location, otherwise → last searched city
+        Outcome outcome;
+        try (NetworkUsage.Scope ignored = usage.enter()) {
+            if (isGpsEnabled && ActivityCompat.checkSelfPermission(getApplicationContext(), Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
+                outcome = fetchCurrentLocationWeather();
+            } else {
+                outcome = fetchLastSearchedCityWeather();
+            }
         }
-        // Otherwise → fetch weather of last searched city
-        else {
-            return fetchLastSearchedCityWeather();
+
+        // Post straight from this job instead of scheduling a second one
+        if (outcome.weather != null) {
+            NotificationWorker.show(getApplicationContext(), outcome.locationName, outcome.weather);
         }
+        runTime.recordSince(span);
+        if (outcome.weather == null) failedRuns.increment();
+        recordRun(outcome, usage, SystemClock.elapsedRealtime() - start);
+        return outcome.weather != null ? Result.success() : Result.failure();
     }
 
-    // Fetch weather using current GPS location
-    private Result fetchCurrentLocationWeather() {
-        FusedLocationProviderClient fusedLocationClient = LocationServices.getFusedLocationProviderClient(getApplicationContext());
-        try {
-            Task<Location> locationTask = fusedLocationClient.getCurrentLocation(Priority.PRIORITY_HIGH_ACCURACY, null);
-            Location location = Tasks.await(locationTask);
-
-            if (location != null) {
-                WeatherModel weather = WeatherService.getWeather(location.getLatitude(), location.getLongitude());
-                String locationName = LocationService.getLocationNameFromCoordinates(location.getLatitude(), location.getLongitude());
-
-                // If data is valid → trigger notification
-                if (weather != null && locationName != null) {
-                    enqueueNotificationWorker(locationName, weather);
-                    return Result.success();
-                }
-            }
-        } catch (ExecutionException | InterruptedException e) {
-            e.printStackTrace();
+    // Fetch weather using the current location, from the cheapest fix that is good enough
+    private Outcome fetchCurrentLocationWeather() {
+        LocationStrategy strategy = new LocationStrategy(new FusedLocationProvider(getApplicationContext()));
+        LocationStrategy.Result location = strategy.acquire();
+        if (location == null) {
+            Log.w(TAG, "No location fix", strategy.getLastError());
+            return new Outcome(null, null, false, null);
         }
-        return Result.failure();
+
+        double latitude = location.latitude;
+        double longitude = location.longitude;
+        String key = ForecastCache.keyFor(latitude, longitude);
+        SharedPreferences prefs = getApplicationContext().getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE);
+
+        // Cached forecast for a place named before: nothing to wait for, a stale one refreshes in the background
+        if (isCached(latitude, longitude) && key.equals(prefs.getString(PREF_PLACE_KEY, null))) {
+            return new Outcome(prefs.getString(PREF_PLACE_NAME, WeatherPipeline.FALLBACK_LOCATION_NAME),
+                    forecasts.getWeather(latitude, longitude), true, location);
+        }
+
+        boolean cached = isCached(latitude, longitude);
+        // Forecast and place name are fetched concurrently; the name falls back to "Your Location"
+        WeatherPipeline.LocatedWeather result = new WeatherPipeline(forecasts, places)
+                .loadWeather(latitude, longitude, location.rawLatitude, location.rawLongitude).join();
+        if (!WeatherPipeline.FALLBACK_LOCATION_NAME.equals(result.locationName)) {
+            prefs.edit().putString(PREF_PLACE_KEY, key).putString(PREF_PLACE_NAME, result.locationName).apply();
+        }
+        return new Outcome(result.locationName, result.weather, cached, location);
     }
 
     // Fetch weather using last searched city stored in SharedPreferences
-    private Result fetchLastSearchedCityWeather() {
+    private Outcome fetchLastSearchedCityWeather() {
         SharedPreferences prefs = getApplicationContext().getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE);
         String lastCity = prefs.getString("lastCity", "Manila");
 
-        LocationModel location = LocationService.getPhilippineLocation(lastCity);
-        if (location == null) return Result.failure();
+        LocationModel location = places.getPhilippineLocation(lastCity);
+        if (location == null) return new Outcome(null, null, false, null);
 
-        WeatherModel weather = WeatherService.getWeather(location.getLatitude(), location.getLongitude());
+        // Served from the cache if there is one, fetched otherwise
+        boolean cached = isCached(location.getLatitude(), location.getLongitude());
+        WeatherModel weather = forecasts.getWeather(location.getLatitude(), location.getLongitude());
+        return new Outcome(location.getName(), weather, cached, null);
+    }
 
-        // If data is valid → trigger notification
-        if (weather != null) {
-            enqueueNotificationWorker(location.getName(), weather);
-            return Result.success();
-        }
-        return Result.failure();
+    private boolean isCached(double latitude, double longitude) {
+        return forecasts.getCachedWeather(latitude, longitude) != null;
     }
 
-    // Prepare data and enqueue NotificationWorker
-    private void enqueueNotificationWorker(String locationName, WeatherModel weather) {
-        Data inputData = new Data.Builder()
-                .putString(NotificationWorker.KEY_LOCATION_NAME, locationName)
-                .putDouble(NotificationWorker.KEY_TEMP, weather.getTemperature())
-                .putString(NotificationWorker.KEY_DESC, weather.getWeatherDescription())
-                .putInt(NotificationWorker.KEY_HUMIDITY, weather.getHumidity())
-                .putDouble(NotificationWorker.KEY_WIND_SPEED, weather.getWindSpeed())
-                .putInt(NotificationWorker.KEY_PRECIPITATION, weather.getPrecipitationProbability())
-                .putDouble(NotificationWorker.KEY_PRESSURE, weather.getPressure())
-                .build();
-
-        OneTimeWorkRequest notificationWorkRequest = new OneTimeWorkRequest.Builder(NotificationWorker.class)
-                .setInputData(inputData)
-                .build();
-
-        WorkManager.getInstance(getApplicationContext()).enqueue(notificationWorkRequest);
+    // Log the run and keep a one-line summary, with the scheduler's unfinished jobs, this one included
+    private void recordRun(Outcome outcome, NetworkUsage usage, long wallMs) {
+        int jobs = new WorkScheduler(getApplicationContext()).getPendingJobs().size();
+        String summary = String.format(Locale.US, "%s: %d pending job%s, %d ms, forecast %s, %s%s",
+                outcome.weather != null ? "notified" : "failed", jobs, jobs == 1 ? "" : "s", wallMs,
+                outcome.fromCache ? "from cache" : "from network", usage,
+                outcome.location != null ? ", " + outcome.location : "");
+        Log.i(TAG, "Daily run " + summary);
+        getApplicationContext().getSharedPreferences("WeatherAppPrefs", Context.MODE_PRIVATE).edit()
+                .putString(PREF_LAST_RUN, System.currentTimeMillis() + " " + summary)
+                .apply();
+    }
+
+    // Result of loading the forecast for the notification
+    private static class Outcome {
+        final String locationName;
+        final WeatherModel weather; // Null if it could not be loaded
+        final boolean fromCache;
+        final LocationStrategy.Result location; // Null unless the device location was used
+
+        Outcome(String locationName, WeatherModel weather, boolean fromCache, LocationStrategy.Result location) {
+            this.locationName = locationName;
+            this.weather = weather;
+            this.fromCache = fromCache;
+            this.location = location;
+        }
     }
 }
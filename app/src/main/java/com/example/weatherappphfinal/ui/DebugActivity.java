@@ -0,0 +1,103 @@
+package com.example.weatherappphfinal.ui;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.weatherappphfinal.R;
+import com.example.weatherappphfinal.managers.WorkScheduler;
+import com.example.weatherappphfinal.services.CircuitBreaker;
+import com.example.weatherappphfinal.services.ForecastCache;
+import com.example.weatherappphfinal.services.WeatherService;
+import com.example.weatherappphfinal.services.WeatherWorker;
+import com.example.weatherappphfinal.utils.Metrics;
+import com.example.weatherappphfinal.utils.StartupTrace;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DebugActivity shows the metrics of this process: latency histograms and counters of the fetch
+ * pipeline, the forecast cache, the circuit breakers and the background jobs. The snapshot can
+ * be shared as JSON, e.g. to compare two builds. Opened by long-pressing the greeting; only
+ * debug builds declare it in their manifest.
+ */
+public class DebugActivity extends AppCompatActivity {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(); // Builds the report off the main thread
+
+    private TextView metricsText;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_debug);
+
+        metricsText = findViewById(R.id.metricsText);
+        Button refreshButton = findViewById(R.id.refreshMetricsButton);
+        Button resetButton = findViewById(R.id.resetMetricsButton);
+        Button exportButton = findViewById(R.id.exportMetricsButton);
+
+        refreshButton.setOnClickListener(v -> refresh());
+        resetButton.setOnClickListener(v -> {
+            Metrics.reset();
+            refresh();
+        });
+        exportButton.setOnClickListener(v -> {
+            Intent share = new Intent(Intent.ACTION_SEND);
+            share.setType("application/json");
+            share.putExtra(Intent.EXTRA_SUBJECT, "Weather PH metrics");
+            share.putExtra(Intent.EXTRA_TEXT, Metrics.toJson());
+            startActivity(Intent.createChooser(share, getString(R.string.export_metrics)));
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        executor.shutdownNow();
+    }
+
+    // Querying WorkManager blocks, so the report is built on the executor
+    private void refresh() {
+        Context context = getApplicationContext();
+        executor.execute(() -> {
+            String report = buildReport(context);
+            runOnUiThread(() -> {
+                if (!isDestroyed()) metricsText.setText(report);
+            });
+        });
+    }
+
+    private static String buildReport(Context context) {
+        StringBuilder out = new StringBuilder(Metrics.snapshot());
+
+        ForecastCache cache = WeatherService.getCache();
+        out.append("\n\nForecast cache:\n  ").append(cache.getHits()).append(" fresh, ")
+                .append(cache.getStaleHits()).append(" stale, ").append(cache.getMisses()).append(" missed, ")
+                .append(cache.getDiskHits()).append(" from disk, ").append(cache.getEvictions()).append(" evicted");
+
+        out.append("\n\nCircuit breakers:");
+        for (Map.Entry<String, CircuitBreaker> breaker : CircuitBreaker.all().entrySet()) {
+            out.append("\n  ").append(breaker.getKey()).append("  ").append(breaker.getValue());
+        }
+
+        out.append("\n\nBackground jobs:\n").append(new WorkScheduler(context).describePendingJobs());
+        String lastRun = context.getSharedPreferences("WeatherAppPrefs", MODE_PRIVATE).getString(WeatherWorker.PREF_LAST_RUN, null);
+        out.append("\nLast daily run: ").append(lastRun != null ? lastRun : "none");
+
+        out.append("\n\n").append(StartupTrace.get().summary());
+        return out.toString();
+    }
+}
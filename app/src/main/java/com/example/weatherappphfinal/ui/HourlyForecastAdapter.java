@@ -0,0 +1,159 @@
+package com.example.weatherappphfinal.ui;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.weatherappphfinal.R;
+import com.example.weatherappphfinal.models.ForecastSeries;
+import com.example.weatherappphfinal.utils.HourlyCells;
+import com.example.weatherappphfinal.utils.WeatherCodeConverter;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Horizontal timeline of hourly forecasts.
+ * Rows are recycled by the RecyclerView and read straight from the ForecastSeries columns, so
+ * the adapter holds no per-hour objects. A new series is diffed against the current one; rows
+ * whose displayed values did not change are left alone, and changed rows rebind only the cells
+ * named in the change mask passed as the payload.
+ */
+public class HourlyForecastAdapter extends RecyclerView.Adapter<HourlyForecastAdapter.HourViewHolder> {
+
+    // Boxed change masks, so payloads never allocate
+    private static final Integer[] PAYLOADS = new Integer[HourlyCells.ALL_CELLS + 1];
+
+    static {
+        for (int i = 0; i < PAYLOADS.length; i++) PAYLOADS[i] = i;
+    }
+
+    private final WeatherCodeConverter conditions = WeatherCodeConverter.forLocale(Locale.getDefault());
+    private ForecastSeries series = ForecastSeries.empty();
+    private HourlyCells.Columns columns = new HourlyCells.Columns(series);
+
+    public HourlyForecastAdapter() {
+        setHasStableIds(true);
+    }
+
+    /**
+     * Show a new series, rebinding only what changed on screen
+     * @param next The hours to show, first hour first
+     */
+    public void submit(ForecastSeries next) {
+        ForecastSeries previous = series;
+        HourlyCells.Columns previousColumns = columns;
+        HourlyCells.Columns nextColumns = new HourlyCells.Columns(next);
+
+        // Hours are sorted and unique, so no moves need to be detected
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return previous.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return next.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return previous.getTime(oldPosition) == next.getTime(newPosition);
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return changedCells(oldPosition, newPosition) == 0;
+            }
+
+            @Override
+            public Object getChangePayload(int oldPosition, int newPosition) {
+                return PAYLOADS[changedCells(oldPosition, newPosition)];
+            }
+
+            private int changedCells(int oldPosition, int newPosition) {
+                return HourlyCells.changedCells(previous, previousColumns, oldPosition, next, nextColumns, newPosition);
+            }
+        }, false);
+
+        series = next;
+        columns = nextColumns;
+        diff.dispatchUpdatesTo(this);
+    }
+
+    @Override
+    public int getItemCount() {
+        return series.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return series.getTime(position);
+    }
+
+    @NonNull
+    @Override
+    public HourViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_hourly_forecast, parent, false);
+        return new HourViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HourViewHolder holder, int position) {
+        bind(holder, position, HourlyCells.ALL_CELLS);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HourViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            bind(holder, position, HourlyCells.ALL_CELLS);
+            return;
+        }
+        // Several diffs may have landed before the next layout pass
+        int mask = 0;
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            mask |= payload instanceof Integer ? (Integer) payload : HourlyCells.ALL_CELLS;
+        }
+        bind(holder, position, mask);
+    }
+
+    // Set only the cells in the mask; labels come from HourlyCells' tables
+    private void bind(HourViewHolder holder, int position, int mask) {
+        if ((mask & HourlyCells.CELL_TIME) != 0) {
+            holder.hourText.setText(HourlyCells.hourLabel(series.getTime(position), series.getUtcOffsetSeconds()));
+        }
+        if ((mask & HourlyCells.CELL_ICON) != 0) {
+            int code = series.getInt(columns.weatherCode, position, 0);
+            holder.iconText.setText(conditions.lookup(code, HourlyCells.isDay(series, columns, position)).emoji);
+        }
+        if ((mask & HourlyCells.CELL_TEMPERATURE) != 0) {
+            holder.temperatureText.setText(HourlyCells.temperatureLabel(series.getFloat(columns.temperature, position)));
+        }
+        if ((mask & HourlyCells.CELL_PRECIPITATION) != 0) {
+            holder.precipitationText.setText(HourlyCells.percentLabel(series.getFloat(columns.precipitation, position)));
+        }
+        if ((mask & HourlyCells.CELL_WIND) != 0) {
+            holder.windText.setText(HourlyCells.windLabel(series.getFloat(columns.wind, position)));
+        }
+    }
+
+    static class HourViewHolder extends RecyclerView.ViewHolder {
+        final TextView hourText, iconText, temperatureText, precipitationText, windText;
+
+        HourViewHolder(@NonNull View itemView) {
+            super(itemView);
+            hourText = itemView.findViewById(R.id.hourText);
+            iconText = itemView.findViewById(R.id.hourIcon);
+            temperatureText = itemView.findViewById(R.id.hourTemperature);
+            precipitationText = itemView.findViewById(R.id.hourPrecipitation);
+            windText = itemView.findViewById(R.id.hourWind);
+        }
+    }
+}
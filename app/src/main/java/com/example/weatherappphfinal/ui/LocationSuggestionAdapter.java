@@ -0,0 +1,103 @@
+package com.example.weatherappphfinal.ui;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import com.example.weatherappphfinal.services.LocationSearchEngine;
+import com.example.weatherappphfinal.services.LocationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dropdown adapter for the location search box.
+ * Filtering runs on the Filter's worker thread through LocationSearchEngine, and a query that has
+ * been superseded by newer input stops scanning as soon as the next keystroke arrives. Its
+ * results are never published, so the list keeps the previous suggestions instead of flickering.
+ */
+public class LocationSuggestionAdapter extends ArrayAdapter<String> {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final AtomicInteger queryGeneration = new AtomicInteger(); // Bumped on every keystroke
+    private final Filter filter = new SuggestionFilter();
+
+    /**
+     * @param context        The activity context.
+     * @param recentSearches Places the user picked before, most recent last.
+     */
+    public LocationSuggestionAdapter(@NonNull Context context, List<String> recentSearches) {
+        super(context, android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        // Only takes effect when the engine is first built, so recreating the screen adds nothing
+        LocationService.initRecentSelections(recentSearches);
+        setNotifyOnChange(false);
+    }
+
+    /**
+     * Boosts a place the user picked from the dropdown in later rankings. Call from the item click.
+     */
+    public void onSuggestionSelected(String place) {
+        LocationService.recordSelection(place);
+    }
+
+    /**
+     * Marks any query still being filtered as stale. Call when the search text changes.
+     */
+    public void onQueryChanged() {
+        queryGeneration.incrementAndGet();
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private class SuggestionFilter extends Filter {
+
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            int generation = queryGeneration.get();
+            List<String> matches = new ArrayList<>();
+            if (constraint != null && constraint.length() > 0) {
+                LocationSearchEngine engine = LocationService.getSearchEngine();
+                matches = engine.search(constraint.toString(), MAX_SUGGESTIONS,
+                        () -> queryGeneration.get() != generation);
+            }
+            results.values = new Suggestions(generation, matches);
+            results.count = matches.size();
+            return results;
+        }
+
+        @Override
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            if (results == null || !(results.values instanceof Suggestions)) return;
+            Suggestions suggestions = (Suggestions) results.values;
+            // Cut short or outdated by newer input: keep the current list until that input's results arrive
+            if (suggestions.generation != queryGeneration.get()) return;
+            clear();
+            addAll(suggestions.places);
+            if (getCount() > 0) {
+                notifyDataSetChanged();
+            } else {
+                notifyDataSetInvalidated();
+            }
+        }
+    }
+
+    // Matches for one query, tagged with the keystroke generation they were computed for
+    private static class Suggestions {
+        final int generation;
+        final List<String> places;
+
+        Suggestions(int generation, List<String> places) {
+            this.generation = generation;
+            this.places = places;
+        }
+    }
+}
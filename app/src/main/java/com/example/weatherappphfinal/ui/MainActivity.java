@@ -7,8 +7,17 @@ import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.graphics.Color;
 import android.location.LocationManager;
+import android.net.ConnectivityManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.provider.Settings;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.*;
@@ -17,34 +26,43 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.weatherappphfinal.ui.OnboardingActivity;
+import com.example.weatherappphfinal.BuildConfig;
 import com.example.weatherappphfinal.R;
+import com.example.weatherappphfinal.listeners.SnapshotListener;
 import com.example.weatherappphfinal.listeners.WeatherListener;
 import com.example.weatherappphfinal.managers.WeatherManager;
-import com.example.weatherappphfinal.models.DailyForecastModel;
+import com.example.weatherappphfinal.managers.WorkScheduler;
+import com.example.weatherappphfinal.models.ForecastSeries;
 import com.example.weatherappphfinal.models.WeatherModel;
-import com.example.weatherappphfinal.services.LocationService;
-import com.example.weatherappphfinal.services.WeatherWorker;
-import com.example.weatherappphfinal.utils.WeatherCodeConverter;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import com.example.weatherappphfinal.models.WeatherUiState;
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+import com.example.weatherappphfinal.utils.StartupTrace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * MainActivity handles the primary UI for the Weather App.
  * It allows searching for weather by city, refreshing via location,
  * showing forecasts, and scheduling daily notifications.
  */
-public class MainActivity extends AppCompatActivity implements WeatherListener {
+public class MainActivity extends AppCompatActivity implements WeatherListener, SnapshotListener {
+
+    private static final String TAG = "MainActivity";
 
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 100; // Request code for location permission
+    private static final int MAX_RECENT_SEARCHES = 10; // Places remembered for autocomplete ranking
+    private static final Histogram formatTime = Metrics.histogram("ui.format");
+    private static final Histogram renderTime = Metrics.histogram("ui.render");
 
     // UI elements
     private AutoCompleteTextView searchEditText; // Search bar for city input
@@ -54,12 +72,26 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
     private TextView feelsLikeText, weatherDescText, humidityValue, windSpeedValue, precipitationValue, pressureValue;
     private ProgressBar loadingProgress; // Progress bar during weather load
     private LinearLayout forecastContainer; // Container for daily forecast items
+    private RecyclerView hourlyRecycler; // Scrollable timeline of hourly forecasts
+    private final HourlyForecastAdapter hourlyAdapter = new HourlyForecastAdapter();
+    private LocationSuggestionAdapter suggestionAdapter; // Autocomplete backed by the location search engine
 
     // Data and services
     private MainViewModel mainViewModel; // ViewModel to persist weather data across configuration changes
     private WeatherManager weatherManager; // Handles API requests and location fetching
     private SharedPreferences sharedPreferences; // Stores user preferences like last city and name
 
+    // Rendering
+    private final ExecutorService renderExecutor = Executors.newSingleThreadExecutor(); // Formats UI states off the main thread
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private WeatherUiState.Formatter uiFormatter; // Created on renderExecutor, where its tables are first loaded
+    private WeatherUiState renderedState; // State currently on screen, null before the first render
+    private int renderGeneration; // Bumped per update so an older state never replaces a newer one
+
+    // Cold start tracking
+    private boolean liveWeatherShown; // A fetched or cached forecast replaced the snapshot
+    private boolean firstContentLogged; // Time to first meaningful content was reported
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -75,14 +107,14 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
 
         // If data already exists in ViewModel, use it to update the UI
         if (mainViewModel.getWeather().getValue() != null && mainViewModel.getCityName().getValue() != null) {
-            updateUI(mainViewModel.getWeather().getValue(), mainViewModel.getCityName().getValue());
+            updateUI(mainViewModel.getWeather().getValue(), mainViewModel.getCityName().getValue(), 0, null);
         } else {
             // Otherwise, load weather for the last saved city
             handleInitialLoad();
         }
 
-        // Schedule daily weather notifications at 7 AM
-        scheduleDailyWeatherNotification();
+        // Schedule daily weather notifications at 7 AM; a no-op when already scheduled
+        new WorkScheduler(this).ensureDailyWeather();
 
         // Setup click listeners for buttons
         setupClickListeners();
@@ -110,6 +142,10 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
         pressureValue = findViewById(R.id.pressureValue);
         loadingProgress = findViewById(R.id.loadingProgress);
         forecastContainer = findViewById(R.id.forecastContainer);
+        hourlyRecycler = findViewById(R.id.hourlyRecycler);
+        hourlyRecycler.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
+        hourlyRecycler.setHasFixedSize(true);
+        hourlyRecycler.setAdapter(hourlyAdapter);
     }
 
     /**
@@ -121,10 +157,42 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
         // Set greeting message
         updateGreeting();
 
-        // Setup autocomplete with all Philippine locations
-        String[] locations = LocationService.getAllPhilippineLocations();
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, locations);
-        searchEditText.setAdapter(adapter);
+        // Setup autocomplete; matching runs off the main thread and stale queries are abandoned
+        suggestionAdapter = new LocationSuggestionAdapter(this, loadRecentSearches());
+        searchEditText.setAdapter(suggestionAdapter);
+        searchEditText.setOnItemClickListener((parent, view, position, id) ->
+                suggestionAdapter.onSuggestionSelected(suggestionAdapter.getItem(position)));
+        searchEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                suggestionAdapter.onQueryChanged();
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) { }
+        });
+    }
+
+    /**
+     * Read the places the user searched for before, oldest first
+     */
+    private List<String> loadRecentSearches() {
+        String stored = sharedPreferences.getString("recentSearches", "");
+        return stored.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(stored.split("\n")));
+    }
+
+    /**
+     * Remember a place so it ranks higher in future suggestions
+     */
+    private void rememberRecentSearch(String cityName) {
+        List<String> recent = loadRecentSearches();
+        recent.remove(cityName);
+        recent.add(cityName);
+        while (recent.size() > MAX_RECENT_SEARCHES) recent.remove(0);
+        sharedPreferences.edit().putString("recentSearches", String.join("\n", recent)).apply();
     }
 
     /**
@@ -132,7 +200,24 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
      */
     private void handleInitialLoad() {
         String lastCity = sharedPreferences.getString("lastCity", "Manila");
+        // Show the saved snapshot right away; the load below replaces it when it lands
+        weatherManager.loadSnapshot(lastCity, this);
         loadWeather(lastCity);
+        prefetchRecentSearches(lastCity);
+    }
+
+    /**
+     * Refresh the stale forecasts of the other saved cities in one batched load, so switching
+     * to any of them shows its weather immediately. Only on unmetered networks, where the
+     * extra data costs the user nothing.
+     */
+    private void prefetchRecentSearches(String currentCity) {
+        ConnectivityManager connectivity = getSystemService(ConnectivityManager.class);
+        if (connectivity == null || connectivity.isActiveNetworkMetered()) return;
+        List<String> saved = loadRecentSearches();
+        saved.remove(currentCity);
+        if (saved.isEmpty()) return;
+        weatherManager.prefetchWeather(saved);
     }
 
     /**
@@ -174,6 +259,14 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
             Intent intent = new Intent(MainActivity.this, OnboardingActivity.class);
             startActivity(intent);
         });
+
+        // Hidden entry to the metrics screen, which only debug builds declare
+        if (BuildConfig.DEBUG) {
+            greetingText.setOnLongClickListener(v -> {
+                startActivity(new Intent(MainActivity.this, DebugActivity.class));
+                return true;
+            });
+        }
     }
 
     /**
@@ -205,45 +298,51 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
     }
 
     /**
-     * Schedule daily weather notification at 7 AM using WorkManager
+     * Load weather data for a specific city
      */
-    private void scheduleDailyWeatherNotification() {
-        PeriodicWorkRequest weatherWorkRequest = new PeriodicWorkRequest.Builder(WeatherWorker.class, 24, TimeUnit.HOURS)
-                .setInitialDelay(calculateInitialDelay(), TimeUnit.MILLISECONDS)
-                .build();
-        WorkManager.getInstance(this).enqueue(weatherWorkRequest);
+    private void loadWeather(String locationName) {
+        loadingProgress.setVisibility(View.VISIBLE);
+        setButtonsEnabled(false);
+        weatherManager.loadWeather(locationName, this);
     }
 
     /**
-     * Calculate milliseconds delay until next 7 AM
+     * Callback when weather is successfully loaded
      */
-    private long calculateInitialDelay() {
-        Calendar now = Calendar.getInstance();
-        Calendar nextRun = Calendar.getInstance();
-        nextRun.set(Calendar.HOUR_OF_DAY, 7);
-        nextRun.set(Calendar.MINUTE, 0);
-        nextRun.set(Calendar.SECOND, 0);
-        if (now.after(nextRun)) {
-            nextRun.add(Calendar.DAY_OF_YEAR, 1);
-        }
-        return nextRun.getTimeInMillis() - now.getTimeInMillis();
+    @Override
+    public void onWeatherLoaded(WeatherModel weather, String cityName) {
+        boolean firstLiveWeather = !liveWeatherShown;
+        liveWeatherShown = true;
+        loadingProgress.setVisibility(View.GONE);
+        updateUI(weather, cityName, 0, () -> {
+            logFirstContent("live");
+            if (firstLiveWeather) {
+                reportFullyDrawn();
+            }
+        });
     }
 
     /**
-     * Load weather data for a specific city
+     * Callback with the snapshot saved for the last city, shown until live weather arrives
      */
-    private void loadWeather(String locationName) {
+    @Override
+    public void onSnapshotLoaded(WeatherModel weather, String cityName, long fetchedAt) {
+        if (liveWeatherShown) return;
+        // The date line shows the snapshot's age; keep the spinner going while the fresh forecast loads
+        updateUI(weather, cityName, fetchedAt, () -> logFirstContent("snapshot"));
         loadingProgress.setVisibility(View.VISIBLE);
-        setButtonsEnabled(false);
-        weatherManager.loadWeather(locationName, this);
     }
 
     /**
-     * Callback when weather is successfully loaded
+     * Log how long after process start the first weather became visible
      */
-    @Override
-    public void onWeatherLoaded(WeatherModel weather, String cityName) {
-        updateUI(weather, cityName);
+    private void logFirstContent(String source) {
+        if (firstContentLogged) return;
+        firstContentLogged = true;
+        long elapsed = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        StartupTrace.get().mark("first-content:" + source);
+        Log.i(TAG, "First meaningful content (" + source + ") " + elapsed + " ms after process start");
+        Log.i(TAG, StartupTrace.get().summary());
     }
 
     /**
@@ -257,34 +356,42 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
     }
 
     /**
-     * Update UI with weather data
+     * Update UI with weather data. The text is formatted on the render thread, then only the
+     * views whose text changed are updated on the main thread.
+     * @param fetchedAt When a snapshot was fetched, to show its age; 0 for live data
+     * @param onShown Run on the main thread once the weather is on screen, may be null
      */
-    private void updateUI(WeatherModel weather, String cityName) {
+    private void updateUI(WeatherModel weather, String cityName, long fetchedAt, Runnable onShown) {
         mainViewModel.setWeather(weather);
         mainViewModel.setCityName(cityName);
 
-        loadingProgress.setVisibility(View.GONE);
         setButtonsEnabled(true);
-
-        // Update main weather info
-        locationText.setText(cityName);
         searchEditText.setText("");
-        temperatureText.setText(String.format("%d°C", (int) weather.getTemperature()));
-        WeatherCodeConverter.WeatherCondition currentCondition = WeatherCodeConverter.convert(weather.getWeatherCode());
-        feelsLikeText.setText(currentCondition.description);
-        weatherDescText.setText(currentCondition.condition);
-        humidityValue.setText(String.format("%d%%", weather.getHumidity()));
-        windSpeedValue.setText(String.format("%.1f m/s", weather.getWindSpeed()));
-        precipitationValue.setText(String.format("%d%%", weather.getPrecipitationProbability()));
-        pressureValue.setText(String.format("%.0f hPa", weather.getPressure()));
-        weatherIcon.setText(currentCondition.emoji);
-        dateText.setText(new SimpleDateFormat("EEEE, MMM dd, yyyy", Locale.getDefault()).format(new Date()));
-
-        // Update daily forecast
-        updateForecast(weather);
+
+        // Only the newest update is rendered; a slower, older one is dropped
+        int generation = ++renderGeneration;
+        long now = System.currentTimeMillis();
+        renderExecutor.execute(() -> {
+            Trace.beginSection("WeatherUiState.format");
+            long formatStart = Metrics.start();
+            WeatherUiState state;
+            try {
+                if (uiFormatter == null) uiFormatter = new WeatherUiState.Formatter(Locale.getDefault());
+                state = uiFormatter.format(weather, cityName, fetchedAt, now);
+            } finally {
+                Trace.endSection();
+            }
+            formatTime.recordSince(formatStart);
+            mainHandler.post(() -> {
+                if (generation != renderGeneration || isDestroyed()) return;
+                render(state);
+                if (onShown != null) onShown.run();
+            });
+        });
 
         // Save last searched city
         sharedPreferences.edit().putString("lastCity", cityName).apply();
+        rememberRecentSearch(cityName);
     }
 
     private void updateGreeting() {
@@ -303,20 +410,67 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
     }
 
     /**
-     * Populate forecast container with daily forecast items
+     * Apply a state, touching only the views that differ from the state on screen
      */
-    private void updateForecast(WeatherModel weather) {
-        forecastContainer.removeAllViews();
-        for (DailyForecastModel daily : weather.getDailyForecast()) {
-            WeatherCodeConverter.WeatherCondition cond = WeatherCodeConverter.convert(daily.getWeatherCode());
-            forecastContainer.addView(createForecastItem(daily.getDate(), cond.emoji, daily.getMaxTemp(), daily.getMinTemp(), cond.condition));
+    private void render(WeatherUiState state) {
+        long start = System.nanoTime();
+        Trace.beginSection("MainActivity.render");
+        int changed = state.changedFields(renderedState);
+        try {
+            if ((changed & WeatherUiState.CITY) != 0) locationText.setText(state.cityName);
+            if ((changed & WeatherUiState.DATE) != 0) dateText.setText(state.dateText);
+            if ((changed & WeatherUiState.TEMPERATURE) != 0) temperatureText.setText(state.temperatureText);
+            if ((changed & WeatherUiState.CONDITION) != 0) {
+                weatherIcon.setText(state.conditionEmoji);
+                weatherDescText.setText(state.conditionText);
+                feelsLikeText.setText(state.descriptionText);
+            }
+            if ((changed & WeatherUiState.HUMIDITY) != 0) humidityValue.setText(state.humidityText);
+            if ((changed & WeatherUiState.WIND) != 0) windSpeedValue.setText(state.windText);
+            if ((changed & WeatherUiState.PRECIPITATION) != 0) precipitationValue.setText(state.precipitationText);
+            if ((changed & WeatherUiState.PRESSURE) != 0) pressureValue.setText(state.pressureText);
+            if ((changed & WeatherUiState.HOURLY) != 0) updateHourlyForecast(state.hourly);
+            if ((changed & WeatherUiState.DAILY) != 0) updateForecast(renderedState != null ? renderedState.days : null, state.days);
+        } finally {
+            Trace.endSection();
         }
+        renderedState = state;
+        renderTime.recordSince(start);
+    }
+
+    /**
+     * Show the hourly timeline from the current hour on; the slice shares the series' arrays
+     */
+    private void updateHourlyForecast(ForecastSeries hourly) {
+        long now = System.currentTimeMillis() / 1000;
+        int first = hourly.indexAtOrAfter(now - Math.floorMod(now, 3600L));
+        hourlyAdapter.submit(hourly.slice(first, hourly.size()));
     }
 
     /**
-     * Create a forecast item view
+     * Update the daily forecast bubbles, reusing the ones already on screen
+     * @param previous The days shown before, or null
      */
-    private View createForecastItem(String date, String emoji, int maxTemp, int minTemp, String condition) {
+    private void updateForecast(List<WeatherUiState.Day> previous, List<WeatherUiState.Day> days) {
+        // Only add or remove the difference in the number of days
+        while (forecastContainer.getChildCount() > days.size()) {
+            forecastContainer.removeViewAt(forecastContainer.getChildCount() - 1);
+        }
+        while (forecastContainer.getChildCount() < days.size()) {
+            forecastContainer.addView(createForecastItem());
+        }
+        for (int i = 0; i < days.size(); i++) {
+            WeatherUiState.Day day = days.get(i);
+            if (previous == null || i >= previous.size() || !day.equals(previous.get(i))) {
+                bindForecastItem(forecastContainer.getChildAt(i), day);
+            }
+        }
+    }
+
+    /**
+     * Create an empty forecast item view; its text views are kept in the tag for rebinding
+     */
+    private View createForecastItem() {
         LinearLayout item = new LinearLayout(this);
         item.setOrientation(LinearLayout.VERTICAL);
         item.setPadding(16, 24, 16, 24);
@@ -329,32 +483,27 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
 
         // Day of week
         TextView dayText = new TextView(this);
-        dayText.setText(formatDateToDay(date));
         dayText.setGravity(Gravity.CENTER);
         dayText.setTextColor(Color.WHITE);
 
         // Date MM/dd
         TextView dateText = new TextView(this);
-        dateText.setText(formatDateToMonthDay(date));
         dateText.setGravity(Gravity.CENTER);
         dateText.setTextColor(Color.WHITE);
 
         // Weather emoji
         TextView iconText = new TextView(this);
-        iconText.setText(emoji);
         iconText.setTextSize(40);
         iconText.setGravity(Gravity.CENTER);
 
         // Condition text
         TextView condText = new TextView(this);
-        condText.setText(condition);
         condText.setGravity(Gravity.CENTER);
         condText.setSingleLine(true);
         condText.setTextColor(Color.WHITE);
 
         // Max/Min temperature
         TextView tempText = new TextView(this);
-        tempText.setText(String.format("%d°/%d°", maxTemp, minTemp));
         tempText.setGravity(Gravity.CENTER);
         tempText.setTextColor(Color.WHITE);
 
@@ -363,34 +512,21 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
         item.addView(iconText);
         item.addView(condText);
         item.addView(tempText);
+        item.setTag(new TextView[]{dayText, dateText, iconText, condText, tempText});
 
         return item;
     }
 
     /**
-     * Convert date string to day abbreviation (e.g., Mon, Tue)
+     * Fill a forecast item view with one day
      */
-    private String formatDateToDay(String dateString) {
-        try {
-            return new SimpleDateFormat("EEE", Locale.getDefault())
-                    .format(new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).parse(dateString));
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return dateString;
-        }
-    }
-
-    /**
-     * Convert date string to MM/dd format
-     */
-    private String formatDateToMonthDay(String dateString) {
-        try {
-            return new SimpleDateFormat("MM/dd", Locale.getDefault())
-                    .format(new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).parse(dateString));
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return "";
-        }
+    private void bindForecastItem(View item, WeatherUiState.Day day) {
+        TextView[] views = (TextView[]) item.getTag();
+        views[0].setText(day.dayName);
+        views[1].setText(day.monthDay);
+        views[2].setText(day.emoji);
+        views[3].setText(day.condition);
+        views[4].setText(day.temperatureRange);
     }
 
     /**
@@ -400,5 +536,7 @@ public class MainActivity extends AppCompatActivity implements WeatherListener {
     protected void onDestroy() {
         super.onDestroy();
         weatherManager.shutdown();
+        renderExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
     }
 }
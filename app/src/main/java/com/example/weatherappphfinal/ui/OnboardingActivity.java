@@ -8,17 +8,9 @@ import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.work.Constraints;
-import androidx.work.ExistingPeriodicWorkPolicy;
-import androidx.work.NetworkType;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
 
 import com.example.weatherappphfinal.R;
-import com.example.weatherappphfinal.services.WeatherWorker;
-
-import java.util.Calendar;
-import java.util.concurrent.TimeUnit;
+import com.example.weatherappphfinal.managers.WorkScheduler;
 
 /**
  * OnboardingActivity is responsible for greeting the user and capturing their name.
@@ -56,7 +48,7 @@ public class OnboardingActivity extends AppCompatActivity {
                 editor.apply(); // Apply the changes asynchronously.
 
                 // Schedule the daily weather notification
-                scheduleDailyWeatherWorker();
+                new WorkScheduler(this).ensureDailyWeather();
 
                 // Navigate to the main screen.
                 Intent intent = new Intent(OnboardingActivity.this, MainActivity.class);
@@ -66,38 +58,4 @@ public class OnboardingActivity extends AppCompatActivity {
             }
         });
     }
-
-    private void scheduleDailyWeatherWorker() {
-        // Set constraints for the worker
-        Constraints constraints = new Constraints.Builder()
-                .setRequiredNetworkType(NetworkType.CONNECTED)
-                .build();
-
-        // Calculate the initial delay to 7 AM
-        Calendar now = Calendar.getInstance();
-        Calendar nextRun = Calendar.getInstance();
-        nextRun.set(Calendar.HOUR_OF_DAY, 7);
-        nextRun.set(Calendar.MINUTE, 0);
-        nextRun.set(Calendar.SECOND, 0);
-
-        if (now.after(nextRun)) {
-            // If it's already past 7 AM today, schedule for 7 AM tomorrow
-            nextRun.add(Calendar.DAY_OF_YEAR, 1);
-        }
-
-        long initialDelay = nextRun.getTimeInMillis() - now.getTimeInMillis();
-
-        // Create a periodic work request
-        PeriodicWorkRequest dailyWeatherRequest =
-                new PeriodicWorkRequest.Builder(WeatherWorker.class, 24, TimeUnit.HOURS)
-                        .setInitialDelay(initialDelay, TimeUnit.MILLISECONDS)
-                        .setConstraints(constraints)
-                        .build();
-
-        // Enqueue the work request
-        WorkManager.getInstance(getApplicationContext()).enqueueUniquePeriodicWork(
-                "dailyWeatherCheck",
-                ExistingPeriodicWorkPolicy.KEEP,
-                dailyWeatherRequest);
-    }
 }
@@ -1,31 +1,33 @@
 package com.example.weatherappphfinal.ui;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.util.Log;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.weatherappphfinal.R;
+import com.example.weatherappphfinal.managers.StartupPipeline;
+import com.example.weatherappphfinal.utils.StartupTrace;
 
 /**
- * The initial screen shown to the user. It now serves as a simple entry point to the main app..
+ * The initial screen shown to the user. It stays up only while the startup pipeline prepares
+ * the main screen, and never longer than StartupPipeline.MAX_WAIT_MS.
  */
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DELAY = 2000; // 2 seconds
+    private static final String TAG = "SplashActivity";
+
+    private StartupPipeline startupPipeline; // Warms caches and prefetches the forecast
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTrace.Span created = StartupTrace.get().begin("splash-create");
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            SharedPreferences prefs = getSharedPreferences("WeatherAppPrefs", MODE_PRIVATE);
-            boolean onboardingComplete = prefs.getBoolean("onboardingComplete", false);
-
+        startupPipeline = new StartupPipeline(this);
+        startupPipeline.start(onboardingComplete -> {
             Intent intent;
             if (onboardingComplete) {
                 intent = new Intent(SplashActivity.this, MainActivity.class);
@@ -33,8 +35,18 @@ public class SplashActivity extends AppCompatActivity {
                 intent = new Intent(SplashActivity.this, OnboardingActivity.class);
             }
 
+            Log.i(TAG, StartupTrace.get().summary());
             startActivity(intent);
             finish(); // Finish this activity to prevent the user from coming back to it.
-        }, SPLASH_DELAY);
+        });
+        created.close();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (startupPipeline != null) {
+            startupPipeline.cancel();
+        }
     }
 }
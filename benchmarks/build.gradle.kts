@@ -0,0 +1,67 @@
+import groovy.json.JsonSlurper
+
+// JMH benchmarks of the core hot paths: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(testFixtures(project(":core")))
+}
+
+sourceSets {
+    named("jmh") {
+        // The place list bundled with the app, for the search benchmarks
+        resources.srcDir(rootProject.file("app/src/main/assets"))
+    }
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    // Machine-readable, so two builds can be compared with jmhCompare
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+// Fails if any benchmark got slower than in a baseline run by more than the tolerance, e.g.
+// ./gradlew :benchmarks:jmh :benchmarks:jmhCompare -Pbaseline=main-results.json -Ptolerance=0.10
+tasks.register("jmhCompare") {
+    val results = layout.buildDirectory.file("results/jmh/results.json")
+    val baseline = providers.gradleProperty("baseline")
+    val tolerance = providers.gradleProperty("tolerance").map { it.toDouble() }.orElse(0.10)
+    doLast {
+        // All benchmarks report average time, so a higher score is slower
+        fun scores(file: File): Map<String, Double> =
+            (JsonSlurper().parse(file) as List<*>).associate { run ->
+                run as Map<*, *>
+                val metric = run["primaryMetric"] as Map<*, *>
+                "${run["benchmark"]}${run["params"] ?: ""}" to (metric["score"] as Number).toDouble()
+            }
+
+        val before = scores(file(baseline.get()))
+        val after = scores(results.get().asFile)
+        val regressions = after.filter { (name, score) ->
+            val previous = before[name]
+            previous != null && score > previous * (1 + tolerance.get())
+        }
+        after.forEach { (name, score) ->
+            val previous = before[name]
+            val change = if (previous != null) "%+.1f%%".format((score / previous - 1) * 100) else "new"
+            println("%-80s %12.1f  %s".format(name, score, change))
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Slower than the baseline: ${regressions.keys.joinToString()}")
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.models.WeatherUiState;
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+import com.example.weatherappphfinal.utils.DateLabels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date labels of the forecast cards, and formatting a whole screen of weather into a UI state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateFormattingBenchmark {
+
+    private static final long FIRST_DAY = 20_417; // 2025-11-25
+    private static final int DAYS = 16;
+
+    private final DateLabels labels = DateLabels.forLocale(Locale.US);
+    private final WeatherUiState.Formatter formatter = new WeatherUiState.Formatter(Locale.US);
+    private WeatherModel weather;
+
+    @Setup
+    public void setUp() throws IOException {
+        weather = ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_hourly_16d.json")), -1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public void dayLabels(Blackhole blackhole) {
+        for (long day = FIRST_DAY; day < FIRST_DAY + DAYS; day++) {
+            blackhole.consume(labels.dayName(day));
+            blackhole.consume(labels.monthDay(day));
+        }
+    }
+
+    @Benchmark
+    public String headerDate() {
+        return labels.headerDate(FIRST_DAY);
+    }
+
+    @Benchmark
+    public WeatherUiState formatScreen() {
+        return formatter.format(weather, "Manila", 0, 1_764_051_300_000L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.services.ForecastCache;
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory-tier lookups of the forecast cache, alone and with readers and writers contending for
+ * its lock, over more places than fit so entries keep being evicted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ForecastCacheBenchmark {
+
+    private static final int PLACES = 48; // More than DEFAULT_MEMORY_ENTRIES, so some lookups miss
+
+    private ForecastCache cache;
+    private WeatherModel weather;
+
+    @Setup
+    public void setUp() throws IOException {
+        cache = new ForecastCache(null, ForecastCache.DEFAULT_MEMORY_ENTRIES, 0, ForecastCache.DEFAULT_TTL_MS);
+        weather = ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_manila.json")), -1);
+        for (int i = 0; i < PLACES; i++) cache.put(latitudeOf(i), 121.0, weather);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ForecastCache.Entry get() {
+        return cache.get(latitudeOf(ThreadLocalRandom.current().nextInt(PLACES)), 121.0);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public ForecastCache.Entry contendedGet() {
+        return cache.get(latitudeOf(ThreadLocalRandom.current().nextInt(PLACES)), 121.0);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void contendedPut() {
+        cache.put(latitudeOf(ThreadLocalRandom.current().nextInt(PLACES)), 121.0, weather);
+    }
+
+    private static double latitudeOf(int place) {
+        return 5 + place * 0.25;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses recorded open-meteo responses the way WeatherService reads them off the network:
+ * a 7-day daily forecast, a 16-day hourly forecast and a batched multi-city answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ForecastParsingBenchmark {
+
+    private String daily;
+    private String hourly;
+    private String multiCity;
+
+    @Setup
+    public void setUp() throws IOException {
+        daily = StubHttpServer.fixture("forecast_manila.json");
+        hourly = StubHttpServer.fixture("forecast_hourly_16d.json");
+        multiCity = StubHttpServer.fixture("forecast_multi_city.json");
+    }
+
+    @Benchmark
+    public WeatherModel daily() throws IOException {
+        return ForecastResponseParser.parse(new StringReader(daily), daily.length());
+    }
+
+    @Benchmark
+    public WeatherModel hourly() throws IOException {
+        return ForecastResponseParser.parse(new StringReader(hourly), hourly.length());
+    }
+
+    @Benchmark
+    public List<WeatherModel> multiCity() throws IOException {
+        return ForecastResponseParser.parseAll(new StringReader(multiCity), multiCity.length());
+    }
+}
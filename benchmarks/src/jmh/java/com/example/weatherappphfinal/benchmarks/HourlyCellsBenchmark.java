@@ -0,0 +1,54 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+import com.example.weatherappphfinal.utils.HourlyCells;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebinding the hourly timeline after a refresh: every row is diffed and every label looked up.
+ * Run with the gc profiler, which should report no allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HourlyCellsBenchmark {
+
+    private ForecastSeries before;
+    private ForecastSeries after;
+    private HourlyCells.Columns beforeColumns;
+    private HourlyCells.Columns afterColumns;
+
+    @Setup
+    public void setUp() throws IOException {
+        String body = StubHttpServer.fixture("forecast_hourly_16d.json");
+        before = ForecastResponseParser.parse(new StringReader(body), -1).getHourlySeries();
+        after = ForecastResponseParser.parse(new StringReader(body), -1).getHourlySeries();
+        beforeColumns = new HourlyCells.Columns(before);
+        afterColumns = new HourlyCells.Columns(after);
+    }
+
+    @Benchmark
+    public void rebindAllHours(Blackhole blackhole) {
+        for (int row = 0; row < after.size(); row++) {
+            blackhole.consume(HourlyCells.changedCells(before, beforeColumns, row, after, afterColumns, row));
+            blackhole.consume(HourlyCells.hourLabel(after.getTime(row), after.getUtcOffsetSeconds()));
+            blackhole.consume(HourlyCells.temperatureLabel(after.getFloat(afterColumns.temperature, row)));
+            blackhole.consume(HourlyCells.percentLabel(after.getFloat(afterColumns.precipitation, row)));
+            blackhole.consume(HourlyCells.windLabel(after.getFloat(afterColumns.wind, row)));
+        }
+    }
+}
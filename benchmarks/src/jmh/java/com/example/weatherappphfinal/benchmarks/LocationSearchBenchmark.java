@@ -0,0 +1,59 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.services.GeocodeIndex;
+import com.example.weatherappphfinal.services.LocationSearchEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete and place lookups over the place list bundled with the app: a short prefix with
+ * many candidates, a longer one, a multi-word query and a typo that needs fuzzy matching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocationSearchBenchmark {
+
+    @Param({"s", "san j", "city", "quezn"})
+    public String query;
+
+    private GeocodeIndex index;
+    private LocationSearchEngine engine;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = LocationSearchBenchmark.class.getResourceAsStream("/ph_places.tsv")) {
+            if (in == null) throw new IOException("Missing ph_places.tsv");
+            index = GeocodeIndex.fromTsv(in);
+        }
+        engine = new LocationSearchEngine(index.getNames(), index.getPopulations());
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return engine.search(query, 10);
+    }
+
+    @Benchmark
+    public LocationModel lookupByName() {
+        return index.lookup("Quezon City");
+    }
+
+    @Benchmark
+    public LocationModel nearestPlace() {
+        return index.nearest(10.3157, 123.8854, 25);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recording one timed span and one count, as every instrumented stage does.
+ * Run with the gc profiler, which should report no allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+
+    private final Histogram histogram = Metrics.histogram("benchmark.span");
+    private final LongAdder counter = Metrics.counter("benchmark.count");
+
+    @Benchmark
+    public void recordSpan() {
+        long start = Metrics.start();
+        counter.increment();
+        histogram.recordSince(start);
+    }
+}
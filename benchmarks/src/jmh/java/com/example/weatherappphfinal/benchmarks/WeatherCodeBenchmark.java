@@ -0,0 +1,44 @@
+package com.example.weatherappphfinal.benchmarks;
+
+import com.example.weatherappphfinal.utils.WeatherCodeConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts every WMO code the forecast can contain, as the daily and hourly rows do when rendered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeatherCodeBenchmark {
+
+    private static final int CODES = WeatherCodeConverter.MAX_CODE + 1;
+
+    private final WeatherCodeConverter filipino = WeatherCodeConverter.forLocale(new Locale("fil", "PH"));
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void convert(Blackhole blackhole) {
+        for (int code = 0; code < CODES; code++) {
+            blackhole.consume(WeatherCodeConverter.convert(code));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void lookupLocalizedAtNight(Blackhole blackhole) {
+        for (int code = 0; code < CODES; code++) {
+            blackhole.consume(filipino.lookup(code, false));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+// The weather engine with no Android dependencies: fetch, parse, cache and model layers, shared by the app and the benchmarks
+plugins {
+    `java-library`
+    `java-test-fixtures`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+    // AllocationCounter skips tests through JUnit assumptions
+    testFixturesImplementation(libs.junit)
+    // Only to check the streaming parsers against the JSONObject-based parsing they replaced
+    testImplementation("org.json:json:20240303")
+}
+
+sourceSets {
+    named("test") {
+        // The place list bundled with the app, for the geocode index tests
+        resources.srcDir(rootProject.file("app/src/main/assets"))
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.weatherappphfinal.listeners;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+public interface SnapshotListener {
+    void onSnapshotLoaded(WeatherModel weather, String cityName, long fetchedAt);
+}
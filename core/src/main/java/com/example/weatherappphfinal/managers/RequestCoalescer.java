@@ -0,0 +1,179 @@
+package com.example.weatherappphfinal.managers;
+
+import com.example.weatherappphfinal.services.Cancellation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs interactive loads so that only the latest one reaches the UI.
+ * A request with the same key as the one in flight joins it instead of starting another. A request
+ * with a different key supersedes it: the old request is cancelled, its network I/O aborted, and
+ * anything it had not delivered yet is dropped.
+ *
+ * @param <K> The request key, e.g. a normalized location.
+ * @param <L> The listener type results are delivered to.
+ */
+public class RequestCoalescer<K, L> {
+
+    /**
+     * Delivers events of a running request to its listeners.
+     */
+    public interface Emitter<L> {
+        /**
+         * @param event Applied to every listener of the request on the callback executor.
+         */
+        void emit(Consumer<L> event);
+    }
+
+    /**
+     * The work behind a request. It runs with the request's Cancellation bound to its thread
+     * and may emit more than once, e.g. a cached result followed by a fresh one.
+     */
+    public interface Work<L> {
+        void run(Emitter<L> emitter) throws Exception;
+    }
+
+    // Closes the connections of superseded requests, which can block, away from the caller and the worker
+    private static final Executor sharedAborts = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "request-abort");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService executor; // Runs the work
+    private final Executor callbackExecutor; // Delivers events, e.g. on the main thread
+    private final Executor abortExecutor; // Aborts the network I/O of cancelled requests
+    private InFlight current; // The latest request, kept after it finishes until superseded; guarded by this
+
+    public RequestCoalescer(ExecutorService executor, Executor callbackExecutor) {
+        this(executor, callbackExecutor, sharedAborts);
+    }
+
+    /**
+     * @param abortExecutor Runs the abort actions of cancelled requests; never the executor running the work,
+     *                      since the abort has to reach a request blocked on it.
+     */
+    public RequestCoalescer(ExecutorService executor, Executor callbackExecutor, Executor abortExecutor) {
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
+        this.abortExecutor = abortExecutor;
+    }
+
+    /**
+     * Starts a request, or joins the one in flight if it has the same key.
+     * A joining listener is immediately sent the latest event already emitted, if any,
+     * and the same listener joining twice is only notified once.
+     *
+     * @param key      Identifies the request.
+     * @param listener Receives the events of the request.
+     * @param work     The work to run if a new request is started.
+     */
+    public void submit(K key, L listener, Work<L> work) {
+        InFlight superseded;
+        synchronized (this) {
+            if (current != null && !current.finished && current.key.equals(key)) {
+                if (!current.hasListener(listener)) {
+                    current.listeners.add(listener);
+                    if (current.latest != null) {
+                        dispatch(current, current.latest, listener);
+                    }
+                }
+                return;
+            }
+
+            superseded = current;
+            InFlight request = new InFlight(key);
+            request.listeners.add(listener);
+            current = request;
+            request.future = executor.submit(() -> run(request, work));
+        }
+        cancel(superseded);
+    }
+
+    /**
+     * Cancels the request in flight, if any.
+     */
+    public void cancelAll() {
+        InFlight cancelled;
+        synchronized (this) {
+            cancelled = current;
+            current = null;
+        }
+        cancel(cancelled);
+    }
+
+    // Called without the lock; a request that is no longer current delivers nothing from here on
+    private void cancel(InFlight request) {
+        if (request == null) return;
+        request.cancellation.cancel(abortExecutor);
+        // Never started requests are simply skipped; running ones stop at the aborted connection
+        request.future.cancel(false);
+    }
+
+    private void run(InFlight request, Work<L> work) {
+        try (Cancellation.Scope ignored = request.cancellation.enter()) {
+            if (request.cancellation.isCancelled()) return;
+            work.run(event -> emit(request, event));
+        } catch (Exception e) {
+            if (!request.cancellation.isCancelled()) {
+                e.printStackTrace();
+            }
+        } finally {
+            // Stay current: events it posted may still be queued and must be dropped if a newer request comes in
+            synchronized (this) {
+                request.finished = true;
+            }
+        }
+    }
+
+    private void emit(InFlight request, Consumer<L> event) {
+        synchronized (this) {
+            if (request != current) return;
+            request.latest = event;
+            for (L listener : request.listeners) {
+                dispatch(request, event, listener);
+            }
+        }
+    }
+
+    // Re-check on the callback thread so a request superseded in the meantime never reaches the UI
+    private void dispatch(InFlight request, Consumer<L> event, L listener) {
+        callbackExecutor.execute(() -> {
+            if (isCurrent(request)) {
+                event.accept(listener);
+            }
+        });
+    }
+
+    private synchronized boolean isCurrent(InFlight request) {
+        return request == current;
+    }
+
+    // State of one request
+    private class InFlight {
+        final K key;
+        final Cancellation cancellation = new Cancellation();
+        final List<L> listeners = new ArrayList<>();
+        Future<?> future;
+        Consumer<L> latest; // Last event emitted, replayed to listeners that join later
+        boolean finished;
+
+        InFlight(K key) {
+            this.key = key;
+        }
+
+        // Listeners are compared by identity, not equals
+        boolean hasListener(L listener) {
+            for (L existing : listeners) {
+                if (existing == listener) return true;
+            }
+            return false;
+        }
+    }
+}
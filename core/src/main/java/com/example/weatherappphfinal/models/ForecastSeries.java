@@ -0,0 +1,203 @@
+package com.example.weatherappphfinal.models;
+
+import com.example.weatherappphfinal.utils.ForecastDates;
+
+import java.util.Arrays;
+
+/**
+ * A columnar time series of forecast values, used for both daily and hourly data.
+ * Timestamps are held in a long[] and every variable in its own primitive array: codes and
+ * percentages as short[], everything else as float[]. Rows are never boxed into objects, and
+ * {@link #slice} returns a view over the same arrays without copying.
+ */
+public class ForecastSeries {
+
+    // open-meteo variable names
+    public static final String WEATHER_CODE = "weather_code";
+    public static final String TEMPERATURE = "temperature_2m";
+    public static final String TEMPERATURE_MAX = "temperature_2m_max";
+    public static final String TEMPERATURE_MIN = "temperature_2m_min";
+    public static final String PRECIPITATION_PROBABILITY = "precipitation_probability";
+    public static final String PRECIPITATION_PROBABILITY_MEAN = "precipitation_probability_mean";
+    public static final String RELATIVE_HUMIDITY = "relative_humidity_2m";
+    public static final String WIND_SPEED = "wind_speed_10m";
+    public static final String IS_DAY = "is_day"; // 1 between sunrise and sunset, else 0
+
+    // Stored in short columns to signal a missing (null) sample
+    public static final short MISSING = Short.MIN_VALUE;
+
+    private final long[] times; // Epoch seconds (UTC) of each row
+    private final int offset; // First row of this view within the arrays
+    private final int size; // Number of rows in this view
+    private final int utcOffsetSeconds; // Offset of the location's timezone, for local dates
+    private final String[] variables;
+    private final float[][] floatColumns; // Null where the variable is stored as shorts
+    private final short[][] shortColumns; // Null where the variable is stored as floats
+
+    private ForecastSeries(long[] times, int offset, int size, int utcOffsetSeconds,
+                           String[] variables, float[][] floatColumns, short[][] shortColumns) {
+        this.times = times;
+        this.offset = offset;
+        this.size = size;
+        this.utcOffsetSeconds = utcOffsetSeconds;
+        this.variables = variables;
+        this.floatColumns = floatColumns;
+        this.shortColumns = shortColumns;
+    }
+
+    /**
+     * Returns an empty series.
+     */
+    public static ForecastSeries empty() {
+        return new ForecastSeries(new long[0], 0, 0, 0, new String[0], new float[0][], new short[0][]);
+    }
+
+    public int size() { return size; }
+    public int getUtcOffsetSeconds() { return utcOffsetSeconds; }
+
+    /**
+     * @return The timestamp of a row, in epoch seconds.
+     */
+    public long getTime(int row) {
+        return times[offset + checkRow(row)];
+    }
+
+    /**
+     * @return The column index of a variable, or -1 if the series does not carry it.
+     */
+    public int indexOf(String variable) {
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(variable)) return i;
+        }
+        return -1;
+    }
+
+    public boolean has(String variable) {
+        return indexOf(variable) >= 0;
+    }
+
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * Reads a value as a float. Missing samples, and variables the series does not carry, are NaN.
+     *
+     * @param column The column index from {@link #indexOf}.
+     * @param row    The row within this view.
+     */
+    public float getFloat(int column, int row) {
+        if (column < 0) return Float.NaN;
+        int index = offset + checkRow(row);
+        if (floatColumns[column] != null) return floatColumns[column][index];
+        short value = shortColumns[column][index];
+        return value == MISSING ? Float.NaN : value;
+    }
+
+    /**
+     * Reads a value rounded to an int, or the fallback when the sample is missing.
+     */
+    public int getInt(int column, int row, int fallback) {
+        float value = getFloat(column, row);
+        return Float.isNaN(value) ? fallback : Math.round(value);
+    }
+
+    /**
+     * @return The local date of a row, as days since 1970-01-01.
+     */
+    public long getEpochDay(int row) {
+        return ForecastDates.localEpochDay(getTime(row), utcOffsetSeconds);
+    }
+
+    /**
+     * Returns a view of rows [from, to) that shares this series' arrays.
+     */
+    public ForecastSeries slice(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("slice(" + from + ", " + to + ") of " + size);
+        }
+        return new ForecastSeries(times, offset + from, to - from, utcOffsetSeconds, variables, floatColumns, shortColumns);
+    }
+
+    /**
+     * @return The first row whose time is at or after the given epoch second, or size() if none.
+     */
+    public int indexAtOrAfter(long epochSeconds) {
+        int index = Arrays.binarySearch(times, offset, offset + size, epochSeconds);
+        if (index < 0) index = -(index + 1);
+        return index - offset;
+    }
+
+    /**
+     * Approximate heap held by the backing arrays of this series, in bytes.
+     */
+    public long footprintBytes() {
+        long bytes = 16L + 8L * times.length;
+        for (int i = 0; i < variables.length; i++) {
+            bytes += floatColumns[i] != null ? 16L + 4L * floatColumns[i].length : 16L + 2L * shortColumns[i].length;
+        }
+        return bytes;
+    }
+
+    // Codes and percentages fit in a short; everything else keeps its decimals in a float
+    private static boolean isShortVariable(String variable) {
+        return variable.equals(WEATHER_CODE) || variable.equals(IS_DAY) || variable.startsWith("precipitation_probability")
+                || variable.startsWith("relative_humidity") || variable.startsWith("cloud_cover");
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        return row;
+    }
+
+    /**
+     * Assembles a series column by column.
+     */
+    public static class Builder {
+        private final long[] times;
+        private final int utcOffsetSeconds;
+        private String[] variables = new String[0];
+        private float[][] floatColumns = new float[0][];
+        private short[][] shortColumns = new short[0][];
+
+        /**
+         * @param times            Epoch seconds of each row, ascending.
+         * @param utcOffsetSeconds Offset of the location's timezone from UTC.
+         */
+        public Builder(long[] times, int utcOffsetSeconds) {
+            this.times = times;
+            this.utcOffsetSeconds = utcOffsetSeconds;
+        }
+
+        /**
+         * Adds a variable. Values beyond the number of rows are ignored and missing ones are
+         * stored as NaN/{@link #MISSING}.
+         */
+        public Builder add(String variable, double[] values) {
+            int column = variables.length;
+            variables = Arrays.copyOf(variables, column + 1);
+            floatColumns = Arrays.copyOf(floatColumns, column + 1);
+            shortColumns = Arrays.copyOf(shortColumns, column + 1);
+            variables[column] = variable;
+
+            if (isShortVariable(variable)) {
+                short[] shorts = new short[times.length];
+                for (int i = 0; i < shorts.length; i++) {
+                    shorts[i] = i < values.length && !Double.isNaN(values[i]) ? (short) Math.round(values[i]) : MISSING;
+                }
+                shortColumns[column] = shorts;
+            } else {
+                float[] floats = new float[times.length];
+                for (int i = 0; i < floats.length; i++) {
+                    floats[i] = i < values.length ? (float) values[i] : Float.NaN;
+                }
+                floatColumns[column] = floats;
+            }
+            return this;
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(times, 0, times.length, utcOffsetSeconds, variables, floatColumns, shortColumns);
+        }
+    }
+}
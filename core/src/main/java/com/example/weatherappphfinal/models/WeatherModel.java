@@ -0,0 +1,149 @@
+package com.example.weatherappphfinal.models;
+
+import com.example.weatherappphfinal.utils.ForecastDates;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Represents the complete weather data for a specific location.
+ * This model holds the current weather conditions, as well as the daily and hourly forecasts.
+ * Forecasts are stored as columnar ForecastSeries rather than one object per row.
+ */
+public class WeatherModel {
+
+    // Current temperature in Celsius.
+    private double temperature;
+    // Current humidity percentage.
+    private int humidity;
+    // Current wind speed in meters per second.
+    private double windSpeed;
+    // Weather code representing the current conditions.
+    private int weatherCode;
+    // A human-readable description of the current weather.
+    private String weatherDescription;
+    // The probability of precipitation as a percentage.
+    private int precipitationProbability;
+    // The amount of precipitation.
+    private double precipitation;
+    // The atmospheric pressure in hPa.
+    private double pressure;
+    // The percentage of the sky covered by clouds.
+    private int cloudCover;
+    // Daily forecast, one row per day.
+    private ForecastSeries daily;
+    // Hourly forecast, empty when hourly data was not requested.
+    private ForecastSeries hourly;
+
+    /**
+     * Constructs a new WeatherModel with all the necessary weather data.
+     *
+     * @param temperature            Current temperature.
+     * @param humidity               Current humidity.
+     * @param windSpeed              Current wind speed.
+     * @param weatherCode            Current weather code.
+     * @param weatherDescription     Description of the current weather.
+     * @param precipitationProbability Probability of precipitation.
+     * @param precipitation          Amount of precipitation.
+     * @param pressure               Atmospheric pressure.
+     * @param cloudCover             Cloud cover percentage.
+     * @param dailyForecast          List of daily forecasts.
+     */
+    public WeatherModel(double temperature, int humidity, double windSpeed, int weatherCode, String weatherDescription, int precipitationProbability, double precipitation, double pressure, int cloudCover, List<DailyForecastModel> dailyForecast) {
+        this(temperature, humidity, windSpeed, weatherCode, weatherDescription, precipitationProbability, precipitation, pressure, cloudCover, toSeries(dailyForecast), ForecastSeries.empty());
+    }
+
+    /**
+     * Constructs a new WeatherModel from columnar forecasts.
+     *
+     * @param temperature            Current temperature.
+     * @param humidity               Current humidity.
+     * @param windSpeed              Current wind speed.
+     * @param weatherCode            Current weather code.
+     * @param weatherDescription     Description of the current weather.
+     * @param precipitationProbability Probability of precipitation.
+     * @param precipitation          Amount of precipitation.
+     * @param pressure               Atmospheric pressure.
+     * @param cloudCover             Cloud cover percentage.
+     * @param daily                  Daily forecast series.
+     * @param hourly                 Hourly forecast series, possibly empty.
+     */
+    public WeatherModel(double temperature, int humidity, double windSpeed, int weatherCode, String weatherDescription, int precipitationProbability, double precipitation, double pressure, int cloudCover, ForecastSeries daily, ForecastSeries hourly) {
+        this.temperature = temperature;
+        this.humidity = humidity;
+        this.windSpeed = windSpeed;
+        this.weatherCode = weatherCode;
+        this.weatherDescription = weatherDescription;
+        this.precipitationProbability = precipitationProbability;
+        this.precipitation = precipitation;
+        this.pressure = pressure;
+        this.cloudCover = cloudCover;
+        this.daily = daily;
+        this.hourly = hourly;
+    }
+
+    // Getters for all the weather data fields.
+
+    public double getTemperature() { return temperature; }
+    public int getHumidity() { return humidity; }
+    public double getWindSpeed() { return windSpeed; }
+    public int getWeatherCode() { return weatherCode; }
+    public String getWeatherDescription() { return weatherDescription; }
+    public int getPrecipitationProbability() { return precipitationProbability; }
+    public double getPrecipitation() { return precipitation; }
+    public double getPressure() { return pressure; }
+    public int getCloudCover() { return cloudCover; }
+    public ForecastSeries getDailySeries() { return daily; }
+    public ForecastSeries getHourlySeries() { return hourly; }
+
+    /**
+     * Returns the daily forecast as a list. The list is a view over the daily series; each
+     * element is created on access, so prefer {@link #getDailySeries()} on hot paths.
+     */
+    public List<DailyForecastModel> getDailyForecast() {
+        int code = daily.indexOf(ForecastSeries.WEATHER_CODE);
+        int max = daily.indexOf(ForecastSeries.TEMPERATURE_MAX);
+        int min = daily.indexOf(ForecastSeries.TEMPERATURE_MIN);
+        int precipitation = daily.indexOf(ForecastSeries.PRECIPITATION_PROBABILITY_MEAN);
+        return new AbstractList<DailyForecastModel>() {
+            @Override
+            public DailyForecastModel get(int index) {
+                return new DailyForecastModel(
+                        ForecastDates.formatIsoDate(daily.getTime(index), daily.getUtcOffsetSeconds()),
+                        daily.getInt(code, index, 0),
+                        daily.getInt(max, index, 0),
+                        daily.getInt(min, index, 0),
+                        daily.getInt(precipitation, index, 0));
+            }
+
+            @Override
+            public int size() {
+                return daily.size();
+            }
+        };
+    }
+
+    // Convert a list of daily forecasts into a series; dates are kept as local midnights
+    private static ForecastSeries toSeries(List<DailyForecastModel> days) {
+        int size = days.size();
+        long[] times = new long[size];
+        double[] codes = new double[size];
+        double[] max = new double[size];
+        double[] min = new double[size];
+        double[] precipitation = new double[size];
+        for (int i = 0; i < size; i++) {
+            DailyForecastModel day = days.get(i);
+            times[i] = ForecastDates.parseEpochSeconds(day.getDate(), 0);
+            codes[i] = day.getWeatherCode();
+            max[i] = day.getMaxTemp();
+            min[i] = day.getMinTemp();
+            precipitation[i] = day.getPrecipitationProbability();
+        }
+        return new ForecastSeries.Builder(times, 0)
+                .add(ForecastSeries.WEATHER_CODE, codes)
+                .add(ForecastSeries.TEMPERATURE_MAX, max)
+                .add(ForecastSeries.TEMPERATURE_MIN, min)
+                .add(ForecastSeries.PRECIPITATION_PROBABILITY_MEAN, precipitation)
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.weatherappphfinal.models;
+
+import com.example.weatherappphfinal.utils.DateLabels;
+import com.example.weatherappphfinal.utils.ForecastDates;
+import com.example.weatherappphfinal.utils.WeatherCodeConverter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * Everything the main screen shows, already formatted.
+ * A state is built off the main thread from a WeatherModel and never changes afterwards; the
+ * screen compares it with the state it rendered last and only touches the views whose text differs.
+ */
+public class WeatherUiState {
+
+    // Bits returned by changedFields, one per group of views
+    public static final int CITY = 1;
+    public static final int DATE = 1 << 1;
+    public static final int TEMPERATURE = 1 << 2;
+    public static final int CONDITION = 1 << 3;
+    public static final int HUMIDITY = 1 << 4;
+    public static final int WIND = 1 << 5;
+    public static final int PRECIPITATION = 1 << 6;
+    public static final int PRESSURE = 1 << 7;
+    public static final int DAILY = 1 << 8;
+    public static final int HOURLY = 1 << 9;
+    public static final int ALL = (1 << 10) - 1;
+
+    public final String cityName;
+    public final String dateText;
+    public final String temperatureText;
+    public final String conditionEmoji;
+    public final String conditionText;
+    public final String descriptionText;
+    public final String humidityText;
+    public final String windText;
+    public final String precipitationText;
+    public final String pressureText;
+    public final List<Day> days;
+    public final ForecastSeries hourly; // Compared by identity; the timeline diffs its own rows
+
+    private WeatherUiState(String cityName, String dateText, String temperatureText, WeatherCodeConverter.WeatherCondition condition,
+                           String humidityText, String windText, String precipitationText, String pressureText,
+                           List<Day> days, ForecastSeries hourly) {
+        this.cityName = cityName;
+        this.dateText = dateText;
+        this.temperatureText = temperatureText;
+        this.conditionEmoji = condition.emoji;
+        this.conditionText = condition.condition;
+        this.descriptionText = condition.description;
+        this.humidityText = humidityText;
+        this.windText = windText;
+        this.precipitationText = precipitationText;
+        this.pressureText = pressureText;
+        this.days = days;
+        this.hourly = hourly;
+    }
+
+    /**
+     * Compares with the state on screen.
+     *
+     * @param previous The state rendered last, or null if nothing was rendered yet.
+     * @return A mask of the view groups that need to be updated.
+     */
+    public int changedFields(WeatherUiState previous) {
+        if (previous == null) return ALL;
+        int mask = 0;
+        if (!cityName.equals(previous.cityName)) mask |= CITY;
+        if (!dateText.equals(previous.dateText)) mask |= DATE;
+        if (!temperatureText.equals(previous.temperatureText)) mask |= TEMPERATURE;
+        if (!conditionText.equals(previous.conditionText) || !descriptionText.equals(previous.descriptionText)
+                || !conditionEmoji.equals(previous.conditionEmoji)) mask |= CONDITION;
+        if (!humidityText.equals(previous.humidityText)) mask |= HUMIDITY;
+        if (!windText.equals(previous.windText)) mask |= WIND;
+        if (!precipitationText.equals(previous.precipitationText)) mask |= PRECIPITATION;
+        if (!pressureText.equals(previous.pressureText)) mask |= PRESSURE;
+        if (!days.equals(previous.days)) mask |= DAILY;
+        if (hourly != previous.hourly) mask |= HOURLY;
+        return mask;
+    }
+
+    /**
+     * One bubble of the daily forecast.
+     */
+    public static class Day {
+        public final String dayName; // e.g. "Mon"
+        public final String monthDay; // e.g. "11/25"
+        public final String emoji;
+        public final String condition;
+        public final String temperatureRange; // e.g. "32°/25°"
+
+        Day(String dayName, String monthDay, String emoji, String condition, String temperatureRange) {
+            this.dayName = dayName;
+            this.monthDay = monthDay;
+            this.emoji = emoji;
+            this.condition = condition;
+            this.temperatureRange = temperatureRange;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Day)) return false;
+            Day day = (Day) o;
+            return dayName.equals(day.dayName) && monthDay.equals(day.monthDay) && emoji.equals(day.emoji)
+                    && condition.equals(day.condition) && temperatureRange.equals(day.temperatureRange);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dayName, monthDay, emoji, condition, temperatureRange);
+        }
+    }
+
+    /**
+     * Builds states from the shared, per-locale condition and date label tables.
+     * Immutable, so one formatter can be used from any thread.
+     */
+    public static class Formatter {
+        private final Locale locale;
+        private final WeatherCodeConverter conditions;
+        private final DateLabels dates;
+
+        public Formatter(Locale locale) {
+            this.locale = locale;
+            conditions = WeatherCodeConverter.forLocale(locale);
+            dates = DateLabels.forLocale(locale);
+        }
+
+        /**
+         * Formats a forecast for display.
+         *
+         * @param weather     The forecast.
+         * @param cityName    The city name as displayed.
+         * @param fetchedAt   When a snapshot was fetched, in milliseconds, to show its age; or 0 for live data.
+         * @param nowMillis   The current wall-clock time.
+         */
+        public WeatherUiState format(WeatherModel weather, String cityName, long fetchedAt, long nowMillis) {
+            int zoneOffsetSeconds = TimeZone.getDefault().getOffset(nowMillis) / 1000;
+            String date = dates.headerDate(ForecastDates.localEpochDay(nowMillis / 1000, zoneOffsetSeconds));
+            if (fetchedAt > 0) {
+                date = date + " · Updated " + ForecastDates.formatAge(nowMillis - fetchedAt);
+            }
+            return new WeatherUiState(
+                    cityName,
+                    date,
+                    String.format(locale, "%d°C", (int) weather.getTemperature()),
+                    conditions.lookup(weather.getWeatherCode(), isDay(weather.getHourlySeries(), nowMillis)),
+                    String.format(locale, "%d%%", weather.getHumidity()),
+                    String.format(locale, "%.1f m/s", weather.getWindSpeed()),
+                    String.format(locale, "%d%%", weather.getPrecipitationProbability()),
+                    String.format(locale, "%.0f hPa", weather.getPressure()),
+                    days(weather.getDailySeries()),
+                    weather.getHourlySeries());
+        }
+
+        private List<Day> days(ForecastSeries daily) {
+            int codeColumn = daily.indexOf(ForecastSeries.WEATHER_CODE);
+            int maxColumn = daily.indexOf(ForecastSeries.TEMPERATURE_MAX);
+            int minColumn = daily.indexOf(ForecastSeries.TEMPERATURE_MIN);
+            List<Day> days = new ArrayList<>(daily.size());
+            for (int i = 0; i < daily.size(); i++) {
+                WeatherCodeConverter.WeatherCondition condition = conditions.lookup(daily.getInt(codeColumn, i, 0), true);
+                long epochDay = daily.getEpochDay(i);
+                days.add(new Day(dates.dayName(epochDay), dates.monthDay(epochDay), condition.emoji, condition.condition,
+                        daily.getInt(maxColumn, i, 0) + "°/" + daily.getInt(minColumn, i, 0) + "°"));
+            }
+            return Collections.unmodifiableList(days);
+        }
+
+        // Day or night at the current hour, from the hourly forecast; day if it has no such data
+        private static boolean isDay(ForecastSeries hourly, long nowMillis) {
+            long now = nowMillis / 1000;
+            int row = hourly.indexAtOrAfter(now - Math.floorMod(now, 3600L));
+            return row >= hourly.size() || hourly.getInt(hourly.indexOf(ForecastSeries.IS_DAY), row, 1) != 0;
+        }
+
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+public class ApiClient {
+
+    // Shared transport so every call to the same host reuses pooled keep-alive connections.
+    // No connect or read may stall longer than these. The retry budget only keeps new attempts from
+    // starting, so a call can overrun it by one attempt; callers needing a hard deadline cancel it.
+    private static final HttpTransport transport = new HttpTransport(10_000, 15_000);
+
+    private static volatile RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+
+    // Expose the shared transport so callers can stream bodies or observe request timings
+    public static HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Replaces the retry policy, e.g. with shorter waits in tests.
+     */
+    public static void setRetryPolicy(RetryPolicy policy) {
+        retryPolicy = policy;
+    }
+
+    /**
+     * Performs a GET through the host's circuit breaker, retrying transient failures.
+     *
+     * @param url        The URL to fetch.
+     * @param cached     Validators of a cached copy to revalidate, or null.
+     * @param bodyReader Consumer of the decoded response body.
+     * @return The response, possibly a not-modified one.
+     * @throws ApiException If the call failed, with the kind of the last failure.
+     */
+    public static <T> HttpTransport.Conditional<T> fetch(String url, HttpTransport.Validators cached,
+                                                         HttpTransport.BodyReader<T> bodyReader) throws IOException {
+        CircuitBreaker breaker = CircuitBreaker.forHost(hostOf(url));
+        return retryPolicy.run(() -> breaker.call(() -> transport.getConditional(url, cached, bodyReader)));
+    }
+
+    /**
+     * Performs a GET like {@link #fetch(String, HttpTransport.Validators, HttpTransport.BodyReader)} without validators.
+     */
+    public static <T> T fetch(String url, HttpTransport.BodyReader<T> bodyReader) throws IOException {
+        return fetch(url, null, bodyReader).value;
+    }
+
+    // Breakers are per host and port, e.g. "api.open-meteo.com" or "127.0.0.1:8080"
+    private static String hostOf(String url) throws MalformedURLException {
+        return new URL(url).getAuthority();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.weatherappphfinal.services;
+
+/**
+ * Base URLs of the upstream APIs used by the services.
+ * They default to the public hosts and can be redirected, e.g. to a local stub server in tests.
+ */
+public class ApiEndpoints {
+
+    public static final String DEFAULT_FORECAST = "https://api.open-meteo.com";
+    public static final String DEFAULT_GEOCODING = "https://geocoding-api.open-meteo.com";
+    public static final String DEFAULT_REVERSE_GEOCODING = "https://api.bigdatacloud.net";
+
+    private static volatile String forecast = DEFAULT_FORECAST;
+    private static volatile String geocoding = DEFAULT_GEOCODING;
+    private static volatile String reverseGeocoding = DEFAULT_REVERSE_GEOCODING;
+
+    public static String forecast() { return forecast; }
+    public static String geocoding() { return geocoding; }
+    public static String reverseGeocoding() { return reverseGeocoding; }
+
+    /**
+     * Points every service at the same base URL.
+     * @param baseUrl Scheme, host and port without a trailing slash.
+     */
+    public static void setAll(String baseUrl) {
+        forecast = baseUrl;
+        geocoding = baseUrl;
+        reverseGeocoding = baseUrl;
+    }
+
+    /**
+     * Restores the public hosts.
+     */
+    public static void reset() {
+        forecast = DEFAULT_FORECAST;
+        geocoding = DEFAULT_GEOCODING;
+        reverseGeocoding = DEFAULT_REVERSE_GEOCODING;
+    }
+}
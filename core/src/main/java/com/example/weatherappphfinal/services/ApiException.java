@@ -0,0 +1,77 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+
+/**
+ * A failed call to an upstream API, classified so callers can tell a busy or broken service,
+ * which is worth retrying, from a request that will never succeed.
+ */
+public class ApiException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind {
+        NETWORK, // Connection failed, reset or timed out
+        RATE_LIMITED, // 429 Too Many Requests
+        SERVER, // 5xx
+        CLIENT, // Any other 4xx, e.g. bad coordinates; retrying does not help
+        PARSE, // The body could not be read as expected
+        CIRCUIT_OPEN // Not attempted, the host has been failing
+    }
+
+    private final Kind kind;
+    private final int status; // HTTP status, or 0 if no response was received
+    private final long retryAfterMs; // From the Retry-After header, or -1 if absent
+
+    public ApiException(Kind kind, int status, long retryAfterMs, String message, Throwable cause) {
+        super(message, cause);
+        this.kind = kind;
+        this.status = status;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public ApiException(Kind kind, String message, Throwable cause) {
+        this(kind, 0, -1, message, cause);
+    }
+
+    public Kind getKind() { return kind; }
+    public int getStatus() { return status; }
+    public long getRetryAfterMs() { return retryAfterMs; }
+
+    /**
+     * @return True if the same request may succeed later.
+     */
+    public boolean isRetryable() {
+        return kind == Kind.NETWORK || kind == Kind.RATE_LIMITED || kind == Kind.SERVER;
+    }
+
+    /**
+     * Classifies an HTTP status that is not a success.
+     */
+    public static Kind kindOf(int status) {
+        if (status == 429) return Kind.RATE_LIMITED;
+        if (status >= 500) return Kind.SERVER;
+        return Kind.CLIENT;
+    }
+
+    /**
+     * A message for the user describing what went wrong.
+     *
+     * @param error    The failure, or null if it is not known.
+     * @param fallback The message to use when the failure is not known.
+     */
+    public static String userMessage(ApiException error, String fallback) {
+        if (error == null) return fallback;
+        switch (error.kind) {
+            case NETWORK:
+                return "No connection to the weather service";
+            case RATE_LIMITED:
+                return "The weather service is busy, try again in a minute";
+            case SERVER:
+            case CIRCUIT_OPEN:
+                return "The weather service is unavailable right now";
+            default:
+                return fallback;
+        }
+    }
+}
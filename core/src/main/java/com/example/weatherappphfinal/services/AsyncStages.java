@@ -0,0 +1,116 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers for running independent network stages concurrently with CompletableFuture.
+ * Each stage gets its own timeout, implemented with a shared scheduler because
+ * CompletableFuture.orTimeout is not available on older Android versions. A stage that times
+ * out, or whose caller is cancelled, has its HTTP connection aborted through a Cancellation.
+ */
+public class AsyncStages {
+
+    // Threads available to stages across the app
+    private static final int POOL_SIZE = 4;
+
+    private static final Executor executor = newPool();
+    private static final ScheduledExecutorService timer = newTimer();
+
+    /**
+     * Runs a stage on the shared pool.
+     *
+     * @param stage     The blocking work, e.g. a service call.
+     * @param timeoutMs Time after which the stage fails with a TimeoutException and its request is aborted.
+     * @return A future completed with the stage's result.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> stage, long timeoutMs) {
+        return supply(stage, timeoutMs, executor);
+    }
+
+    /**
+     * Runs a stage on the given executor. The Cancellation bound to the calling thread, if any,
+     * is propagated so cancelling the caller aborts the stage too, and so is its NetworkUsage.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> stage, long timeoutMs, Executor stageExecutor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Cancellation cancellation = new Cancellation();
+        Cancellation parent = Cancellation.current();
+        NetworkUsage usage = NetworkUsage.current();
+        Runnable propagate = cancellation::cancel;
+        if (parent != null && !parent.onCancel(propagate)) {
+            future.completeExceptionally(new InterruptedIOException("Request cancelled"));
+            return future;
+        }
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (future.completeExceptionally(new TimeoutException("Stage timed out after " + timeoutMs + " ms"))) {
+                cancellation.cancel();
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        stageExecutor.execute(() -> {
+            try (Cancellation.Scope ignored = cancellation.enter();
+                 NetworkUsage.Scope counted = usage != null ? usage.enter() : null) {
+                future.complete(stage.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                timeout.cancel(false);
+                if (parent != null) parent.removeOnCancel(propagate);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Replaces a failure, timeout or null result with a fallback value.
+     */
+    public static <T> CompletableFuture<T> withFallback(CompletableFuture<T> future, T fallback) {
+        return future.handle((value, error) -> error != null || value == null ? fallback : value);
+    }
+
+    /**
+     * Waits for a stage and returns its result, or null if it failed or timed out.
+     */
+    public static <T> T joinOrNull(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Executor newPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("stage"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("stage-timer"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
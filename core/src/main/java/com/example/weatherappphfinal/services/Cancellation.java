@@ -0,0 +1,98 @@
+package com.example.weatherappphfinal.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * A cancellation flag for a background request.
+ * While bound to a thread with {@link #enter()}, network calls made on that thread register an
+ * abort action with it, so cancelling stops blocking I/O immediately instead of waiting for a timeout.
+ */
+public class Cancellation {
+
+    // Cancellation of the request running on the current thread, if any
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> actions = new ArrayList<>();
+    private boolean cancelled;
+
+    /**
+     * @return The cancellation bound to the calling thread, or null.
+     */
+    public static Cancellation current() {
+        return CURRENT.get();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the request and runs every registered abort action. Calling it again is a no-op.
+     */
+    public void cancel() {
+        cancel(Runnable::run);
+    }
+
+    /**
+     * Cancels the request and runs the abort actions on the given executor, for callers that must
+     * not block while a connection is closed, e.g. the main thread. The request counts as
+     * cancelled as soon as this returns.
+     */
+    public void cancel(Executor abortExecutor) {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            toRun = new ArrayList<>(actions);
+            actions.clear();
+        }
+        if (toRun.isEmpty()) return;
+        abortExecutor.execute(() -> {
+            for (Runnable action : toRun) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers an action to run on cancellation.
+     *
+     * @param action The abort action, e.g. disconnecting a connection.
+     * @return False if already cancelled, in which case the action is not registered.
+     */
+    public synchronized boolean onCancel(Runnable action) {
+        if (cancelled) return false;
+        actions.add(action);
+        return true;
+    }
+
+    public synchronized void removeOnCancel(Runnable action) {
+        actions.remove(action);
+    }
+
+    /**
+     * Binds this cancellation to the calling thread until the returned scope is closed.
+     */
+    public Scope enter() {
+        Cancellation previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) CURRENT.set(previous);
+            else CURRENT.remove();
+        };
+    }
+
+    /**
+     * Restores the previous binding when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a host that keeps failing. After a run of consecutive failures the breaker opens
+ * and calls fail at once with {@link ApiException.Kind#CIRCUIT_OPEN}, so callers fall back to the
+ * cache instead of waiting on timeouts. Once the open period is over a single trial call is let
+ * through: its success closes the breaker, its failure opens it again.
+ * Client errors (bad input) do not count as failures; the host answered correctly.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MS = 30_000;
+
+    // One breaker per host and port
+    private static final Map<String, CircuitBreaker> byHost = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clockMs;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+    private boolean trialRunning;
+    private long timesOpened;
+    private long rejected;
+
+    /**
+     * @param failureThreshold Consecutive failures that open the breaker.
+     * @param openMs           How long the breaker stays open before a trial call.
+     * @param clockMs          Monotonic time in milliseconds.
+     */
+    public CircuitBreaker(int failureThreshold, long openMs, LongSupplier clockMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clockMs = clockMs;
+    }
+
+    /**
+     * @return The shared breaker of a host, e.g. "api.open-meteo.com" or "127.0.0.1:8080".
+     */
+    public static CircuitBreaker forHost(String host) {
+        return byHost.computeIfAbsent(host, h -> new CircuitBreaker(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MS,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime())));
+    }
+
+    /**
+     * @return The shared breakers by host, sorted, e.g. for a metrics or debug screen.
+     */
+    public static Map<String, CircuitBreaker> all() {
+        return new TreeMap<>(byHost);
+    }
+
+    /**
+     * Forgets every shared breaker, e.g. between tests.
+     */
+    public static void resetAll() {
+        byHost.clear();
+    }
+
+    /**
+     * Runs the call unless the breaker is open, recording its outcome.
+     *
+     * @throws ApiException With kind CIRCUIT_OPEN if the call was not attempted.
+     */
+    public <T> T call(RetryPolicy.Call<T> call) throws IOException {
+        boolean trial = acquire();
+        try {
+            T result = call.attempt();
+            onSuccess();
+            return result;
+        } catch (ApiException e) {
+            // Bad input or an odd body still means the host answered
+            if (e.getKind() == ApiException.Kind.CLIENT || e.getKind() == ApiException.Kind.PARSE) onSuccess();
+            else onFailure(trial);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // A cancelled call says nothing about the host; only a trial has to make way for the next one
+            release(trial);
+            throw e;
+        }
+    }
+
+    // Let the call through, or reject it while open
+    private synchronized boolean acquire() throws ApiException {
+        if (state == State.OPEN && clockMs.getAsLong() - openedAtMs >= openMs) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialRunning)) {
+            rejected++;
+            throw new ApiException(ApiException.Kind.CIRCUIT_OPEN, "Circuit open, not calling the host", null);
+        }
+        if (state == State.HALF_OPEN) {
+            trialRunning = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialRunning = false;
+        state = State.CLOSED;
+    }
+
+    private synchronized void release(boolean trial) {
+        if (trial) trialRunning = false;
+    }
+
+    private synchronized void onFailure(boolean trial) {
+        consecutiveFailures++;
+        if (trial || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtMs = clockMs.getAsLong();
+            timesOpened++;
+        }
+        if (trial) trialRunning = false;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clockMs.getAsLong() - openedAtMs >= openMs) return State.HALF_OPEN;
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() { return consecutiveFailures; }
+    public synchronized long getTimesOpened() { return timesOpened; }
+    public synchronized long getRejected() { return rejected; }
+
+    @Override
+    public synchronized String toString() {
+        return getState() + ", " + consecutiveFailures + " failures in a row, opened " + timesOpened + "x, rejected " + rejected;
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A two-tier cache of forecasts keyed by rounded coordinates.
+ * The first tier is a size-bounded in-memory LRU, the second a directory of small binary files
+ * that survives process death. Entries past their TTL are still returned (marked stale) so the
+ * caller can render them immediately while it revalidates in the background. Each entry keeps
+ * the response's ETag/Last-Modified so revalidation can be a conditional request.
+ */
+public class ForecastCache {
+
+    // open-meteo refreshes current conditions every 15 minutes.
+    public static final long DEFAULT_TTL_MS = 15 * 60 * 1000L;
+    public static final int DEFAULT_MEMORY_ENTRIES = 32;
+    public static final int DEFAULT_DISK_ENTRIES = 64;
+
+    private static final String FILE_SUFFIX = ".fc";
+
+    // Process-wide, across every cache instance
+    private static final Histogram lookupTime = Metrics.histogram("cache.lookup");
+    private static final LongAdder hitCount = Metrics.counter("cache.hit");
+    private static final LongAdder staleCount = Metrics.counter("cache.stale");
+    private static final LongAdder missCount = Metrics.counter("cache.miss");
+
+    private final File directory; // Disk tier, or null for a memory-only cache
+    private final int maxDiskEntries;
+    private final long ttlMs;
+    private final LinkedHashMap<String, Entry> memory;
+
+    // Counters
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache.
+     *
+     * @param directory        Directory for the disk tier, or null to keep entries in memory only.
+     * @param maxMemoryEntries Maximum number of entries kept in memory.
+     * @param maxDiskEntries   Maximum number of files kept on disk.
+     * @param ttlMs            Time after which an entry is considered stale.
+     */
+    public ForecastCache(File directory, int maxMemoryEntries, int maxDiskEntries, long ttlMs) {
+        this.directory = directory;
+        this.maxDiskEntries = maxDiskEntries;
+        this.ttlMs = ttlMs;
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ForecastCache.Entry> eldest) {
+                if (size() > maxMemoryEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (directory != null && !directory.isDirectory()) {
+            directory.mkdirs();
+        }
+    }
+
+    /**
+     * Builds the cache key for a coordinate. Coordinates are rounded to two decimals (~1 km),
+     * well below the resolution of the forecast grid, so nearby lookups share an entry.
+     */
+    public static String keyFor(double latitude, double longitude) {
+        return String.format(Locale.US, "%.2f_%.2f", latitude, longitude);
+    }
+
+    /**
+     * Looks up a forecast, falling back to the disk tier on a memory miss.
+     *
+     * @return The cached entry, fresh or stale, or null if nothing is cached.
+     */
+    public Entry get(double latitude, double longitude) {
+        long start = Metrics.start();
+        Entry entry = find(keyFor(latitude, longitude));
+        if (entry == null) {
+            misses.incrementAndGet();
+            missCount.increment();
+        } else if (entry.isFresh()) {
+            hits.incrementAndGet();
+            hitCount.increment();
+        } else {
+            staleHits.incrementAndGet();
+            staleCount.increment();
+        }
+        lookupTime.recordSince(start);
+        return entry;
+    }
+
+    /**
+     * Looks up a forecast like {@link #get} without counting a hit or miss, e.g. to find the
+     * validators of the copy a fetch is about to revalidate.
+     *
+     * @return The cached entry, fresh or stale, or null if nothing is cached.
+     */
+    public Entry peek(double latitude, double longitude) {
+        return find(keyFor(latitude, longitude));
+    }
+
+    private Entry find(String key) {
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry == null) {
+            entry = readFromDisk(key);
+            if (entry != null) {
+                diskHits.incrementAndGet();
+                synchronized (memory) {
+                    memory.put(key, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a freshly fetched forecast in both tiers.
+     */
+    public void put(double latitude, double longitude, WeatherModel weather) {
+        put(latitude, longitude, weather, null);
+    }
+
+    /**
+     * Stores a fetched or revalidated forecast in both tiers, restarting its TTL.
+     *
+     * @param validators The response's ETag/Last-Modified, or null if it had none.
+     */
+    public void put(double latitude, double longitude, WeatherModel weather, HttpTransport.Validators validators) {
+        String key = keyFor(latitude, longitude);
+        Entry entry = new Entry(weather, System.currentTimeMillis(), ttlMs, validators);
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Drops every entry from both tiers.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        File[] files = listDiskFiles();
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getStaleHits() { return staleHits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getTtlMs() { return ttlMs; }
+
+    private Entry readFromDisk(String key) {
+        if (directory == null) return null;
+        File file = new File(directory, key + FILE_SUFFIX);
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long fetchedAt = in.readLong();
+            WeatherModel weather = WeatherModelCodec.read(in);
+            return new Entry(weather, fetchedAt, ttlMs, readValidators(in));
+        } catch (IOException e) {
+            // Corrupt or outdated record, drop it
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null) return;
+        File target = new File(directory, key + FILE_SUFFIX);
+        File temp = new File(directory, key + FILE_SUFFIX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeLong(entry.fetchedAt);
+            WeatherModelCodec.write(out, entry.weather);
+            writeValidators(out, entry.validators);
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        // Rename so readers never observe a half-written file
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            return;
+        }
+        trimDisk();
+    }
+
+    // Validators trail the forecast as two optional strings
+    private static void writeValidators(DataOutputStream out, HttpTransport.Validators validators) throws IOException {
+        writeOptional(out, validators != null ? validators.etag : null);
+        writeOptional(out, validators != null ? validators.lastModified : null);
+    }
+
+    private static HttpTransport.Validators readValidators(DataInputStream in) throws IOException {
+        try {
+            String etag = readOptional(in);
+            String lastModified = readOptional(in);
+            return etag == null && lastModified == null ? null : new HttpTransport.Validators(etag, lastModified);
+        } catch (EOFException e) {
+            // Written before validators were stored; the next fetch simply goes unconditional
+            return null;
+        }
+    }
+
+    private static void writeOptional(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readOptional(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Remove the least recently written files beyond the disk bound
+    private void trimDisk() {
+        File[] files = listDiskFiles();
+        if (files.length <= maxDiskEntries) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - maxDiskEntries; i++) {
+            if (files[i].delete()) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private File[] listDiskFiles() {
+        if (directory == null) return new File[0];
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        return files != null ? files : new File[0];
+    }
+
+    /**
+     * A cached forecast together with the time it was fetched.
+     */
+    public static class Entry {
+        public final WeatherModel weather;
+        public final long fetchedAt; // Wall-clock time of the fetch or last revalidation, in milliseconds
+        public final HttpTransport.Validators validators; // Null if the response carried none
+        private final long ttlMs;
+
+        Entry(WeatherModel weather, long fetchedAt, long ttlMs, HttpTransport.Validators validators) {
+            this.weather = weather;
+            this.fetchedAt = fetchedAt;
+            this.ttlMs = ttlMs;
+            this.validators = validators;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() - fetchedAt < ttlMs;
+        }
+
+        public long ageMs() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.utils.ForecastDates;
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+import com.example.weatherappphfinal.utils.WeatherCodeConverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses open-meteo forecast responses from a character stream.
+ * Values are pulled straight into primitive column arrays and assembled into ForecastSeries;
+ * units and metadata are skipped without being materialised.
+ */
+public class ForecastResponseParser {
+
+    // Daily variables every response must carry
+    private static final String[] DAILY_VARIABLES = {
+            ForecastSeries.WEATHER_CODE, ForecastSeries.TEMPERATURE_MAX,
+            ForecastSeries.TEMPERATURE_MIN, ForecastSeries.PRECIPITATION_PROBABILITY_MEAN
+    };
+
+    // The body is parsed as it streams in, so this includes reading it from the socket
+    private static final Histogram parseTime = Metrics.histogram("parse.forecast");
+
+    /**
+     * Parses a single-location forecast response.
+     *
+     * @param body          The response body.
+     * @param contentLength Unused; present so the method can be used as an HttpTransport.BodyReader.
+     * @return The parsed weather.
+     * @throws IOException If the body is not a valid forecast response.
+     */
+    public static WeatherModel parse(Reader body, int contentLength) throws IOException {
+        long start = Metrics.start();
+        WeatherModel weather = parse(new JsonPullParser(body));
+        parseTime.recordSince(start);
+        return weather;
+    }
+
+    /**
+     * Parses a response for one or more locations. open-meteo answers a request with
+     * comma-separated coordinates with a top-level array, one forecast per location in request order.
+     *
+     * @param body          The response body.
+     * @param contentLength Unused; present so the method can be used as an HttpTransport.BodyReader.
+     * @return The parsed forecasts, in request order.
+     * @throws IOException If the body is not a valid forecast response.
+     */
+    public static List<WeatherModel> parseAll(Reader body, int contentLength) throws IOException {
+        long start = Metrics.start();
+        JsonPullParser parser = new JsonPullParser(body);
+        List<WeatherModel> results = new ArrayList<>();
+        if (parser.peek() == JsonPullParser.Token.BEGIN_ARRAY) {
+            parser.beginArray();
+            while (parser.hasNext()) {
+                results.add(parse(parser));
+            }
+            parser.endArray();
+        } else {
+            results.add(parse(parser));
+        }
+        parseTime.recordSince(start);
+        return results;
+    }
+
+    /**
+     * Parses one forecast object from the given parser.
+     */
+    public static WeatherModel parse(JsonPullParser parser) throws IOException {
+        Current current = null;
+        Block daily = null;
+        Block hourly = null;
+        int utcOffsetSeconds = 0;
+
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "utc_offset_seconds":
+                    utcOffsetSeconds = parser.nextInt(0);
+                    break;
+                case "current":
+                    current = parseCurrent(parser);
+                    break;
+                case "daily":
+                    daily = parseBlock(parser);
+                    break;
+                case "hourly":
+                    hourly = parseBlock(parser);
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+
+        if (current == null || daily == null || daily.size == 0) {
+            throw new IOException("Forecast response is missing current or daily data");
+        }
+        ForecastSeries dailySeries = daily.toSeries(utcOffsetSeconds);
+        ForecastSeries hourlySeries = hourly != null ? hourly.toSeries(utcOffsetSeconds) : ForecastSeries.empty();
+        for (String variable : DAILY_VARIABLES) {
+            if (!dailySeries.has(variable)) throw new IOException("Daily forecast is missing " + variable);
+        }
+
+        WeatherCodeConverter.WeatherCondition condition = WeatherCodeConverter.convert(current.weatherCode);
+        return new WeatherModel(
+                current.temperature,
+                current.humidity,
+                current.windSpeed,
+                current.weatherCode,
+                condition.description,
+                dailySeries.getInt(dailySeries.indexOf(ForecastSeries.PRECIPITATION_PROBABILITY_MEAN), 0, 0),
+                current.precipitation,
+                current.pressure,
+                current.cloudCover,
+                dailySeries,
+                hourlySeries
+        );
+    }
+
+    private static Current parseCurrent(JsonPullParser parser) throws IOException {
+        Current current = new Current();
+        parser.beginObject();
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "temperature_2m": current.temperature = parser.nextDouble(); break;
+                case "relative_humidity_2m": current.humidity = parser.nextInt(0); break;
+                case "weather_code": current.weatherCode = parser.nextInt(0); break;
+                case "wind_speed_10m": current.windSpeed = parser.nextDouble(); break;
+                case "precipitation": current.precipitation = parser.nextDouble(); break;
+                case "surface_pressure": current.pressure = parser.nextDouble(); break;
+                case "cloud_cover": current.cloudCover = parser.nextInt(0); break;
+                default: parser.skipValue();
+            }
+        }
+        parser.endObject();
+        return current;
+    }
+
+    // Parse a "daily" or "hourly" block: a time column plus one numeric column per variable
+    private static Block parseBlock(JsonPullParser parser) throws IOException {
+        Block block = new Block();
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String name = parser.nextName();
+            if (name.equals("time")) {
+                block.times = readLocalTimes(parser);
+                block.size = block.times.length;
+            } else if (parser.peek() == JsonPullParser.Token.BEGIN_ARRAY) {
+                block.add(name, readDoubles(parser));
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        if (block.times == null) throw new IOException("Forecast block has no time column");
+        return block;
+    }
+
+    // Read an array of numbers into a right-sized primitive array
+    private static double[] readDoubles(JsonPullParser parser) throws IOException {
+        double[] values = new double[16];
+        int size = 0;
+        parser.beginArray();
+        while (parser.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = parser.nextDouble();
+        }
+        parser.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    // Read ISO timestamps as local epoch seconds, decoding each straight from the parser's buffer
+    private static long[] readLocalTimes(JsonPullParser parser) throws IOException {
+        long[] values = new long[16];
+        int size = 0;
+        parser.beginArray();
+        while (parser.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            try {
+                values[size++] = ForecastDates.parseEpochSeconds(parser.nextTransientString(), 0);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+        }
+        parser.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    // Scalars of the "current" block
+    private static class Current {
+        double temperature;
+        int humidity;
+        double windSpeed;
+        int weatherCode;
+        double precipitation;
+        double pressure;
+        int cloudCover;
+    }
+
+    // Raw columns of a "daily" or "hourly" block, before the timezone is known
+    private static class Block {
+        int size;
+        long[] times;
+        String[] names = new String[0];
+        double[][] columns = new double[0][];
+
+        void add(String name, double[] values) {
+            names = Arrays.copyOf(names, names.length + 1);
+            columns = Arrays.copyOf(columns, columns.length + 1);
+            names[names.length - 1] = name;
+            columns[columns.length - 1] = values;
+        }
+
+        // The offset may appear anywhere in the response, so it is applied once the object is done
+        ForecastSeries toSeries(int utcOffsetSeconds) {
+            for (int i = 0; i < size; i++) times[i] -= utcOffsetSeconds;
+            ForecastSeries.Builder builder = new ForecastSeries.Builder(times, utcOffsetSeconds);
+            for (int i = 0; i < names.length; i++) builder.add(names[i], columns[i]);
+            return builder.build();
+        }
+    }
+}
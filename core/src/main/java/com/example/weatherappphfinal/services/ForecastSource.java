@@ -0,0 +1,43 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+/**
+ * Where forecasts come from. Pipelines and fetchers take their forecasts through this
+ * interface, so the same code runs on the Open-Meteo backed {@link WeatherService#source()},
+ * on an in-memory fake in unit tests, or on another backend, e.g. in a server-side aggregator.
+ */
+public interface ForecastSource {
+
+    /**
+     * Returns the cached forecast for a location at once, refreshing it in the background if it is
+     * stale, and fetches it only if nothing is cached.
+     *
+     * @return The forecast, possibly stale, or null if there is none.
+     */
+    WeatherModel getWeather(double latitude, double longitude);
+
+    /**
+     * Fetches the forecast for a location, bypassing a fresh cached copy.
+     *
+     * @return The forecast, or null if it could not be fetched.
+     */
+    WeatherModel fetchWeather(double latitude, double longitude);
+
+    /**
+     * Fetches forecasts for several locations, combining them into as few requests as possible.
+     *
+     * @return The forecasts in the same order; an entry is null if it could not be fetched.
+     */
+    WeatherModel[] fetchWeather(double[] latitudes, double[] longitudes);
+
+    /**
+     * @return The cached forecast for a location, fresh or stale, or null; never fetches.
+     */
+    ForecastCache.Entry getCachedWeather(double latitude, double longitude);
+
+    /**
+     * @return Why the last fetch for a location failed, or null if it succeeded.
+     */
+    ApiException getLastError(double latitude, double longitude);
+}
@@ -0,0 +1,301 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.utils.TextNormalizer;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An offline table of Philippine places with their coordinates.
+ * Entries are kept as parallel arrays sorted by normalized name, so a lookup is a binary search
+ * with no allocation beyond normalizing the query. The table is built from the bundled TSV and
+ * stored in a compact binary form; places learned from the geocoding API are appended to it.
+ * Reverse lookups go through a 2-d tree over the coordinates, built on first use.
+ */
+public class GeocodeIndex {
+
+    /**
+     * Opens the bundled place table, e.g. from the app's assets.
+     */
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    private static final int MAGIC = 0x47454f31; // "GEO1"
+    private static final int FORMAT_VERSION = 1;
+
+    private final int dataVersion; // Version of the bundled source the table was built from
+    private String[] keys; // Normalized names, sorted
+    private String[] names;
+    private String[] provinces;
+    private float[] latitudes;
+    private float[] longitudes;
+    private int[] populations;
+    private PlaceTree tree; // Built on the first reverse lookup, dropped when a place is added
+
+    private GeocodeIndex(int dataVersion, String[] keys, String[] names, String[] provinces,
+                         float[] latitudes, float[] longitudes, int[] populations) {
+        this.dataVersion = dataVersion;
+        this.keys = keys;
+        this.names = names;
+        this.provinces = provinces;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.populations = populations;
+    }
+
+    /**
+     * Reads the data version from the first line of a bundled TSV ("# version&lt;TAB&gt;N").
+     */
+    public static int readTsvVersion(InputStream in) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String first = reader.readLine();
+            if (first != null && first.startsWith("# version")) {
+                return Integer.parseInt(first.substring("# version".length()).trim());
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Builds the index from a TSV with the columns name, province, latitude, longitude, population.
+     * Lines starting with '#' are comments; the first may carry the data version.
+     */
+    public static GeocodeIndex fromTsv(InputStream in) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        int version = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("# version")) {
+                    version = Integer.parseInt(line.substring("# version".length()).trim());
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] columns = line.split("\t");
+                if (columns.length < 5) throw new IOException("Malformed geocode row: " + line);
+                rows.add(columns);
+            }
+        }
+
+        int size = rows.size();
+        String[] names = new String[size];
+        String[] provinces = new String[size];
+        float[] latitudes = new float[size];
+        float[] longitudes = new float[size];
+        int[] populations = new int[size];
+        for (int i = 0; i < size; i++) {
+            String[] row = rows.get(i);
+            names[i] = row[0];
+            provinces[i] = row[1];
+            latitudes[i] = Float.parseFloat(row[2]);
+            longitudes[i] = Float.parseFloat(row[3]);
+            populations[i] = Integer.parseInt(row[4]);
+        }
+        return sorted(version, names, provinces, latitudes, longitudes, populations);
+    }
+
+    /**
+     * Reads an index previously written with {@link #writeTo}.
+     */
+    public static GeocodeIndex readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readShort() != FORMAT_VERSION) {
+            throw new IOException("Unsupported geocode index");
+        }
+        int dataVersion = data.readInt();
+        int size = data.readInt();
+        String[] keys = new String[size];
+        String[] names = new String[size];
+        String[] provinces = new String[size];
+        float[] latitudes = new float[size];
+        float[] longitudes = new float[size];
+        int[] populations = new int[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = data.readUTF();
+            provinces[i] = data.readUTF();
+            latitudes[i] = data.readFloat();
+            longitudes[i] = data.readFloat();
+            populations[i] = data.readInt();
+            keys[i] = TextNormalizer.normalize(names[i]);
+        }
+        return new GeocodeIndex(dataVersion, keys, names, provinces, latitudes, longitudes, populations);
+    }
+
+    /**
+     * Writes the index in its binary form. Rows are written in key order, so reading needs no sort.
+     */
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeInt(dataVersion);
+        data.writeInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            data.writeUTF(names[i]);
+            data.writeUTF(provinces[i]);
+            data.writeFloat(latitudes[i]);
+            data.writeFloat(longitudes[i]);
+            data.writeInt(populations[i]);
+        }
+        data.flush();
+    }
+
+    public int getDataVersion() { return dataVersion; }
+
+    public synchronized int size() { return keys.length; }
+
+    /**
+     * Resolves a place name. Matching ignores case, diacritics and punctuation, and tolerates a
+     * missing or extra "City" suffix. When several places share a name the most populous wins.
+     *
+     * @param query The name typed by the user.
+     * @return The matching location, or null if the name is not in the index.
+     */
+    public synchronized LocationModel lookup(String query) {
+        String key = TextNormalizer.normalize(query);
+        int index = find(key);
+        if (index < 0) {
+            // "Cebu" should find "Cebu City" and "Tarlac" should find "Tarlac City", and vice versa
+            index = key.endsWith(" city") ? find(key.substring(0, key.length() - 5)) : find(key + " city");
+        }
+        if (index < 0) return null;
+        return new LocationModel(names[index], latitudes[index], longitudes[index], "PH");
+    }
+
+    /**
+     * Finds the place nearest to a coordinate.
+     *
+     * @param latitude      The latitude of the coordinate.
+     * @param longitude     The longitude of the coordinate.
+     * @param maxDistanceKm Places farther away than this do not count.
+     * @return The nearest place, or null if there is none within the distance.
+     */
+    public synchronized LocationModel nearest(double latitude, double longitude, double maxDistanceKm) {
+        int row = nearestRow(latitude, longitude, maxDistanceKm);
+        if (row < 0) return null;
+        return new LocationModel(names[row], latitudes[row], longitudes[row], "PH");
+    }
+
+    // Row of the nearest place, or -1; no allocation once the tree exists
+    synchronized int nearestRow(double latitude, double longitude, double maxDistanceKm) {
+        if (tree == null) tree = new PlaceTree(latitudes, longitudes);
+        return tree.nearest(latitude, longitude, maxDistanceKm);
+    }
+
+    /**
+     * Adds a place, e.g. one resolved through the geocoding API. Existing names are left untouched.
+     *
+     * @return True if the place was added.
+     */
+    public synchronized boolean add(String name, String province, double latitude, double longitude, int population) {
+        String key = TextNormalizer.normalize(name);
+        if (key.isEmpty() || find(key) >= 0) return false;
+
+        int insertAt = -(Arrays.binarySearch(keys, key) + 1);
+        keys = insert(keys, insertAt, key);
+        names = insert(names, insertAt, name);
+        provinces = insert(provinces, insertAt, province != null ? province : "");
+        latitudes = insert(latitudes, insertAt, (float) latitude);
+        longitudes = insert(longitudes, insertAt, (float) longitude);
+        populations = insert(populations, insertAt, population);
+        tree = null;
+        return true;
+    }
+
+    /**
+     * Returns the display names of all places, in key order.
+     */
+    public synchronized String[] getNames() {
+        return names.clone();
+    }
+
+    /**
+     * Returns the population of each place, aligned with {@link #getNames()}.
+     */
+    public synchronized int[] getPopulations() {
+        return populations.clone();
+    }
+
+    // Display name of a row, for callers holding a row from nearestRow
+    synchronized String getName(int row) {
+        return names[row];
+    }
+
+    // Binary search for the most populous row with exactly this key
+    private int find(String key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) return -1;
+        int first = index;
+        while (first > 0 && keys[first - 1].equals(key)) first--;
+        int best = first;
+        for (int i = first + 1; i < keys.length && keys[i].equals(key); i++) {
+            if (populations[i] > populations[best]) best = i;
+        }
+        return best;
+    }
+
+    private static GeocodeIndex sorted(int version, String[] names, String[] provinces,
+                                       float[] latitudes, float[] longitudes, int[] populations) {
+        int size = names.length;
+        String[] rawKeys = new String[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            rawKeys[i] = TextNormalizer.normalize(names[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> rawKeys[i]));
+
+        String[] keys = new String[size];
+        String[] sortedNames = new String[size];
+        String[] sortedProvinces = new String[size];
+        float[] sortedLatitudes = new float[size];
+        float[] sortedLongitudes = new float[size];
+        int[] sortedPopulations = new int[size];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            keys[i] = rawKeys[from];
+            sortedNames[i] = names[from];
+            sortedProvinces[i] = provinces[from];
+            sortedLatitudes[i] = latitudes[from];
+            sortedLongitudes[i] = longitudes[from];
+            sortedPopulations[i] = populations[from];
+        }
+        return new GeocodeIndex(version, keys, sortedNames, sortedProvinces, sortedLatitudes, sortedLongitudes, sortedPopulations);
+    }
+
+    private static String[] insert(String[] array, int at, String value) {
+        String[] result = new String[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static float[] insert(float[] array, int at, float value) {
+        float[] result = new float[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static int[] insert(int[] array, int at, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+}
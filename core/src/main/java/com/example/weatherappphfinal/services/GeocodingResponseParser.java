@@ -0,0 +1,134 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses responses of the Open-Meteo geocoding API and the BigDataCloud reverse geocoding API
+ * from a character stream. Only the fields the app uses are kept; everything else is skipped.
+ */
+public class GeocodingResponseParser {
+
+    /**
+     * One search result.
+     */
+    public static class Place {
+        public final String name;
+        public final String admin1; // Province or region, "" if absent
+        public final String countryCode; // ISO 3166-1 alpha-2, e.g. "PH"
+        public final double latitude;
+        public final double longitude;
+        public final int population; // 0 if absent
+
+        public Place(String name, String admin1, String countryCode, double latitude, double longitude, int population) {
+            this.name = name;
+            this.admin1 = admin1;
+            this.countryCode = countryCode;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.population = population;
+        }
+    }
+
+    /**
+     * Parses a geocoding search response.
+     *
+     * @param body          The response body.
+     * @param contentLength Unused; present so the method can be used as an HttpTransport.BodyReader.
+     * @return The results in the order the API ranked them; empty if nothing matched. Results
+     * without a name, country or coordinates are left out.
+     * @throws IOException If the body is not valid JSON.
+     */
+    public static List<Place> parseSearch(Reader body, int contentLength) throws IOException {
+        JsonPullParser parser = new JsonPullParser(body);
+        List<Place> places = new ArrayList<>();
+        parser.beginObject();
+        while (parser.hasNext()) {
+            if (parser.nextName().equals("results") && parser.peek() == JsonPullParser.Token.BEGIN_ARRAY) {
+                parser.beginArray();
+                while (parser.hasNext()) {
+                    Place place = parsePlace(parser);
+                    if (place != null) places.add(place);
+                }
+                parser.endArray();
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        return places;
+    }
+
+    private static Place parsePlace(JsonPullParser parser) throws IOException {
+        String name = null;
+        String admin1 = "";
+        String countryCode = null;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        int population = 0;
+
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String field = parser.nextName();
+            if (parser.peek() == JsonPullParser.Token.NULL) {
+                parser.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "name":
+                    name = parser.nextString();
+                    break;
+                case "admin1":
+                    admin1 = parser.nextString();
+                    break;
+                case "country_code":
+                    countryCode = parser.nextString();
+                    break;
+                case "latitude":
+                    latitude = parser.nextDouble();
+                    break;
+                case "longitude":
+                    longitude = parser.nextDouble();
+                    break;
+                case "population":
+                    population = parser.nextInt(0);
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+        parser.endObject();
+
+        if (name == null || countryCode == null || Double.isNaN(latitude) || Double.isNaN(longitude)) return null;
+        return new Place(name, admin1, countryCode, latitude, longitude, population);
+    }
+
+    /**
+     * Parses a reverse geocoding response.
+     *
+     * @param body          The response body.
+     * @param contentLength Unused; present so the method can be used as an HttpTransport.BodyReader.
+     * @return The locality, or the city if there is no locality, or null if there is neither.
+     * @throws IOException If the body is not valid JSON.
+     */
+    public static String parseReverse(Reader body, int contentLength) throws IOException {
+        JsonPullParser parser = new JsonPullParser(body);
+        String locality = null;
+        String city = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String field = parser.nextName();
+            if (field.equals("locality") && parser.peek() == JsonPullParser.Token.STRING) {
+                locality = parser.nextString();
+            } else if (field.equals("city") && parser.peek() == JsonPullParser.Token.STRING) {
+                city = parser.nextString();
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        return locality != null ? locality : city;
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HttpTransport performs GET requests over pooled keep-alive connections.
+ * Connections are returned to the platform's per-host pool by fully draining and closing the
+ * body instead of calling disconnect(), so repeated calls to the same host skip the TCP/TLS
+ * handshake. Bodies are negotiated as gzip/deflate and decoded straight into a BodyReader.
+ * Conditional requests send the validators of a cached copy, so an unchanged resource costs a
+ * bodiless 304 instead of a full download.
+ * A request made while a {@link Cancellation} is bound to the calling thread is aborted by
+ * disconnecting its connection as soon as that cancellation fires, and one made while a
+ * {@link NetworkUsage} is bound is counted in it.
+ */
+public class HttpTransport {
+
+    // Default size of the character buffer used when a body has to be materialised.
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Consumes a decoded response body.
+     *
+     * @param <T> The type produced from the body.
+     */
+    public interface BodyReader<T> {
+        /**
+         * @param body          The decoded character stream of the response body.
+         * @param contentLength The advertised (possibly compressed) length, or -1 if unknown.
+         * @return The value parsed from the body.
+         */
+        T read(Reader body, int contentLength) throws Exception;
+    }
+
+    /**
+     * Receives timing information for every completed request.
+     */
+    public interface TimingListener {
+        void onRequestTiming(RequestTiming timing);
+    }
+
+    private static final Histogram requestTime = Metrics.histogram("http.request");
+    private static final Histogram firstByteTime = Metrics.histogram("http.first_byte");
+    private static final LongAdder notModifiedCount = Metrics.counter("http.not_modified");
+    private static final LongAdder failureCount = Metrics.counter("http.failures");
+    private static final LongAdder bytesReceivedCount = Metrics.counter("http.bytes_received");
+
+    private final int connectTimeoutMs; // Max time to establish a connection
+    private final int readTimeoutMs; // Max time to wait between bytes of the response
+    private volatile TimingListener timingListener; // Optional sink for per-request timings
+
+    /**
+     * Creates a transport with the given timeouts.
+     *
+     * @param connectTimeoutMs Connect timeout in milliseconds.
+     * @param readTimeoutMs    Read timeout in milliseconds.
+     */
+    public HttpTransport(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public int getConnectTimeoutMs() { return connectTimeoutMs; }
+    public int getReadTimeoutMs() { return readTimeoutMs; }
+
+    public TimingListener getTimingListener() {
+        return timingListener;
+    }
+
+    public void setTimingListener(TimingListener timingListener) {
+        this.timingListener = timingListener;
+    }
+
+    /**
+     * Performs a GET request and hands the decoded body to the given reader.
+     *
+     * @param urlString  The URL to fetch.
+     * @param bodyReader Consumer of the decoded response body.
+     * @return The value produced by the body reader.
+     * @throws ApiException If the request fails or the server does not answer with 200 OK.
+     * @throws InterruptedIOException If the request was cancelled through the bound Cancellation.
+     */
+    public <T> T get(String urlString, BodyReader<T> bodyReader) throws IOException {
+        return request(urlString, null, bodyReader).value;
+    }
+
+    /**
+     * Performs a GET request that is answered with 304 Not Modified if the resource still matches
+     * the given validators, in which case the body reader is not called.
+     *
+     * @param urlString  The URL to fetch.
+     * @param cached     Validators of the copy the caller already has, or null to fetch unconditionally.
+     * @param bodyReader Consumer of the decoded response body.
+     * @return The new value and validators, or a not-modified result carrying the cached validators.
+     * @throws ApiException If the request fails or the server answers with anything but 200 or 304.
+     * @throws InterruptedIOException If the request was cancelled through the bound Cancellation.
+     */
+    public <T> Conditional<T> getConditional(String urlString, Validators cached, BodyReader<T> bodyReader) throws IOException {
+        return request(urlString, cached, bodyReader);
+    }
+
+    private <T> Conditional<T> request(String urlString, Validators cached, BodyReader<T> bodyReader) throws IOException {
+        URL url = new URL(urlString);
+        long start = System.nanoTime();
+
+        // Resolve the host up front so DNS time is measured separately. The platform resolver
+        // caches the answer, so the lookup done by the connection itself is effectively free.
+        try {
+            InetAddress.getAllByName(url.getHost());
+        } catch (IOException e) {
+            failureCount.increment();
+            throw new ApiException(ApiException.Kind.NETWORK, "Could not resolve " + url.getHost(), e);
+        }
+        long dnsDone = System.nanoTime();
+
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        Cancellation cancellation = Cancellation.current();
+        if (cancellation == null) {
+            return classified(url, conn, cached, bodyReader, start, dnsDone);
+        }
+
+        // Blocking socket reads ignore interrupts, so cancelling has to close the connection instead
+        Runnable abort = conn::disconnect;
+        if (!cancellation.onCancel(abort)) {
+            throw new InterruptedIOException("Request cancelled");
+        }
+        try {
+            return classified(url, conn, cached, bodyReader, start, dnsDone);
+        } catch (IOException e) {
+            if (cancellation.isCancelled()) throw new InterruptedIOException("Request cancelled");
+            throw e;
+        } finally {
+            cancellation.removeOnCancel(abort);
+        }
+    }
+
+    // Run the exchange, reporting connection failures and timeouts as ApiException NETWORK errors
+    private <T> Conditional<T> classified(URL url, HttpURLConnection conn, Validators cached, BodyReader<T> bodyReader,
+                                          long start, long dnsDone) throws IOException {
+        try {
+            return exchange(url, conn, cached, bodyReader, start, dnsDone);
+        } catch (ApiException e) {
+            failureCount.increment();
+            throw e;
+        } catch (IOException e) {
+            failureCount.increment();
+            throw new ApiException(ApiException.Kind.NETWORK, "Request to " + url.getHost() + " failed: " + e, e);
+        }
+    }
+
+    // Send the request on an opened connection and read the response
+    private <T> Conditional<T> exchange(URL url, HttpURLConnection conn, Validators cached, BodyReader<T> bodyReader, long start, long dnsDone) throws IOException {
+        conn.setRequestMethod("GET");
+        conn.setConnectTimeout(connectTimeoutMs);
+        conn.setReadTimeout(readTimeoutMs);
+        conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
+        conn.setRequestProperty("Connection", "keep-alive");
+        if (cached != null) {
+            if (cached.etag != null) conn.setRequestProperty("If-None-Match", cached.etag);
+            if (cached.lastModified != null) conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+        }
+        conn.connect();
+        long connectDone = System.nanoTime();
+        // Disconnecting before the socket is open does nothing, so a cancel that came in meanwhile is applied now
+        Cancellation cancellation = Cancellation.current();
+        if (cancellation != null && cancellation.isCancelled()) {
+            conn.disconnect();
+            throw new InterruptedIOException("Request cancelled");
+        }
+
+        int status = conn.getResponseCode();
+        long firstByte = System.nanoTime();
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            // No body follows a 304; the cached copy stays valid, possibly under refreshed validators
+            drain(conn.getInputStream());
+            publish(url, status, start, dnsDone, connectDone, firstByte, System.nanoTime(), 0);
+            return new Conditional<>(null, true, Validators.of(conn, cached));
+        }
+
+        if (status != HttpURLConnection.HTTP_OK) {
+            // Drain the error body so the connection can still go back to the pool.
+            long retryAfterMs = retryAfterMs(conn.getHeaderField("Retry-After"), conn.getDate());
+            drain(conn.getErrorStream());
+            publish(url, status, start, dnsDone, connectDone, firstByte, System.nanoTime(), 0);
+            throw new ApiException(ApiException.kindOf(status), status, retryAfterMs,
+                    "HTTP " + status + " for " + url.getHost() + url.getPath(), null);
+        }
+
+        CountingInputStream counted = new CountingInputStream(conn.getInputStream());
+        try (Reader reader = new InputStreamReader(decode(counted, conn.getContentEncoding()), charsetOf(conn.getContentType()))) {
+            T result = bodyReader.read(reader, conn.getContentLength());
+            // Consume whatever the reader left behind; a partially read body cannot be reused.
+            drainReader(reader);
+            publish(url, status, start, dnsDone, connectDone, firstByte, System.nanoTime(), counted.count);
+            return new Conditional<>(result, false, Validators.of(conn, null));
+        } catch (IOException e) {
+            conn.disconnect(); // Broken stream, do not return it to the pool
+            // A failing socket is a network error; anything else is the reader rejecting the body
+            if (counted.failed) throw e;
+            throw new ApiException(ApiException.Kind.PARSE, status, -1, "Unexpected body from " + url.getHost() + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            conn.disconnect();
+            throw new ApiException(ApiException.Kind.PARSE, status, -1, "Failed to read body from " + url.getHost(), e);
+        }
+    }
+
+    /**
+     * Reads the whole body into a String using a single bounded buffer.
+     *
+     * @param body          The body to read.
+     * @param contentLength The advertised length, used to size the builder.
+     * @return The body as a String.
+     */
+    public static String readFully(Reader body, int contentLength) throws IOException {
+        StringBuilder builder = new StringBuilder(contentLength > 0 ? contentLength : DEFAULT_BUFFER_SIZE);
+        char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parses a Retry-After header, given either as seconds or as an HTTP date.
+     *
+     * @param header   The header value, or null.
+     * @param serverNow The response's Date header in epoch milliseconds, or 0 to use the local clock.
+     * @return The delay in milliseconds, or -1 if the header is absent or malformed.
+     */
+    static long retryAfterMs(String header, long serverNow) {
+        if (header == null) return -1;
+        header = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(header) * 1000);
+        } catch (NumberFormatException notSeconds) {
+            SimpleDateFormat httpDate = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            try {
+                long now = serverNow > 0 ? serverNow : System.currentTimeMillis();
+                return Math.max(0, httpDate.parse(header).getTime() - now);
+            } catch (ParseException e) {
+                return -1;
+            }
+        }
+    }
+
+    // Wrap the raw stream with the decoder matching the Content-Encoding header
+    private static InputStream decode(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding == null) return in;
+        if (contentEncoding.equalsIgnoreCase("gzip")) return new GZIPInputStream(in, DEFAULT_BUFFER_SIZE);
+        if (contentEncoding.equalsIgnoreCase("deflate")) return new InflaterInputStream(in);
+        return in;
+    }
+
+    // Extract the charset parameter from a Content-Type header, defaulting to UTF-8
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                param = param.trim();
+                if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(param.substring(8).replace("\"", ""));
+                    } catch (IllegalArgumentException ignored) {
+                        // Unknown charset, fall through to UTF-8
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static void drain(InputStream in) {
+        if (in == null) return;
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[1024];
+            while (stream.read(buffer) != -1) {
+                // Discard
+            }
+        } catch (IOException ignored) {
+            // Nothing to recover, the connection simply will not be reused
+        }
+    }
+
+    private static void drainReader(Reader reader) throws IOException {
+        char[] buffer = new char[1024];
+        while (reader.read(buffer) != -1) {
+            // Discard
+        }
+    }
+
+    private void publish(URL url, int status, long start, long dnsDone, long connectDone, long firstByte, long end, long bytes) {
+        requestTime.recordSince(start);
+        firstByteTime.record(firstByte - start);
+        bytesReceivedCount.add(bytes);
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) notModifiedCount.increment();
+
+        TimingListener listener = timingListener;
+        NetworkUsage usage = NetworkUsage.current();
+        if (listener == null && usage == null) return;
+        RequestTiming timing = new RequestTiming(url.getHost(), status,
+                dnsDone - start, connectDone - dnsDone, firstByte - connectDone, end - firstByte, bytes);
+        if (listener != null) listener.onRequestTiming(timing);
+        if (usage != null) usage.onRequestTiming(timing);
+    }
+
+    /**
+     * The ETag and Last-Modified headers of a response, sent back to revalidate a cached copy.
+     */
+    public static class Validators {
+        public final String etag; // Null if the server sent none
+        public final String lastModified; // Null if the server sent none
+
+        public Validators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        // The response's validators, falling back to the previous ones for headers a 304 left out
+        static Validators of(HttpURLConnection conn, Validators previous) {
+            String etag = conn.getHeaderField("ETag");
+            String lastModified = conn.getHeaderField("Last-Modified");
+            if (previous != null) {
+                if (etag == null) etag = previous.etag;
+                if (lastModified == null) lastModified = previous.lastModified;
+            }
+            return etag == null && lastModified == null ? null : new Validators(etag, lastModified);
+        }
+    }
+
+    /**
+     * Outcome of a conditional request.
+     *
+     * @param <T> The type produced from the body.
+     */
+    public static class Conditional<T> {
+        public final T value; // The parsed body, null if not modified
+        public final boolean notModified; // True if the server answered 304 and the cached copy is still current
+        public final Validators validators; // Validators to store with the copy, or null if the server sent none
+
+        public Conditional(T value, boolean notModified, Validators validators) {
+            this.value = value;
+            this.notModified = notModified;
+            this.validators = validators;
+        }
+    }
+
+    /**
+     * Phase timings of a single request, in nanoseconds.
+     */
+    public static class RequestTiming {
+        public final String host;
+        public final int status;
+        public final long dnsNanos; // Host resolution
+        public final long connectNanos; // TCP + TLS, near zero when a pooled connection is reused
+        public final long firstByteNanos; // Request sent until response headers arrived
+        public final long bodyNanos; // Reading and parsing the body
+        public final long bytesReceived; // Bytes on the wire, before decompression
+
+        public RequestTiming(String host, int status, long dnsNanos, long connectNanos, long firstByteNanos, long bodyNanos, long bytesReceived) {
+            this.host = host;
+            this.status = status;
+            this.dnsNanos = dnsNanos;
+            this.connectNanos = connectNanos;
+            this.firstByteNanos = firstByteNanos;
+            this.bodyNanos = bodyNanos;
+            this.bytesReceived = bytesReceived;
+        }
+
+        public long totalNanos() {
+            return dnsNanos + connectNanos + firstByteNanos + bodyNanos;
+        }
+    }
+
+    // Counts the raw bytes read from the socket and remembers whether reading it failed
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+        boolean failed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int b = super.read();
+                if (b != -1) count++;
+                return b;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                int n = super.read(b, off, len);
+                if (n > 0) count += n;
+                return n;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A small streaming JSON pull parser.
+ * It reads from a Reader through a fixed character buffer and never builds a tree. Numbers are
+ * decoded straight from the buffer into primitives, and unwanted values are skipped without
+ * materialising them, so parsing large forecast responses allocates almost nothing beyond the
+ * field names and the strings the caller asks for.
+ */
+public class JsonPullParser {
+
+    /**
+     * The kind of the next value in the stream.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // Maximum nesting depth supported
+    private static final int MAX_DEPTH = 64;
+
+    // Exact powers of ten, used to decode decimals without going through a String
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    // Per-depth state: whether we are in an object or array, and whether a value was already read
+    private final boolean[] inObject = new boolean[MAX_DEPTH];
+    private final boolean[] hasElement = new boolean[MAX_DEPTH];
+    private final boolean[] expectValue = new boolean[MAX_DEPTH]; // Object: name consumed, value pending
+    private int depth;
+
+    private final StringBuilder scratch = new StringBuilder(32);
+
+    public JsonPullParser(Reader reader) {
+        this(reader, HttpTransport.DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonPullParser(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Returns the kind of the next token without consuming it.
+     */
+    public Token peek() throws IOException {
+        int c = nextNonWhitespace();
+        if (c == -1) {
+            if (depth != 0) throw syntaxError("Unexpected end of input");
+            return Token.END_DOCUMENT;
+        }
+
+        if (depth > 0) {
+            if (c == '}' || c == ']') return c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+            if (inObject[depth - 1] && !expectValue[depth - 1]) {
+                if (c == ',') {
+                    if (!hasElement[depth - 1]) throw syntaxError("Unexpected ','");
+                    position++;
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') throw syntaxError("Expected a name");
+                return Token.NAME;
+            }
+            if (!inObject[depth - 1] && c == ',') {
+                if (!hasElement[depth - 1]) throw syntaxError("Unexpected ','");
+                position++;
+                c = nextNonWhitespace();
+            }
+        }
+
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case '"': return Token.STRING;
+            case 't':
+            case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return Token.NUMBER;
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        position++;
+        push(true);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        position++;
+        pop();
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        position++;
+        push(false);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        position++;
+        pop();
+    }
+
+    /**
+     * Returns true if the current object or array has another element.
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the next property name.
+     */
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        String name = readString();
+        int c = nextNonWhitespace();
+        if (c != ':') throw syntaxError("Expected ':'");
+        position++;
+        expectValue[depth - 1] = true;
+        return name;
+    }
+
+    /**
+     * Consumes a string value.
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.NUMBER) return Double.toString(nextDouble());
+        expect(Token.STRING);
+        String value = readString();
+        valueConsumed();
+        return value;
+    }
+
+    /**
+     * Consumes a string value without allocating a String. The returned sequence is the parser's
+     * scratch buffer and is only valid until the next call on this parser.
+     */
+    public CharSequence nextTransientString() throws IOException {
+        expect(Token.STRING);
+        readIntoScratch();
+        valueConsumed();
+        return scratch;
+    }
+
+    /**
+     * Consumes a number. A JSON null is returned as NaN, since open-meteo uses null for missing samples.
+     */
+    public double nextDouble() throws IOException {
+        Token token = peek();
+        if (token == Token.NULL) {
+            nextNull();
+            return Double.NaN;
+        }
+        expect(Token.NUMBER);
+        double value = readNumber();
+        valueConsumed();
+        return value;
+    }
+
+    /**
+     * Consumes a number and rounds it to an int. A JSON null is returned as the given fallback.
+     */
+    public int nextInt(int valueIfNull) throws IOException {
+        double value = nextDouble();
+        return Double.isNaN(value) ? valueIfNull : (int) Math.round(value);
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        boolean value = buffer[position] == 't';
+        consumeLiteral(value ? "true" : "false");
+        valueConsumed();
+        return value;
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        consumeLiteral("null");
+        valueConsumed();
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without materialising it.
+     */
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) skipValue();
+                endArray();
+                break;
+            case STRING:
+                skipString();
+                valueConsumed();
+                break;
+            case NUMBER:
+                readNumber();
+                valueConsumed();
+                break;
+            case BOOLEAN:
+                nextBoolean();
+                break;
+            case NULL:
+                nextNull();
+                break;
+            default:
+                throw syntaxError("Nothing to skip");
+        }
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token actual = peek();
+        if (actual != expected) throw syntaxError("Expected " + expected + " but was " + actual);
+    }
+
+    private void push(boolean object) throws IOException {
+        if (depth == MAX_DEPTH) throw syntaxError("Nesting too deep");
+        inObject[depth] = object;
+        hasElement[depth] = false;
+        expectValue[depth] = false;
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        valueConsumed();
+    }
+
+    // Mark the value of the enclosing container as read
+    private void valueConsumed() {
+        if (depth == 0) return;
+        hasElement[depth - 1] = true;
+        expectValue[depth - 1] = false;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) return -1;
+            char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private void consumeLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) throw syntaxError("Expected " + literal);
+        }
+    }
+
+    private String readString() throws IOException {
+        readIntoScratch();
+        return scratch.toString();
+    }
+
+    private void readIntoScratch() throws IOException {
+        position++; // Opening quote
+        scratch.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) throw syntaxError("Unterminated string");
+            if (c == '"') return;
+            if (c == '\\') {
+                scratch.append(readEscape());
+            } else {
+                scratch.append((char) c);
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        position++;
+        while (true) {
+            int c = read();
+            if (c == -1) throw syntaxError("Unterminated string");
+            if (c == '"') return;
+            if (c == '\\') readEscape();
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'n': return '\n';
+            case 't': return '\t';
+            case 'r': return '\r';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) throw syntaxError("Malformed unicode escape");
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            case -1: throw syntaxError("Unterminated escape");
+            default: return (char) c; // \" \\ \/
+        }
+    }
+
+    // Decode a number directly from the buffer. Up to 15 significant digits are exact; anything else goes
+    // through Double.parseDouble so the result is always correctly rounded.
+    private double readNumber() throws IOException {
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean simple = true;
+        scratch.setLength(0);
+
+        int c = buffer[position];
+        if (c == '-') {
+            negative = true;
+            scratch.append('-');
+            position++;
+        }
+        while (true) {
+            if (position == limit && !fill()) break;
+            c = buffer[position];
+            if (c >= '0' && c <= '9') {
+                if (digits < 15) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0 || fraction) digits++;
+                    if (fraction) fractionDigits++;
+                } else {
+                    simple = false;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E' || c == '+' || (c == '-' && scratch.length() > 0)) {
+                simple = false;
+            } else {
+                break;
+            }
+            scratch.append((char) c);
+            position++;
+        }
+
+        if (simple && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(scratch.toString());
+        } catch (NumberFormatException e) {
+            throw syntaxError("Malformed number " + scratch);
+        }
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at depth " + depth);
+    }
+}
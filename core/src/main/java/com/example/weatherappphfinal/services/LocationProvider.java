@@ -0,0 +1,47 @@
+package com.example.weatherappphfinal.services;
+
+/**
+ * Source of device location fixes, so the acquisition strategy can be tested without the platform.
+ * Both calls block and must not be made on the main thread.
+ */
+public interface LocationProvider {
+
+    /**
+     * How hard a fresh fix may work; higher accuracy costs more power and usually more time.
+     */
+    enum Accuracy {
+        BALANCED, // Wi-Fi and cell, around 100 m
+        HIGH // GPS, a few meters
+    }
+
+    /**
+     * @return The last fix the system already has, or null if there is none.
+     */
+    Fix lastKnown() throws Exception;
+
+    /**
+     * Requests a new fix.
+     *
+     * @param accuracy  The accuracy to ask for.
+     * @param timeoutMs How long to wait for the fix.
+     * @return The fix, or null if none arrived in time.
+     */
+    Fix current(Accuracy accuracy, long timeoutMs) throws Exception;
+
+    /**
+     * A location fix.
+     */
+    class Fix {
+        public final double latitude;
+        public final double longitude;
+        public final float accuracyMeters; // Radius of 68% confidence, Float.MAX_VALUE if unknown
+        public final long ageMs; // Time since the fix was taken
+
+        public Fix(double latitude, double longitude, float accuracyMeters, long ageMs) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracyMeters = accuracyMeters;
+            this.ageMs = ageMs;
+        }
+    }
+}
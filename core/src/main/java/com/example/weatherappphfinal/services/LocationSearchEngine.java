@@ -0,0 +1,266 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.utils.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Search engine behind the location autocomplete.
+ * Every word start of every normalized name is stored in one sorted array, so a prefix query is a
+ * binary search followed by a contiguous scan. When prefixes alone do not fill the result list,
+ * names starting with the same letter are matched with a bounded edit distance to absorb typos.
+ * Results are ranked by match quality, then recent use, then population.
+ */
+public class LocationSearchEngine {
+
+    // Match quality tiers, best first
+    private static final int TIER_EXACT = 3;
+    private static final int TIER_NAME_PREFIX = 2;
+    private static final int TIER_WORD_PREFIX = 1;
+    private static final int TIER_FUZZY = 0;
+
+    private final String[] displayNames;
+    private final String[] normalizedNames;
+    private final int[] populations;
+
+    // Word-start suffixes of every name ("quezon city", "city"), sorted, with the owning entry
+    private final String[] tokenKeys;
+    private final int[] tokenEntries;
+
+    // Entries grouped by the first character of their normalized name, for fuzzy matching
+    private final Map<Character, int[]> entriesByInitial;
+
+    // Selection counts used to boost recently picked places
+    private final Map<Integer, Integer> recentUse = new HashMap<>();
+
+    /**
+     * Builds the engine.
+     *
+     * @param names       Display names.
+     * @param populations Population of each place, used for ranking.
+     */
+    public LocationSearchEngine(String[] names, int[] populations) {
+        int size = names.length;
+        this.displayNames = names.clone();
+        this.populations = populations.clone();
+        this.normalizedNames = new String[size];
+
+        List<String> keys = new ArrayList<>(size * 2);
+        List<Integer> owners = new ArrayList<>(size * 2);
+        Map<Character, List<Integer>> byInitial = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String normalized = TextNormalizer.normalize(names[i]);
+            normalizedNames[i] = normalized;
+            if (normalized.isEmpty()) continue;
+
+            keys.add(normalized);
+            owners.add(i);
+            for (int j = normalized.indexOf(' '); j >= 0; j = normalized.indexOf(' ', j + 1)) {
+                keys.add(normalized.substring(j + 1));
+                owners.add(i);
+            }
+            byInitial.computeIfAbsent(normalized.charAt(0), c -> new ArrayList<>()).add(i);
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+        tokenKeys = new String[order.length];
+        tokenEntries = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            tokenKeys[i] = keys.get(order[i]);
+            tokenEntries[i] = owners.get(order[i]);
+        }
+
+        entriesByInitial = new HashMap<>();
+        for (Map.Entry<Character, List<Integer>> entry : byInitial.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] ids = new int[list.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = list.get(i);
+            entriesByInitial.put(entry.getKey(), ids);
+        }
+    }
+
+    public int size() {
+        return displayNames.length;
+    }
+
+    /**
+     * Records that the user picked a place, so it ranks higher next time.
+     */
+    public synchronized void recordSelection(String name) {
+        String normalized = TextNormalizer.normalize(name);
+        for (int i = 0; i < normalizedNames.length; i++) {
+            if (normalizedNames[i].equals(normalized)) {
+                Integer count = recentUse.get(i);
+                recentUse.put(i, count == null ? 1 : count + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Searches for places matching the query.
+     *
+     * @param query The text typed so far.
+     * @param limit Maximum number of results.
+     * @return Display names, best match first.
+     */
+    public List<String> search(String query, int limit) {
+        return search(query, limit, () -> false);
+    }
+
+    /**
+     * Searches for places matching the query, giving up early once the query has been superseded.
+     *
+     * @param query     The text typed so far.
+     * @param limit     Maximum number of results.
+     * @param cancelled Polled while scanning; when it returns true an empty list is returned.
+     * @return Display names, best match first.
+     */
+    public List<String> search(String query, int limit, BooleanSupplier cancelled) {
+        String key = TextNormalizer.normalize(query);
+        if (key.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        TopResults top = new TopResults(limit);
+        Map<Integer, Integer> recent;
+        synchronized (this) {
+            recent = new HashMap<>(recentUse);
+        }
+
+        // Prefix matches over all word starts
+        int from = lowerBound(key);
+        for (int i = from; i < tokenKeys.length && tokenKeys[i].startsWith(key); i++) {
+            if ((i & 1023) == 0 && cancelled.getAsBoolean()) return Collections.emptyList();
+            int entry = tokenEntries[i];
+            String name = normalizedNames[entry];
+            int tier = name.equals(key) ? TIER_EXACT : name.startsWith(key) ? TIER_NAME_PREFIX : TIER_WORD_PREFIX;
+            top.offer(entry, score(tier, entry, recent));
+        }
+
+        // Typo-tolerant matches when prefixes did not fill the list
+        int maxEdits = key.length() >= 7 ? 2 : key.length() >= 4 ? 1 : 0;
+        if (top.size() < limit && maxEdits > 0) {
+            int[] candidates = entriesByInitial.get(key.charAt(0));
+            if (candidates != null) {
+                for (int n = 0; n < candidates.length; n++) {
+                    if ((n & 1023) == 0 && cancelled.getAsBoolean()) return Collections.emptyList();
+                    int entry = candidates[n];
+                    if (top.contains(entry)) continue;
+                    if (prefixEditDistance(key, normalizedNames[entry], maxEdits) <= maxEdits) {
+                        top.offer(entry, score(TIER_FUZZY, entry, recent));
+                    }
+                }
+            }
+        }
+
+        if (cancelled.getAsBoolean()) return Collections.emptyList();
+        int[] ids = top.sorted();
+        List<String> results = new ArrayList<>(ids.length);
+        for (int id : ids) results.add(displayNames[id]);
+        return results;
+    }
+
+    // Tier dominates, then recent use, then population
+    private long score(int tier, int entry, Map<Integer, Integer> recent) {
+        Integer uses = recent.get(entry);
+        long recency = uses == null ? 0 : Math.min(uses, 255);
+        return ((long) tier << 48) | (recency << 32) | (populations[entry] & 0xffffffffL);
+    }
+
+    // First token index whose key is >= the given prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = tokenKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokenKeys[mid].compareTo(prefix) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Smallest edit distance between the query and any prefix of the name, or maxEdits + 1 once
+     * that bound is exceeded. Computed one name character at a time with a single DP row.
+     */
+    static int prefixEditDistance(String query, String name, int maxEdits) {
+        int m = query.length();
+        int[] row = new int[m + 1];
+        for (int j = 0; j <= m; j++) row[j] = j;
+        int best = row[m];
+        int limit = Math.min(name.length(), m + maxEdits);
+        for (int i = 1; i <= limit; i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            int rowMin = row[0];
+            char c = name.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int above = row[j];
+                int cost = query.charAt(j - 1) == c ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, above + 1), diagonal + cost);
+                diagonal = above;
+                if (row[j] < rowMin) rowMin = row[j];
+            }
+            if (row[m] < best) best = row[m];
+            if (rowMin > maxEdits) break; // No continuation can get back under the bound
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    // Fixed-size collection of the best scored entries
+    private static class TopResults {
+        private final int[] entries;
+        private final long[] scores;
+        private int size;
+
+        TopResults(int capacity) {
+            entries = new int[capacity];
+            scores = new long[capacity];
+        }
+
+        int size() { return size; }
+
+        boolean contains(int entry) {
+            for (int i = 0; i < size; i++) if (entries[i] == entry) return true;
+            return false;
+        }
+
+        void offer(int entry, long score) {
+            // The same place can match through several word starts; keep its best score
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    if (score > scores[i]) scores[i] = score;
+                    return;
+                }
+            }
+            if (size < entries.length) {
+                entries[size] = entry;
+                scores[size] = score;
+                size++;
+                return;
+            }
+            int worst = 0;
+            for (int i = 1; i < size; i++) if (scores[i] < scores[worst]) worst = i;
+            if (score > scores[worst]) {
+                entries[worst] = entry;
+                scores[worst] = score;
+            }
+        }
+
+        int[] sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(scores[b], scores[a]));
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) result[i] = entries[order[i]];
+            return result;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.LocationModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A service class for handling location-related operations,
+ * such as geocoding and providing a list of predefined locations.
+ */
+public class LocationService {
+
+    // A predefined list of major locations in the Philippines for search suggestions.
+    private static final String[] PHILIPPINE_LOCATIONS = {
+            "Bacolod", "Baguio", "Cagayan de Oro", "Cebu City", "Davao City", "General Santos",
+            "Iligan", "Iloilo City", "Lapu-Lapu", "Las Piñas", "Makati", "Malabon", "Mandaluyong",
+            "Mandaue", "Manila", "Marikina", "Muntinlupa", "Navotas", "Olongapo", "Parañaque",
+            "Pasay", "Pasig", "Puerto Princesa", "Quezon City", "San Juan", "Tacloban", "Taguig",
+            "Valenzuela", "Zamboanga City"
+    };
+
+    // Farthest a coordinate may be from a bundled place for that place's name to be used.
+    // The bundled places are sparse outside the big cities, so anything farther asks the API.
+    public static final double MAX_LOCAL_DISTANCE_KM = 5;
+
+    // Farthest bundled place still used when the API cannot name a coordinate
+    public static final double MAX_FALLBACK_DISTANCE_KM = 25;
+
+    // Whether coordinates with no nearby bundled place are named by the reverse geocoding API
+    private static volatile boolean networkReverseGeocoding = true;
+
+    // The static API as a PlaceResolver, for code that takes its sources as parameters
+    private static final PlaceResolver resolver = new PlaceResolver() {
+        @Override
+        public LocationModel getPhilippineLocation(String locationName) {
+            return LocationService.getPhilippineLocation(locationName);
+        }
+
+        @Override
+        public String getLocationNameFromCoordinates(double latitude, double longitude) {
+            return LocationService.getLocationNameFromCoordinates(latitude, longitude);
+        }
+    };
+
+    // Offline geocode index, loaded lazily on the first search
+    private static File indexFile;
+    private static GeocodeIndex.Source bundledPlaces;
+    private static GeocodeIndex geocodeIndex;
+    private static LocationSearchEngine searchEngine;
+    private static List<String> recentSelections = new ArrayList<>(); // Seeded into the engine whenever it is built
+
+    // Most picks kept for reseeding a rebuilt engine; older ones are dropped first
+    private static final int MAX_RECENT_SELECTIONS = 64;
+
+    /**
+     * @return This service as a PlaceResolver, backed by the offline index and the geocoding APIs.
+     */
+    public static PlaceResolver resolver() {
+        return resolver;
+    }
+
+    /**
+     * Configures where the offline geocode index comes from. Nothing is read until the first lookup.
+     *
+     * @param file    File holding the compiled binary index, including places learned from the API.
+     * @param bundled The place table shipped with the app.
+     */
+    public static synchronized void initGeocodeIndex(File file, GeocodeIndex.Source bundled) {
+        if (file.equals(indexFile)) return;
+        indexFile = file;
+        bundledPlaces = bundled;
+        geocodeIndex = null;
+        searchEngine = null;
+    }
+
+    /**
+     * Forgets the configured geocode index, so lookups go to the network again, e.g. between tests.
+     */
+    public static synchronized void resetGeocodeIndex() {
+        indexFile = null;
+        bundledPlaces = null;
+        geocodeIndex = null;
+        searchEngine = null;
+    }
+
+    /**
+     * Returns the offline geocode index, loading it on first use. The compiled binary index is
+     * used when it is at least as new as the bundled table; otherwise it is rebuilt from the table.
+     *
+     * @return The index, or null if none has been configured or it could not be loaded.
+     */
+    public static synchronized GeocodeIndex getGeocodeIndex() {
+        if (geocodeIndex != null || bundledPlaces == null) return geocodeIndex;
+        try {
+            int bundledVersion;
+            try (InputStream in = bundledPlaces.open()) {
+                bundledVersion = GeocodeIndex.readTsvVersion(in);
+            }
+
+            if (indexFile.isFile()) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(indexFile))) {
+                    GeocodeIndex compiled = GeocodeIndex.readFrom(in);
+                    if (compiled.getDataVersion() >= bundledVersion) {
+                        geocodeIndex = compiled;
+                        return geocodeIndex;
+                    }
+                } catch (IOException e) {
+                    // Corrupt or outdated, rebuild below
+                }
+            }
+
+            try (InputStream in = bundledPlaces.open()) {
+                geocodeIndex = GeocodeIndex.fromTsv(in);
+            }
+            saveGeocodeIndex();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return geocodeIndex;
+    }
+
+    // Persist the index atomically so a crash never leaves a half-written file
+    private static void saveGeocodeIndex() {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            geocodeIndex.writeTo(out);
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(indexFile)) {
+            temp.delete();
+        }
+    }
+
+    // Remember a place resolved by the API so the next search for it stays offline
+    private static synchronized void learnLocation(GeocodingResponseParser.Place place) {
+        GeocodeIndex index = getGeocodeIndex();
+        if (index == null) return;
+        boolean added = index.add(place.name, place.admin1, place.latitude, place.longitude, place.population);
+        if (added) {
+            saveGeocodeIndex();
+            searchEngine = null; // Rebuilt with the new place on the next search
+        }
+    }
+
+    /**
+     * Sets the places the user picked in earlier sessions. They are applied when the search engine
+     * is built, so calling this again while it is running adds nothing.
+     *
+     * @param places Places picked before, most recent last.
+     */
+    public static synchronized void initRecentSelections(List<String> places) {
+        recentSelections = new ArrayList<>(places);
+        while (recentSelections.size() > MAX_RECENT_SELECTIONS) recentSelections.remove(0);
+    }
+
+    /**
+     * Records that the user picked a place, so it ranks higher in later searches. The pick is kept
+     * and applied again when the engine is rebuilt, e.g. after a place was learned from the API.
+     */
+    public static synchronized void recordSelection(String place) {
+        recentSelections.add(place);
+        if (recentSelections.size() > MAX_RECENT_SELECTIONS) recentSelections.remove(0);
+        if (searchEngine != null) searchEngine.recordSelection(place);
+    }
+
+    /**
+     * Returns the autocomplete search engine, building it from the geocode index on first use.
+     * Falls back to the predefined city list when no index is available. Building it reads the
+     * index, so call this off the main thread.
+     */
+    public static synchronized LocationSearchEngine getSearchEngine() {
+        if (searchEngine == null) {
+            GeocodeIndex index = getGeocodeIndex();
+            if (index != null) {
+                searchEngine = new LocationSearchEngine(index.getNames(), index.getPopulations());
+            } else {
+                searchEngine = new LocationSearchEngine(PHILIPPINE_LOCATIONS, new int[PHILIPPINE_LOCATIONS.length]);
+            }
+            for (String place : recentSelections) searchEngine.recordSelection(place);
+        }
+        return searchEngine;
+    }
+
+    /**
+     * Returns a predefined list of all major Philippine locations.
+     * @return A string array of location names.
+     */
+    public static String[] getAllPhilippineLocations() {
+        return PHILIPPINE_LOCATIONS;
+    }
+
+    /**
+     * Fetches the geographical details (latitude, longitude) for a given location name.
+     * Known places are resolved from the offline geocode index; anything else goes to the
+     * Open-Meteo Geocoding API, filtered for results within the Philippines, and is added to the index.
+     *
+     * @param locationName The name of the location to search for.
+     * @return A LocationModel object if a Philippine location is found, otherwise null.
+     */
+    public static LocationModel getPhilippineLocation(String locationName) {
+        GeocodeIndex index = getGeocodeIndex();
+        if (index != null) {
+            LocationModel known = index.lookup(locationName);
+            if (known != null) return known;
+        }
+        return searchPhilippineLocation(locationName);
+    }
+
+    // Resolve a place name through the geocoding API
+    private static LocationModel searchPhilippineLocation(String locationName) {
+        try {
+            // Format the location name for the URL (e.g., replace spaces with '+').
+            locationName = locationName.replaceAll(" ", "+");
+            String url = ApiEndpoints.geocoding() + "/v1/search?" +
+                    "name=" + locationName + "&count=10&language=en&format=json";
+
+            // Make the API call, streaming the results straight into places.
+            List<GeocodingResponseParser.Place> results = ApiClient.fetch(url, GeocodingResponseParser::parseSearch);
+
+            // Return the first match that is in the Philippines (PH).
+            for (GeocodingResponseParser.Place place : results) {
+                if (place.countryCode.equals("PH")) {
+                    learnLocation(place);
+                    return new LocationModel(place.name, place.latitude, place.longitude, place.countryCode);
+                }
+            }
+
+            return null; // Return null if no location in the Philippines is found.
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Enables or disables the reverse geocoding API for coordinates away from every bundled place.
+     * With it disabled, naming a location never touches the network.
+     */
+    public static void setNetworkReverseGeocoding(boolean enabled) {
+        networkReverseGeocoding = enabled;
+    }
+
+    /**
+     * Gets a location name from coordinates: the nearest place in the offline geocode index, or,
+     * if none is within {@link #MAX_LOCAL_DISTANCE_KM}, a lookup through the BigDataCloud API.
+     * When that lookup is disabled or fails, the nearest place within
+     * {@link #MAX_FALLBACK_DISTANCE_KM} is used instead.
+     *
+     * @param latitude The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return The locality or city name if found, otherwise null.
+     */
+    public static String getLocationNameFromCoordinates(double latitude, double longitude) {
+        GeocodeIndex index = getGeocodeIndex();
+        if (index != null) {
+            LocationModel nearest = index.nearest(latitude, longitude, MAX_LOCAL_DISTANCE_KM);
+            if (nearest != null) return nearest.getName();
+        }
+        String name = networkReverseGeocoding ? reverseGeocode(latitude, longitude) : null;
+        if (name == null && index != null) {
+            LocationModel fallback = index.nearest(latitude, longitude, MAX_FALLBACK_DISTANCE_KM);
+            if (fallback != null) return fallback.getName();
+        }
+        return name;
+    }
+
+    // Resolve coordinates to a name through the BigDataCloud API
+    private static String reverseGeocode(double latitude, double longitude) {
+        try {
+            String url = ApiEndpoints.reverseGeocoding() + "/data/reverse-geocode-client?" +
+                    "latitude=" + latitude + "&longitude=" + longitude + "&localityLanguage=en";
+
+            // The API may return the location name under "locality" or "city".
+            return ApiClient.fetch(url, GeocodingResponseParser::parseReverse);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
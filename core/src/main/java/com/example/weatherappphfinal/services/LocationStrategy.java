@@ -0,0 +1,190 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acquires the device location through a list of tiers, cheapest first: a recent last-known fix,
+ * then a balanced-power fix, then a high-accuracy fix, each bounded by a timeout. The first fix that
+ * is accurate enough for its tier wins; if none is, the most accurate one seen is used.
+ * Coordinates are snapped to a grid well inside the resolution of the forecast models (about
+ * 1–10 km), so small movements reuse the cached forecast instead of fetching a new one.
+ */
+public class LocationStrategy {
+
+    // 0.05° is about 5.5 km; snapped points never move more than about 4 km
+    public static final double DEFAULT_GRID_DEGREES = 0.05;
+
+    private static final Histogram fixTime = Metrics.histogram("location.fix");
+    private static final LongAdder noFixCount = Metrics.counter("location.no_fix");
+    private static final LongAdder tierFailureCount = Metrics.counter("location.tier_failed");
+
+    /**
+     * One step of the acquisition.
+     */
+    public static class Tier {
+        public final LocationProvider.Accuracy accuracy; // Null for the last-known fix
+        public final long maxAgeMs; // Oldest acceptable last-known fix
+        public final long timeoutMs; // Longest wait for a new fix
+        public final float maxAccuracyMeters; // Coarsest fix this tier accepts
+
+        private Tier(LocationProvider.Accuracy accuracy, long maxAgeMs, long timeoutMs, float maxAccuracyMeters) {
+            this.accuracy = accuracy;
+            this.maxAgeMs = maxAgeMs;
+            this.timeoutMs = timeoutMs;
+            this.maxAccuracyMeters = maxAccuracyMeters;
+        }
+
+        /**
+         * Use the fix the system already has, if it is recent and accurate enough.
+         */
+        public static Tier lastKnown(long maxAgeMs, float maxAccuracyMeters) {
+            return new Tier(null, maxAgeMs, 0, maxAccuracyMeters);
+        }
+
+        /**
+         * Ask for a new fix and wait up to the timeout.
+         */
+        public static Tier current(LocationProvider.Accuracy accuracy, long timeoutMs, float maxAccuracyMeters) {
+            return new Tier(accuracy, 0, timeoutMs, maxAccuracyMeters);
+        }
+
+        public String name() {
+            return accuracy == null ? "last known" : accuracy.name().toLowerCase(Locale.US);
+        }
+    }
+
+    /**
+     * Tiers for a forecast: any fix within a few km is as good as an exact one.
+     */
+    public static List<Tier> defaultTiers() {
+        return Collections.unmodifiableList(Arrays.asList(
+                Tier.lastKnown(ForecastCache.DEFAULT_TTL_MS, 3_000),
+                Tier.current(LocationProvider.Accuracy.BALANCED, 5_000, 3_000),
+                Tier.current(LocationProvider.Accuracy.HIGH, 10_000, Float.MAX_VALUE)));
+    }
+
+    private final LocationProvider provider;
+    private final List<Tier> tiers;
+    private final double gridDegrees;
+    private volatile Exception lastError; // Why a tier last failed during the latest acquisition
+
+    public LocationStrategy(LocationProvider provider) {
+        this(provider, defaultTiers(), DEFAULT_GRID_DEGREES);
+    }
+
+    /**
+     * @param provider    Where fixes come from.
+     * @param tiers       The tiers to try, in order.
+     * @param gridDegrees Grid the coordinates are snapped to, 0 to keep them as measured.
+     */
+    public LocationStrategy(LocationProvider provider, List<Tier> tiers, double gridDegrees) {
+        this.provider = provider;
+        this.tiers = tiers;
+        this.gridDegrees = gridDegrees;
+    }
+
+    /**
+     * Acquires a location. Blocks for at most the sum of the tier timeouts.
+     *
+     * @return The snapped location, or null if no tier produced a fix.
+     */
+    public Result acquire() {
+        lastError = null;
+        long start = System.nanoTime();
+        LocationProvider.Fix best = null;
+        Tier bestTier = null;
+        for (Tier tier : tiers) {
+            LocationProvider.Fix fix = fixFor(tier);
+            if (fix == null) continue;
+            if (fix.accuracyMeters <= tier.maxAccuracyMeters) {
+                return result(fix, tier, start);
+            }
+            if (best == null || fix.accuracyMeters < best.accuracyMeters) {
+                best = fix;
+                bestTier = tier;
+            }
+        }
+        if (best == null) {
+            noFixCount.increment();
+            return null;
+        }
+        return result(best, bestTier, start);
+    }
+
+    private LocationProvider.Fix fixFor(Tier tier) {
+        try {
+            if (tier.accuracy == null) {
+                LocationProvider.Fix fix = provider.lastKnown();
+                return fix != null && fix.ageMs <= tier.maxAgeMs ? fix : null;
+            }
+            return provider.current(tier.accuracy, tier.timeoutMs);
+        } catch (Exception e) {
+            // A failing tier falls through to the next one; the caller can read why
+            tierFailureCount.increment();
+            lastError = e;
+            return null;
+        }
+    }
+
+    /**
+     * @return Why a tier failed during the latest acquisition, or null if none did. Explains a null from acquire().
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    private Result result(LocationProvider.Fix fix, Tier tier, long start) {
+        fixTime.recordSince(start);
+        return new Result(snap(fix.latitude, gridDegrees), snap(fix.longitude, gridDegrees), fix.latitude, fix.longitude,
+                fix.accuracyMeters, tier.name(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Rounds a coordinate to the nearest multiple of the grid.
+     *
+     * @param coordinate  Latitude or longitude in degrees.
+     * @param gridDegrees Grid spacing in degrees that divides a degree evenly, e.g. 0.05, or 0 to leave the coordinate unchanged.
+     */
+    public static double snap(double coordinate, double gridDegrees) {
+        if (gridDegrees <= 0) return coordinate;
+        // Rounding the quotient and dividing by the number of steps per degree keeps e.g. 14.60 exact
+        double stepsPerDegree = Math.rint(1 / gridDegrees);
+        return Math.rint(coordinate * stepsPerDegree) / stepsPerDegree;
+    }
+
+    /**
+     * An acquired location and what it took to get it.
+     */
+    public static class Result {
+        public final double latitude; // Snapped, for the forecast and its cache key
+        public final double longitude; // Snapped, for the forecast and its cache key
+        public final double rawLatitude; // As measured, for naming the place
+        public final double rawLongitude; // As measured, for naming the place
+        public final float accuracyMeters; // Of the fix before snapping
+        public final String tier; // Name of the tier that produced the fix
+        public final long timeToFixMs; // From the start of the acquisition
+
+        public Result(double latitude, double longitude, double rawLatitude, double rawLongitude,
+                      float accuracyMeters, String tier, long timeToFixMs) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.rawLatitude = rawLatitude;
+            this.rawLongitude = rawLongitude;
+            this.accuracyMeters = accuracyMeters;
+            this.tier = tier;
+            this.timeToFixMs = timeToFixMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s fix in %d ms (±%.0f m)", tier, timeToFixMs, accuracyMeters);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.listeners.WeatherListener;
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loads weather for several places at once, e.g. for the saved-cities dashboard.
+ * Names are geocoded concurrently on a bounded pool. Places are grouped into batched
+ * multi-coordinate forecast requests as they resolve, and every city is reported to the
+ * listener as soon as its own forecast is available.
+ */
+public class MultiCityFetcher {
+
+    // Concurrent geocode and forecast requests per fetcher
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    private final ExecutorService pool; // Runs geocoding and batched forecast requests
+    private final Executor callbackExecutor; // Delivers results, e.g. on the main thread
+    private final int batchSize;
+    private final ForecastSource forecasts;
+    private final PlaceResolver places;
+
+    /**
+     * Creates a fetcher on the app's forecast and location services.
+     *
+     * @param pool             Bounded pool for the network requests.
+     * @param callbackExecutor Executor the listener is called on.
+     * @param batchSize        Most places combined into one forecast request.
+     */
+    public MultiCityFetcher(ExecutorService pool, Executor callbackExecutor, int batchSize) {
+        this(pool, callbackExecutor, batchSize, WeatherService.source(), LocationService.resolver());
+    }
+
+    /**
+     * @param pool             Bounded pool for the network requests.
+     * @param callbackExecutor Executor the listener is called on.
+     * @param batchSize        Most places combined into one forecast request.
+     * @param forecasts        Where forecasts are loaded from.
+     * @param places           Where the place names are resolved.
+     */
+    public MultiCityFetcher(ExecutorService pool, Executor callbackExecutor, int batchSize,
+                            ForecastSource forecasts, PlaceResolver places) {
+        this.pool = pool;
+        this.callbackExecutor = callbackExecutor;
+        this.batchSize = Math.max(1, Math.min(batchSize, WeatherService.MAX_BATCH_SIZE));
+        this.forecasts = forecasts;
+        this.places = places;
+    }
+
+    /**
+     * Loads every place and blocks until all of them have been reported. Must not be called on
+     * the main thread or on the pool itself. Cached forecasts are delivered straight away;
+     * stale ones are delivered and then refreshed like a single load.
+     *
+     * @param locationNames The places to load.
+     * @param listener      Called once per place with its weather, or with an error.
+     * @return The number of places for which weather was delivered.
+     */
+    public int fetch(List<String> locationNames, WeatherListener listener) throws InterruptedException {
+        return load(locationNames, listener);
+    }
+
+    /**
+     * Refreshes the cache for the places whose forecast is missing or stale, without reporting
+     * anything, e.g. to warm the saved cities in the background. Places with a fresh forecast
+     * cost no forecast request. Must not be called on the main thread or on the pool itself.
+     *
+     * @param locationNames The places to refresh.
+     * @return The number of places that now have a forecast in the cache.
+     */
+    public int prefetch(List<String> locationNames) throws InterruptedException {
+        return load(locationNames, null);
+    }
+
+    // Loads the places, reporting them to the listener unless it is null
+    private int load(List<String> locationNames, WeatherListener listener) throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        CompletionService<Place> geocoding = new ExecutorCompletionService<>(pool);
+        for (String name : locationNames) {
+            geocoding.submit(() -> new Place(name, places.getPhilippineLocation(name)));
+        }
+
+        List<Future<?>> batches = new ArrayList<>();
+        List<Place> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < locationNames.size(); i++) {
+            Place place;
+            try {
+                place = geocoding.take().get();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                continue;
+            }
+
+            if (place.location == null) {
+                report(listener, l -> l.onWeatherError("Location not found: " + place.requestedName));
+                continue;
+            }
+
+            ForecastCache.Entry cached = forecasts.getCachedWeather(place.location.getLatitude(), place.location.getLongitude());
+            if (cached != null) {
+                delivered.incrementAndGet();
+                report(listener, l -> l.onWeatherLoaded(cached.weather, place.location.getName()));
+                if (cached.isFresh()) continue;
+                place.shownFromCache = true;
+            }
+
+            // Send a batch as soon as it is full so early cities do not wait for the slowest geocode
+            batch.add(place);
+            if (batch.size() == batchSize) {
+                batches.add(submitBatch(batch, listener, delivered));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(submitBatch(batch, listener, delivered));
+        }
+
+        for (Future<?> sent : batches) {
+            try {
+                sent.get();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        return delivered.get();
+    }
+
+    // Fetch one batch of places with a single multi-coordinate request
+    private Future<?> submitBatch(List<Place> batch, WeatherListener listener, AtomicInteger delivered) {
+        return pool.submit(() -> {
+            double[] latitudes = new double[batch.size()];
+            double[] longitudes = new double[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                latitudes[i] = batch.get(i).location.getLatitude();
+                longitudes[i] = batch.get(i).location.getLongitude();
+            }
+
+            WeatherModel[] results = forecasts.fetchWeather(latitudes, longitudes);
+            for (int i = 0; i < results.length; i++) {
+                Place place = batch.get(i);
+                WeatherModel weather = results[i];
+                if (weather != null) {
+                    if (!place.shownFromCache) delivered.incrementAndGet();
+                    report(listener, l -> l.onWeatherLoaded(weather, place.location.getName()));
+                } else if (!place.shownFromCache) {
+                    // Keep showing the stale forecast rather than replacing it with an error
+                    report(listener, l -> l.onWeatherError("Failed to fetch weather for " + place.location.getName()));
+                }
+            }
+        });
+    }
+
+    // Calls the listener on the callback executor, if there is one
+    private void report(WeatherListener listener, Consumer<WeatherListener> call) {
+        if (listener != null) callbackExecutor.execute(() -> call.accept(listener));
+    }
+
+    // A requested name and where it resolved to
+    private static class Place {
+        final String requestedName;
+        final LocationModel location;
+        boolean shownFromCache;
+
+        Place(String requestedName, LocationModel location) {
+            this.requestedName = requestedName;
+            this.location = location;
+        }
+    }
+}
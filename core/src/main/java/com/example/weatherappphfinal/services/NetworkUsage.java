@@ -0,0 +1,72 @@
+package com.example.weatherappphfinal.services;
+
+import java.util.Locale;
+
+/**
+ * Adds up the requests made on behalf of one piece of work, e.g. one background run.
+ * While bound to a thread with {@link #enter()}, every request that thread makes is counted,
+ * including those of stages it starts through {@link AsyncStages}; requests made elsewhere in the
+ * process at the same time are not. Radio-on time is the time requests were in flight; overlapping
+ * requests count once, and the modem's idle tail after the last request is not included.
+ */
+public class NetworkUsage implements HttpTransport.TimingListener {
+
+    // Usage the request running on the current thread is counted in, if any
+    private static final ThreadLocal<NetworkUsage> CURRENT = new ThreadLocal<>();
+
+    private int requests;
+    private int notModified;
+    private long bytesReceived;
+    private long radioNanos;
+    private long busyUntil; // System.nanoTime() at which the latest counted request ended
+
+    /**
+     * @return The usage bound to the calling thread, or null.
+     */
+    public static NetworkUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this usage to the calling thread until the returned scope is closed.
+     */
+    public Scope enter() {
+        NetworkUsage previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) CURRENT.set(previous);
+            else CURRENT.remove();
+        };
+    }
+
+    @Override
+    public synchronized void onRequestTiming(HttpTransport.RequestTiming timing) {
+        long end = System.nanoTime();
+        long start = end - timing.totalNanos();
+        requests++;
+        if (timing.status == 304) notModified++;
+        bytesReceived += timing.bytesReceived;
+        // Requests are reported as they finish, so only the part after the previous one ended is new
+        radioNanos += end - Math.max(start, busyUntil);
+        busyUntil = end;
+    }
+
+    public synchronized int getRequests() { return requests; }
+    public synchronized int getNotModified() { return notModified; }
+    public synchronized long getBytesReceived() { return bytesReceived; }
+    public synchronized long getRadioMs() { return radioNanos / 1_000_000; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%d requests (%d not modified), %d B, radio %d ms",
+                requests, notModified, bytesReceived, radioNanos / 1_000_000);
+    }
+
+    /**
+     * Restores the previous binding when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
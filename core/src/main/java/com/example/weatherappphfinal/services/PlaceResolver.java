@@ -0,0 +1,22 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.LocationModel;
+
+/**
+ * Turns place names into coordinates and coordinates into place names. The default
+ * {@link LocationService#resolver()} answers from the offline geocode index and falls back to
+ * the geocoding APIs.
+ */
+public interface PlaceResolver {
+
+    /**
+     * @param locationName The name of the place, e.g. "Cebu City".
+     * @return The place, or null if there is no such place in the Philippines.
+     */
+    LocationModel getPhilippineLocation(String locationName);
+
+    /**
+     * @return The name of the place at the coordinates, or null if it cannot be determined.
+     */
+    String getLocationNameFromCoordinates(double latitude, double longitude);
+}
@@ -0,0 +1,95 @@
+package com.example.weatherappphfinal.services;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A static 2-d tree over place coordinates for nearest-place queries.
+ * Coordinates are projected once onto a plane in kilometers (equirectangular around the
+ * Philippines' middle latitude, within a few percent across the country), and the tree is laid
+ * out implicitly: the node of a range is its middle element, with the lower half before it and
+ * the upper half after it. A query allocates nothing and is safe from any thread.
+ */
+class PlaceTree {
+
+    private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+    // cos(12°) × 111.320, the length of a degree of longitude at the latitude of Visayas
+    private static final double KM_PER_DEGREE_LONGITUDE = 108.888;
+
+    private final int[] rows; // Row of the caller's table at each tree position
+    private final float[] x; // Projected east-west position in km, by tree position
+    private final float[] y; // Projected north-south position in km, by tree position
+
+    /**
+     * @param latitudes  Latitudes of the places, by row.
+     * @param longitudes Longitudes of the places, by row.
+     */
+    PlaceTree(float[] latitudes, float[] longitudes) {
+        int size = latitudes.length;
+        Integer[] order = new Integer[size];
+        float[] px = new float[size];
+        float[] py = new float[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            px[i] = (float) (longitudes[i] * KM_PER_DEGREE_LONGITUDE);
+            py[i] = (float) (latitudes[i] * KM_PER_DEGREE_LATITUDE);
+        }
+        build(order, 0, size, true, px, py);
+
+        rows = new int[size];
+        x = new float[size];
+        y = new float[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = order[i];
+            x[i] = px[order[i]];
+            y[i] = py[order[i]];
+        }
+    }
+
+    // Sort each range by its axis so the middle element splits it, then do the same for both halves
+    private static void build(Integer[] order, int lo, int hi, boolean splitX, float[] px, float[] py) {
+        if (hi - lo < 2) return;
+        Arrays.sort(order, lo, hi, splitX ? Comparator.comparingDouble((Integer i) -> px[i])
+                : Comparator.comparingDouble((Integer i) -> py[i]));
+        int mid = (lo + hi) >>> 1;
+        build(order, lo, mid, !splitX, px, py);
+        build(order, mid + 1, hi, !splitX, px, py);
+    }
+
+    /**
+     * Finds the place closest to a coordinate.
+     *
+     * @param maxDistanceKm Places farther away than this are ignored.
+     * @return The row of the nearest place, or -1 if none lies within the distance.
+     */
+    int nearest(double latitude, double longitude, double maxDistanceKm) {
+        if (rows.length == 0) return -1;
+        float qx = (float) (longitude * KM_PER_DEGREE_LONGITUDE);
+        float qy = (float) (latitude * KM_PER_DEGREE_LATITUDE);
+        int best = search(0, rows.length, true, qx, qy, -1);
+        return distanceSquared(best, qx, qy) <= maxDistanceKm * maxDistanceKm ? rows[best] : -1;
+    }
+
+    // Descend to the side of the query first; visit the other side only if it could hold something closer
+    private int search(int lo, int hi, boolean splitX, float qx, float qy, int best) {
+        if (lo >= hi) return best;
+        int mid = (lo + hi) >>> 1;
+        if (best < 0 || distanceSquared(mid, qx, qy) < distanceSquared(best, qx, qy)) best = mid;
+
+        float delta = splitX ? qx - x[mid] : qy - y[mid];
+        if (delta < 0) {
+            best = search(lo, mid, !splitX, qx, qy, best);
+            if (delta * delta < distanceSquared(best, qx, qy)) best = search(mid + 1, hi, !splitX, qx, qy, best);
+        } else {
+            best = search(mid + 1, hi, !splitX, qx, qy, best);
+            if (delta * delta < distanceSquared(best, qx, qy)) best = search(lo, mid, !splitX, qx, qy, best);
+        }
+        return best;
+    }
+
+    private float distanceSquared(int position, float qx, float qy) {
+        float dx = x[position] - qx;
+        float dy = y[position] - qy;
+        return dx * dx + dy * dy;
+    }
+}
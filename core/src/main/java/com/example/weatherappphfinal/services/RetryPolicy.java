@@ -0,0 +1,104 @@
+package com.example.weatherappphfinal.services;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries calls that failed with a retryable {@link ApiException}, waiting a random time up to an
+ * exponentially growing cap between attempts ("full jitter") so clients that failed together do
+ * not retry together. A 429 waits for its Retry-After instead, and is given up on if that is
+ * longer than the policy allows. Waits end early when the thread's Cancellation fires, and no
+ * retry starts past the overall time budget.
+ */
+public class RetryPolicy {
+
+    /**
+     * A call that may be attempted more than once.
+     */
+    public interface Call<T> {
+        T attempt() throws IOException;
+    }
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500, 4_000, 10_000, 20_000, new Random());
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long maxRetryAfterMs;
+    private final long budgetMs;
+    private final Random random; // Guarded by itself
+
+    /**
+     * @param maxAttempts     Attempts in total, including the first.
+     * @param baseDelayMs     Cap of the wait before the first retry; it doubles for each further retry.
+     * @param maxDelayMs      Cap of any backoff wait.
+     * @param maxRetryAfterMs Longest Retry-After honoured; a longer one fails the call instead.
+     * @param budgetMs        No retry is started once this much time has passed since the first attempt.
+     * @param random          Source of the jitter.
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, long maxRetryAfterMs, long budgetMs, Random random) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.maxRetryAfterMs = maxRetryAfterMs;
+        this.budgetMs = budgetMs;
+        this.random = random;
+    }
+
+    /**
+     * Runs the call, retrying it while it fails with a retryable error.
+     *
+     * @return The result of the first successful attempt.
+     * @throws IOException The error of the last attempt, or an InterruptedIOException if cancelled while waiting.
+     */
+    public <T> T run(Call<T> call) throws IOException {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.attempt();
+            } catch (ApiException e) {
+                long delay = delayBeforeRetry(e, attempt);
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (delay < 0 || elapsedMs + delay > budgetMs) throw e;
+                sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * @return How long to wait before the next attempt, or -1 to give up.
+     */
+    long delayBeforeRetry(ApiException error, int attempt) {
+        if (!error.isRetryable() || attempt >= maxAttempts) return -1;
+        if (error.getRetryAfterMs() >= 0) {
+            return error.getRetryAfterMs() <= maxRetryAfterMs ? error.getRetryAfterMs() : -1;
+        }
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 30));
+        synchronized (random) {
+            return (long) (random.nextDouble() * cap);
+        }
+    }
+
+    // Wait, returning early with an InterruptedIOException if the request is cancelled
+    private static void sleep(long delayMs) throws InterruptedIOException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Cancellation cancellation = Cancellation.current();
+        Runnable wake = cancelled::countDown;
+        if (cancellation != null && !cancellation.onCancel(wake)) {
+            throw new InterruptedIOException("Request cancelled");
+        }
+        try {
+            if (cancelled.await(delayMs, TimeUnit.MILLISECONDS)) {
+                throw new InterruptedIOException("Request cancelled");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        } finally {
+            if (cancellation != null) cancellation.removeOnCancel(wake);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.utils.TextNormalizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Keeps the last forecast shown for each city on disk, so the main screen can render
+ * immediately on a cold start, before any network call, and survive process death.
+ * Unlike the ForecastCache, snapshots are keyed by the displayed city name and never expire;
+ * they are always shown with their age and replaced as soon as a fresh forecast arrives.
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x534e5031; // "SNP1"
+    private static final int VERSION = 1;
+    private static final String FILE_PREFIX = "snapshot_";
+    private static final String FILE_SUFFIX = ".bin";
+
+    // Cities kept on disk; the least recently saved ones are dropped first
+    public static final int DEFAULT_MAX_SNAPSHOTS = 16;
+
+    private final File directory;
+    private final int maxSnapshots;
+
+    /**
+     * @param directory    Directory holding one file per city.
+     * @param maxSnapshots Number of cities to keep.
+     */
+    public SnapshotStore(File directory, int maxSnapshots) {
+        this.directory = directory;
+        this.maxSnapshots = maxSnapshots;
+        if (!directory.isDirectory()) {
+            directory.mkdirs();
+        }
+    }
+
+    /**
+     * Saves the forecast shown for a city, replacing any previous snapshot.
+     *
+     * @param cityName  The city name as displayed.
+     * @param weather   The forecast.
+     * @param fetchedAt Wall-clock time the forecast was fetched, in milliseconds.
+     */
+    public void save(String cityName, WeatherModel weather, long fetchedAt) {
+        File target = fileFor(cityName);
+        if (target == null) return;
+        File temp = new File(directory, target.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(fetchedAt);
+            out.writeUTF(cityName);
+            WeatherModelCodec.write(out, weather);
+        } catch (IOException e) {
+            e.printStackTrace();
+            temp.delete();
+            return;
+        }
+        // Rename so a crash never leaves a half-written snapshot
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            return;
+        }
+        trim();
+    }
+
+    /**
+     * Reads the snapshot of a city. This touches the disk, so call it off the main thread.
+     *
+     * @param cityName The city name as displayed.
+     * @return The snapshot, or null if there is none or it was written by another format version.
+     */
+    public Snapshot load(String cityName) {
+        File file = fileFor(cityName);
+        if (file == null || !file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Unsupported snapshot " + file.getName());
+            }
+            long fetchedAt = in.readLong();
+            String name = in.readUTF();
+            return new Snapshot(name, WeatherModelCodec.read(in), fetchedAt);
+        } catch (IOException e) {
+            // Corrupt or outdated, it will be rewritten after the next fetch
+            file.delete();
+            return null;
+        }
+    }
+
+    // One file per city, named after the normalized city name
+    private File fileFor(String cityName) {
+        String key = TextNormalizer.normalize(cityName).replace(' ', '_');
+        if (key.isEmpty()) return null;
+        return new File(directory, FILE_PREFIX + key + FILE_SUFFIX);
+    }
+
+    // Remove the least recently saved snapshots beyond the limit
+    private void trim() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= maxSnapshots) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - maxSnapshots; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * A persisted forecast with the name it was shown under and when it was fetched.
+     */
+    public static class Snapshot {
+        public final String cityName;
+        public final WeatherModel weather;
+        public final long fetchedAt; // Wall-clock time of the fetch, in milliseconds
+
+        Snapshot(String cityName, WeatherModel weather, long fetchedAt) {
+            this.cityName = cityName;
+            this.weather = weather;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public long ageMs() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of a WeatherModel, used by the on-disk stores.
+ * Every record starts with a magic number and a format version so old files can be rejected.
+ */
+public class WeatherModelCodec {
+
+    private static final int MAGIC = 0x57504831; // "WPH1"
+    public static final int VERSION = 2;
+
+    /**
+     * Writes the model to the given output.
+     *
+     * @param out     The destination.
+     * @param weather The model to encode.
+     */
+    public static void write(DataOutput out, WeatherModel weather) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeDouble(weather.getTemperature());
+        out.writeInt(weather.getHumidity());
+        out.writeDouble(weather.getWindSpeed());
+        out.writeInt(weather.getWeatherCode());
+        out.writeUTF(weather.getWeatherDescription() != null ? weather.getWeatherDescription() : "");
+        out.writeInt(weather.getPrecipitationProbability());
+        out.writeDouble(weather.getPrecipitation());
+        out.writeDouble(weather.getPressure());
+        out.writeInt(weather.getCloudCover());
+
+        writeSeries(out, weather.getDailySeries());
+        writeSeries(out, weather.getHourlySeries());
+    }
+
+    /**
+     * Reads a model previously written with {@link #write}.
+     *
+     * @param in The source.
+     * @return The decoded model.
+     * @throws IOException If the data is truncated or was written by an unknown format version.
+     */
+    public static WeatherModel read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a weather record");
+        int version = in.readShort();
+        if (version != VERSION) throw new IOException("Unsupported weather record version " + version);
+
+        double temperature = in.readDouble();
+        int humidity = in.readInt();
+        double windSpeed = in.readDouble();
+        int weatherCode = in.readInt();
+        String description = in.readUTF();
+        int precipitationProbability = in.readInt();
+        double precipitation = in.readDouble();
+        double pressure = in.readDouble();
+        int cloudCover = in.readInt();
+
+        ForecastSeries daily = readSeries(in);
+        ForecastSeries hourly = readSeries(in);
+
+        return new WeatherModel(temperature, humidity, windSpeed, weatherCode, description,
+                precipitationProbability, precipitation, pressure, cloudCover, daily, hourly);
+    }
+
+    // Series are written column by column: times, then each variable with its name
+    private static void writeSeries(DataOutput out, ForecastSeries series) throws IOException {
+        int size = series.size();
+        out.writeInt(series.getUtcOffsetSeconds());
+        out.writeShort(size);
+        for (int i = 0; i < size; i++) out.writeLong(series.getTime(i));
+
+        String[] variables = series.getVariables();
+        out.writeByte(variables.length);
+        for (int column = 0; column < variables.length; column++) {
+            out.writeUTF(variables[column]);
+            for (int i = 0; i < size; i++) out.writeFloat(series.getFloat(column, i));
+        }
+    }
+
+    private static ForecastSeries readSeries(DataInput in) throws IOException {
+        int utcOffsetSeconds = in.readInt();
+        int size = in.readShort();
+        long[] times = new long[size];
+        for (int i = 0; i < size; i++) times[i] = in.readLong();
+
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(times, utcOffsetSeconds);
+        int variables = in.readByte();
+        for (int column = 0; column < variables; column++) {
+            String name = in.readUTF();
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) values[i] = in.readFloat();
+            builder.add(name, values);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The network stages of a weather load, as futures that can run side by side.
+ * A load by coordinates needs both a forecast and a place name, which do not depend on each
+ * other, so both are started at once and the load takes as long as the slower of the two.
+ * A pipeline runs on whatever sources it is given; {@link #getDefault()} uses the app's services.
+ */
+public class WeatherPipeline {
+
+    // Shown when reverse geocoding fails or is too slow
+    public static final String FALLBACK_LOCATION_NAME = "Your Location";
+
+    // Per-stage timeouts. A missing place name is not worth waiting long for; a forecast is.
+    public static final long REVERSE_GEOCODE_TIMEOUT_MS = 4_000;
+    public static final long FORECAST_TIMEOUT_MS = 20_000;
+
+    // Resolved names remembered per cache cell, shown with a cached forecast while the lookup runs
+    private static final int MAX_KNOWN_NAMES = 64;
+
+    private static final WeatherPipeline defaultPipeline = new WeatherPipeline(WeatherService.source(), LocationService.resolver());
+
+    private final ForecastSource forecasts;
+    private final PlaceResolver places;
+    private final Map<String, String> knownNames = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_KNOWN_NAMES;
+        }
+    }; // Guarded by itself
+
+    /**
+     * @param forecasts Where forecasts are loaded from.
+     * @param places    Where place names are resolved.
+     */
+    public WeatherPipeline(ForecastSource forecasts, PlaceResolver places) {
+        this.forecasts = forecasts;
+        this.places = places;
+    }
+
+    /**
+     * @return The pipeline on the Open-Meteo forecast service and the offline-first location service.
+     */
+    public static WeatherPipeline getDefault() {
+        return defaultPipeline;
+    }
+
+    /**
+     * Starts reverse geocoding, falling back to {@link #FALLBACK_LOCATION_NAME}.
+     *
+     * @param latitude  The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return A future that always completes with a name.
+     */
+    public CompletableFuture<String> locationName(double latitude, double longitude) {
+        return locationName(latitude, longitude, REVERSE_GEOCODE_TIMEOUT_MS);
+    }
+
+    /**
+     * Starts reverse geocoding with a custom timeout.
+     */
+    public CompletableFuture<String> locationName(double latitude, double longitude, long timeoutMs) {
+        return AsyncStages.withFallback(
+                AsyncStages.supply(() -> places.getLocationNameFromCoordinates(latitude, longitude), timeoutMs),
+                FALLBACK_LOCATION_NAME);
+    }
+
+    /**
+     * Starts a network fetch of the forecast, which also refreshes the cache.
+     *
+     * @return A future completed with the forecast, or with null if it could not be fetched.
+     */
+    public CompletableFuture<WeatherModel> fetchWeather(double latitude, double longitude) {
+        return AsyncStages.withFallback(
+                AsyncStages.supply(() -> forecasts.fetchWeather(latitude, longitude), FORECAST_TIMEOUT_MS), null);
+    }
+
+    /**
+     * Loads the forecast, from the cache if there is one, and the place name concurrently.
+     *
+     * @param latitude  The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return A future completed once both stages are done.
+     */
+    public CompletableFuture<LocatedWeather> loadWeather(double latitude, double longitude) {
+        return loadWeather(latitude, longitude, latitude, longitude);
+    }
+
+    /**
+     * Loads the forecast for one point and the name of another, e.g. a snapped grid point and
+     * the measured fix it was snapped from, so the place is named after where the device is.
+     */
+    public CompletableFuture<LocatedWeather> loadWeather(double latitude, double longitude,
+                                                         double nameLatitude, double nameLongitude) {
+        CompletableFuture<String> name = locationName(nameLatitude, nameLongitude);
+        CompletableFuture<WeatherModel> weather = AsyncStages.withFallback(
+                AsyncStages.supply(() -> forecasts.getWeather(latitude, longitude), FORECAST_TIMEOUT_MS), null);
+        return weather.thenCombine(name, LocatedWeather::new);
+    }
+
+    /**
+     * Delivers a forecast using stale-while-revalidate: a cached forecast is passed on at once,
+     * and if it is missing or stale a fresh one is fetched and passed on when it arrives.
+     * The cached forecast does not wait for the place name; until the name is known it is shown
+     * under the last name resolved for the same place. Blocks until the load is done.
+     *
+     * @param locationName The place name, possibly still being looked up.
+     * @param listener     Called on the calling thread.
+     */
+    public void revalidate(double latitude, double longitude, CompletableFuture<String> locationName,
+                           RevalidationListener listener) {
+        ForecastCache.Entry cached = forecasts.getCachedWeather(latitude, longitude);
+        CompletableFuture<WeatherModel> fresh = cached != null && cached.isFresh()
+                ? null : fetchWeather(latitude, longitude);
+
+        String provisionalName = null;
+        if (cached != null) {
+            provisionalName = locationName.getNow(lastKnownName(latitude, longitude));
+            listener.onWeather(cached.weather, provisionalName);
+        }
+
+        WeatherModel weather = fresh != null ? AsyncStages.joinOrNull(fresh) : null;
+        String name = locationName.join();
+        rememberName(latitude, longitude, name);
+        if (weather == null) {
+            if (cached == null) {
+                listener.onError(forecasts.getLastError(latitude, longitude));
+                return;
+            }
+            // Keep showing the cached forecast rather than replacing it with an error
+            if (!name.equals(provisionalName)) listener.onWeather(cached.weather, name);
+            if (fresh == null) listener.onSettled(cached.weather, name, cached.fetchedAt);
+            return;
+        }
+
+        listener.onWeather(weather, name);
+        listener.onSettled(weather, name, System.currentTimeMillis());
+    }
+
+    private String lastKnownName(double latitude, double longitude) {
+        synchronized (knownNames) {
+            String name = knownNames.get(ForecastCache.keyFor(latitude, longitude));
+            return name != null ? name : FALLBACK_LOCATION_NAME;
+        }
+    }
+
+    private void rememberName(double latitude, double longitude, String name) {
+        if (FALLBACK_LOCATION_NAME.equals(name)) return;
+        synchronized (knownNames) {
+            knownNames.put(ForecastCache.keyFor(latitude, longitude), name);
+        }
+    }
+
+    /**
+     * Receives the steps of {@link #revalidate}.
+     */
+    public interface RevalidationListener {
+        /**
+         * A forecast to show: a cached one first, then a fresh one or the same one under its resolved name.
+         */
+        void onWeather(WeatherModel weather, String locationName);
+
+        /**
+         * The forecast the load ended with, under its resolved name, e.g. to save as a snapshot.
+         * Not called when a stale forecast could not be refreshed.
+         */
+        void onSettled(WeatherModel weather, String locationName, long fetchedAt);
+
+        /**
+         * Nothing was cached and the fetch failed.
+         *
+         * @param error Why the fetch failed, or null if unknown.
+         */
+        void onError(ApiException error);
+    }
+
+    /**
+     * A forecast together with the name of the place it is for.
+     */
+    public static class LocatedWeather {
+        public final WeatherModel weather; // Null if the forecast could not be loaded
+        public final String locationName;
+
+        public LocatedWeather(WeatherModel weather, String locationName) {
+            this.weather = weather;
+            this.locationName = locationName;
+        }
+    }
+}
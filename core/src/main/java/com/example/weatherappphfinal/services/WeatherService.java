@@ -0,0 +1,324 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A service class responsible for fetching weather data from the Open-Meteo API.
+ * This class handles the network request and streams the JSON response into a WeatherModel.
+ */
+public class WeatherService {
+
+    // Most locations sent in one batched forecast request, to keep URLs and responses a reasonable size
+    public static final int MAX_BATCH_SIZE = 10;
+
+    // A background refresh of a stale forecast is aborted after this long
+    public static final long REFRESH_TIMEOUT_MS = 20_000;
+
+    // Forecast cache shared by the UI and the background worker. Memory-only until initCache is called.
+    private static volatile ForecastCache cache = new ForecastCache(null,
+            ForecastCache.DEFAULT_MEMORY_ENTRIES, ForecastCache.DEFAULT_DISK_ENTRIES, ForecastCache.DEFAULT_TTL_MS);
+    private static File cacheDirectory; // Directory of the disk tier, if enabled
+    private static volatile Executor refreshExecutor; // Runs background refreshes; null for the shared stage pool
+
+    // Network fetches in progress by cache key, so concurrent callers for one place share a request
+    private static final Map<String, CompletableFuture<WeatherModel>> inFlight = new ConcurrentHashMap<>();
+
+    // Most failed places whose error is remembered; older ones are forgotten first
+    private static final int MAX_LAST_ERRORS = ForecastCache.DEFAULT_MEMORY_ENTRIES;
+
+    // Why the last fetch for a cache key failed, cleared when one succeeds
+    private static final Map<String, ApiException> lastErrors = new LinkedHashMap<String, ApiException>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ApiException> eldest) {
+            return size() > MAX_LAST_ERRORS;
+        }
+    }; // Guarded by itself
+
+    // The static API as a ForecastSource, for code that takes its sources as parameters
+    private static final ForecastSource source = new ForecastSource() {
+        @Override
+        public WeatherModel getWeather(double latitude, double longitude) {
+            return WeatherService.getWeather(latitude, longitude);
+        }
+
+        @Override
+        public WeatherModel fetchWeather(double latitude, double longitude) {
+            return WeatherService.fetchWeather(latitude, longitude);
+        }
+
+        @Override
+        public WeatherModel[] fetchWeather(double[] latitudes, double[] longitudes) {
+            return WeatherService.fetchWeather(latitudes, longitudes);
+        }
+
+        @Override
+        public ForecastCache.Entry getCachedWeather(double latitude, double longitude) {
+            return WeatherService.getCachedWeather(latitude, longitude);
+        }
+
+        @Override
+        public ApiException getLastError(double latitude, double longitude) {
+            return WeatherService.getLastError(latitude, longitude);
+        }
+    };
+
+    /**
+     * @return This service as a ForecastSource, backed by the Open-Meteo API and the shared cache.
+     */
+    public static ForecastSource source() {
+        return source;
+    }
+
+    /**
+     * Enables the on-disk tier of the forecast cache. Calling it again with the same directory is a no-op.
+     *
+     * @param directory The directory where cached forecasts are stored.
+     */
+    public static synchronized void initCache(File directory) {
+        if (directory.equals(cacheDirectory)) return;
+        cacheDirectory = directory;
+        cache = new ForecastCache(directory,
+                ForecastCache.DEFAULT_MEMORY_ENTRIES, ForecastCache.DEFAULT_DISK_ENTRIES, ForecastCache.DEFAULT_TTL_MS);
+    }
+
+    /**
+     * Replaces the forecast cache, e.g. with one using a different TTL in tests.
+     */
+    public static synchronized void setCache(ForecastCache forecastCache) {
+        cache = forecastCache;
+        cacheDirectory = null;
+    }
+
+    /**
+     * Replaces the executor that refreshes stale forecasts in the background, e.g. with one that
+     * runs them inline in tests. Null restores the shared stage pool.
+     */
+    public static void setRefreshExecutor(Executor executor) {
+        refreshExecutor = executor;
+    }
+
+    /**
+     * Goes back to the default memory-only cache and refresh executor and forgets remembered
+     * errors, e.g. between tests.
+     */
+    public static synchronized void resetCache() {
+        setCache(new ForecastCache(null,
+                ForecastCache.DEFAULT_MEMORY_ENTRIES, ForecastCache.DEFAULT_DISK_ENTRIES, ForecastCache.DEFAULT_TTL_MS));
+        refreshExecutor = null;
+        synchronized (lastErrors) {
+            lastErrors.clear();
+        }
+    }
+
+    public static ForecastCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns whatever forecast is cached for the location, fresh or stale, without touching the network.
+     *
+     * @param latitude  The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return The cached entry, or null if nothing is cached.
+     */
+    public static ForecastCache.Entry getCachedWeather(double latitude, double longitude) {
+        return cache.get(latitude, longitude);
+    }
+
+    /**
+     * Returns weather data for a given latitude and longitude using stale-while-revalidate: a
+     * cached forecast is returned at once, and if it is stale a refresh is started in the
+     * background for the next caller. Only when nothing is cached does the caller wait for the network.
+     *
+     * @param latitude  The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return A WeatherModel object containing the weather data, or null if an error occurs and nothing is cached.
+     */
+    public static WeatherModel getWeather(double latitude, double longitude) {
+        ForecastCache.Entry cached = cache.get(latitude, longitude);
+        if (cached == null) {
+            return fetchWeather(latitude, longitude);
+        }
+        if (!cached.isFresh()) {
+            refreshWeather(latitude, longitude);
+        }
+        return cached.weather;
+    }
+
+    /**
+     * Starts a network fetch of the forecast in the background, which refreshes the cache.
+     * A fetch already running for the same place is shared rather than repeated.
+     *
+     * @return A future completed with the fetched forecast, or with null if it could not be fetched.
+     */
+    public static CompletableFuture<WeatherModel> refreshWeather(double latitude, double longitude) {
+        Executor executor = refreshExecutor;
+        CompletableFuture<WeatherModel> refresh = executor != null
+                ? AsyncStages.supply(() -> fetchWeather(latitude, longitude), REFRESH_TIMEOUT_MS, executor)
+                : AsyncStages.supply(() -> fetchWeather(latitude, longitude), REFRESH_TIMEOUT_MS);
+        return AsyncStages.withFallback(refresh, null);
+    }
+
+    /**
+     * Tells why the last fetch for a location failed, e.g. to show the user a specific message.
+     *
+     * @return The error, or null if the last fetch succeeded or its failure was not an API error.
+     */
+    public static ApiException getLastError(double latitude, double longitude) {
+        synchronized (lastErrors) {
+            return lastErrors.get(ForecastCache.keyFor(latitude, longitude));
+        }
+    }
+
+    /**
+     * Fetches weather data for a given latitude and longitude from the network and stores it in the cache.
+     * If a fetch for the same place is already running, e.g. the startup prefetch, its result is shared.
+     * A cached copy with validators is revalidated with a conditional request; if upstream answers
+     * 304 the copy is kept and its TTL restarted without downloading the forecast again.
+     *
+     * @param latitude  The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @return A WeatherModel object containing the weather data, or null if an error occurs.
+     */
+    public static WeatherModel fetchWeather(double latitude, double longitude) {
+        String key = ForecastCache.keyFor(latitude, longitude);
+        CompletableFuture<WeatherModel> own = new CompletableFuture<>();
+        CompletableFuture<WeatherModel> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return awaitShared(running);
+        }
+
+        WeatherModel weather = null;
+        try {
+            ForecastCache.Entry cached = cache.peek(latitude, longitude);
+            HttpTransport.Conditional<WeatherModel> response = requestWeather(key, latitude, longitude, cached);
+            if (response != null) {
+                weather = response.notModified ? cached.weather : response.value;
+                cache.put(latitude, longitude, weather, response.validators);
+            }
+        } finally {
+            inFlight.remove(key, own);
+            own.complete(weather);
+        }
+        return weather;
+    }
+
+    // Wait for another caller's fetch, giving up early if our own request is cancelled
+    private static WeatherModel awaitShared(CompletableFuture<WeatherModel> running) {
+        CompletableFuture<WeatherModel> view = running.thenApply(weather -> weather);
+        Cancellation cancellation = Cancellation.current();
+        Runnable abandon = () -> view.complete(null);
+        if (cancellation != null && !cancellation.onCancel(abandon)) return null;
+        try {
+            return view.join();
+        } finally {
+            if (cancellation != null) cancellation.removeOnCancel(abandon);
+        }
+    }
+
+    // How many callers are waiting on the fetch in progress for a place, for tests
+    static int sharedFetchWaiters(double latitude, double longitude) {
+        CompletableFuture<WeatherModel> running = inFlight.get(ForecastCache.keyFor(latitude, longitude));
+        return running != null ? running.getNumberOfDependents() : 0;
+    }
+
+    /**
+     * Fetches weather data for several locations from the network, combining them into as few
+     * multi-coordinate requests as possible, and stores each result in the cache.
+     *
+     * @param latitudes  The latitudes of the locations.
+     * @param longitudes The longitudes of the locations, in the same order.
+     * @return The forecasts in the same order; an entry is null if its batch could not be fetched.
+     */
+    public static WeatherModel[] fetchWeather(double[] latitudes, double[] longitudes) {
+        WeatherModel[] results = new WeatherModel[latitudes.length];
+        for (int from = 0; from < latitudes.length; from += MAX_BATCH_SIZE) {
+            int to = Math.min(from + MAX_BATCH_SIZE, latitudes.length);
+            List<WeatherModel> batch = requestWeather(latitudes, longitudes, from, to);
+            if (batch == null) continue;
+            for (int i = from; i < to; i++) {
+                results[i] = batch.get(i - from);
+                cache.put(latitudes[i], longitudes[i], results[i]);
+            }
+        }
+        return results;
+    }
+
+    // Perform the network request, conditional on the cached copy if there is one, and parse the response
+    private static HttpTransport.Conditional<WeatherModel> requestWeather(String key, double latitude, double longitude, ForecastCache.Entry cached) {
+        try {
+            String url = forecastUrl(String.valueOf(latitude), String.valueOf(longitude));
+
+            // Stream the response straight into the forecast parser; no intermediate String or JSON tree.
+            HttpTransport.Conditional<WeatherModel> response = ApiClient.fetch(url, cached != null ? cached.validators : null,
+                    ForecastResponseParser::parse);
+            rememberError(key, null);
+            return response;
+
+        } catch (ApiException e) {
+            rememberError(key, e);
+            e.printStackTrace();
+            return null;
+        } catch (Exception e) {
+            rememberError(key, null);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Record why the fetch for a key failed, or forget it if the failure was not an API error or there was none
+    private static void rememberError(String key, ApiException error) {
+        synchronized (lastErrors) {
+            if (error != null) {
+                lastErrors.put(key, error);
+            } else {
+                lastErrors.remove(key);
+            }
+        }
+    }
+
+    // Request locations [from, to) in one call; open-meteo answers with one forecast per coordinate pair
+    private static List<WeatherModel> requestWeather(double[] latitudes, double[] longitudes, int from, int to) {
+        try {
+            StringBuilder lat = new StringBuilder();
+            StringBuilder lon = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    lat.append(',');
+                    lon.append(',');
+                }
+                lat.append(latitudes[i]);
+                lon.append(longitudes[i]);
+            }
+
+            List<WeatherModel> batch = ApiClient.fetch(forecastUrl(lat.toString(), lon.toString()),
+                    ForecastResponseParser::parseAll);
+            if (batch.size() != to - from) {
+                throw new IOException("Expected " + (to - from) + " forecasts but got " + batch.size());
+            }
+            return batch;
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Construct the API URL with the required parameters; coordinates may be comma-separated lists
+    private static String forecastUrl(String latitude, String longitude) {
+        return ApiEndpoints.forecast() + "/v1/forecast?latitude=" + latitude +
+                "&longitude=" + longitude + "&current=temperature_2m,relative_humidity_2m,weather_code,wind_speed_10m,precipitation,surface_pressure,cloud_cover" +
+                "&hourly=temperature_2m,precipitation_probability,weather_code,wind_speed_10m,is_day" +
+                "&daily=weather_code,temperature_2m_max,temperature_2m_min,precipitation_probability_mean" +
+                "&timezone=Asia/Singapore";
+    }
+}
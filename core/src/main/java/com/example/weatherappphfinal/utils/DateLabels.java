@@ -0,0 +1,97 @@
+package com.example.weatherappphfinal.utils;
+
+import java.text.DateFormatSymbols;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Localized day and month labels for forecast dates given as epoch days.
+ * The names are read from the locale once and every "MM/dd" label is built up front, so the
+ * day labels are array reads. Instances are immutable and shared per locale, and can be used
+ * from any thread.
+ */
+public class DateLabels {
+
+    private static final Map<Locale, DateLabels> byLocale = new ConcurrentHashMap<>();
+
+    private final String[] shortWeekdays = new String[7]; // Monday first, e.g. "Mon"
+    private final String[] longWeekdays = new String[7]; // Monday first, e.g. "Monday"
+    private final String[] shortMonths = new String[12]; // January first, e.g. "Jan"
+    private final String[] monthDays = new String[12 * 31]; // "MM/dd" by (month - 1) * 31 + day - 1
+    private volatile Header lastHeader; // Most recent header; the date line changes once a day
+
+    /**
+     * @return The shared labels for a locale.
+     */
+    public static DateLabels forLocale(Locale locale) {
+        return byLocale.computeIfAbsent(locale, DateLabels::new);
+    }
+
+    private DateLabels(Locale locale) {
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        String[] shortNames = symbols.getShortWeekdays();
+        String[] longNames = symbols.getWeekdays();
+        for (int i = 0; i < 7; i++) {
+            int calendarDay = (i + 1) % 7 + Calendar.SUNDAY; // Monday is 0 here, SUNDAY + 1 in Calendar
+            shortWeekdays[i] = shortNames[calendarDay];
+            longWeekdays[i] = longNames[calendarDay];
+        }
+        System.arraycopy(symbols.getShortMonths(), 0, shortMonths, 0, 12);
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 1; day <= 31; day++) {
+                monthDays[(month - 1) * 31 + day - 1] = twoDigits(month) + "/" + twoDigits(day);
+            }
+        }
+    }
+
+    /**
+     * Abbreviated day of the week, e.g. "Tue".
+     */
+    public String dayName(long epochDay) {
+        return shortWeekdays[dayOfWeek(epochDay)];
+    }
+
+    /**
+     * Month and day as "MM/dd", e.g. "11/25".
+     */
+    public String monthDay(long epochDay) {
+        int civil = ForecastDates.packedCivilFromEpochDay(epochDay);
+        return monthDays[(civil / 100 % 100 - 1) * 31 + civil % 100 - 1];
+    }
+
+    /**
+     * Full date for the header, e.g. "Tuesday, Nov 25, 2025".
+     */
+    public String headerDate(long epochDay) {
+        Header header = lastHeader;
+        if (header == null || header.epochDay != epochDay) {
+            int civil = ForecastDates.packedCivilFromEpochDay(epochDay);
+            header = new Header(epochDay, longWeekdays[dayOfWeek(epochDay)] + ", " + shortMonths[civil / 100 % 100 - 1] + " "
+                    + twoDigits(civil % 100) + ", " + civil / 10_000);
+            lastHeader = header;
+        }
+        return header.text;
+    }
+
+    // 1970-01-01 was a Thursday, index 3 when Monday is 0
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
+    }
+
+    // A formatted header with the day it belongs to, swapped as one reference
+    private static class Header {
+        final long epochDay;
+        final String text;
+
+        Header(long epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+}
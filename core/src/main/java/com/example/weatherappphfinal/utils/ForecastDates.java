@@ -0,0 +1,119 @@
+package com.example.weatherappphfinal.utils;
+
+/**
+ * Conversions between open-meteo's ISO-8601 local timestamps and epoch seconds.
+ * Parsing works on any CharSequence and allocates nothing, so timestamps can be decoded straight
+ * out of the JSON parser's buffer.
+ */
+public class ForecastDates {
+
+    public static final int SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Parses "yyyy-MM-dd" or "yyyy-MM-ddTHH:mm" local time into epoch seconds.
+     *
+     * @param iso              The timestamp as sent by open-meteo.
+     * @param utcOffsetSeconds Offset of the response's timezone from UTC.
+     * @return Seconds since the epoch, in UTC.
+     * @throws IllegalArgumentException If the text is not in one of the two formats.
+     */
+    public static long parseEpochSeconds(CharSequence iso, int utcOffsetSeconds) {
+        if (iso.length() < 10 || iso.charAt(4) != '-' || iso.charAt(7) != '-') {
+            throw new IllegalArgumentException("Not an ISO date: " + iso);
+        }
+        int year = digits(iso, 0, 4);
+        int month = digits(iso, 5, 2);
+        int day = digits(iso, 8, 2);
+        long seconds = epochDay(year, month, day) * SECONDS_PER_DAY;
+        if (iso.length() >= 16 && iso.charAt(10) == 'T') {
+            seconds += digits(iso, 11, 2) * 3600L + digits(iso, 14, 2) * 60L;
+        }
+        return seconds - utcOffsetSeconds;
+    }
+
+    /**
+     * Formats epoch seconds as a local "yyyy-MM-dd" date.
+     */
+    public static String formatIsoDate(long epochSeconds, int utcOffsetSeconds) {
+        int[] civil = civilFromEpochDay(localEpochDay(epochSeconds, utcOffsetSeconds));
+        char[] out = {
+                (char) ('0' + civil[0] / 1000), (char) ('0' + civil[0] / 100 % 10),
+                (char) ('0' + civil[0] / 10 % 10), (char) ('0' + civil[0] % 10), '-',
+                (char) ('0' + civil[1] / 10), (char) ('0' + civil[1] % 10), '-',
+                (char) ('0' + civil[2] / 10), (char) ('0' + civil[2] % 10)
+        };
+        return new String(out);
+    }
+
+    /**
+     * Local date of an instant, as days since 1970-01-01.
+     *
+     * @param epochSeconds     Seconds since the epoch, in UTC.
+     * @param utcOffsetSeconds Offset of the local timezone from UTC.
+     */
+    public static long localEpochDay(long epochSeconds, int utcOffsetSeconds) {
+        return Math.floorDiv(epochSeconds + utcOffsetSeconds, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date.
+     */
+    public static long epochDay(int year, int month, int day) {
+        // Shift the year to start in March so the leap day is the last day of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    /**
+     * Inverse of {@link #epochDay}: returns {year, month, day}, for years 0 to 9999.
+     */
+    public static int[] civilFromEpochDay(long epochDay) {
+        int packed = packedCivilFromEpochDay(epochDay);
+        return new int[]{packed / 10_000, packed / 100 % 100, packed % 100};
+    }
+
+    /**
+     * Like {@link #civilFromEpochDay} without allocating: returns year * 10000 + month * 100 + day
+     * for years 0 to 9999.
+     */
+    public static int packedCivilFromEpochDay(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        int dayOfEra = (int) (z - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        return year * 10_000 + month * 100 + day;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') throw new IllegalArgumentException("Not an ISO date: " + text);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Describes how long ago something happened, e.g. "just now", "12 min ago", "3 h ago" or "2 d ago".
+     *
+     * @param ageMs The age in milliseconds.
+     */
+    public static String formatAge(long ageMs) {
+        long minutes = Math.max(0, ageMs) / 60_000;
+        if (minutes < 1) return "just now";
+        if (minutes < 60) return minutes + " min ago";
+        long hours = minutes / 60;
+        if (hours < 24) return hours + " h ago";
+        return hours / 24 + " d ago";
+    }
+}
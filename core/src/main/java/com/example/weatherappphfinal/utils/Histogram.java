@@ -0,0 +1,129 @@
+package com.example.weatherappphfinal.utils;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed log-linear buckets, in the style of HdrHistogram: every power
+ * of two is split into 16 equal sub-buckets, so any recorded value is known to within about 6%
+ * from one nanosecond up to about 73 minutes. The buckets are allocated up front, so recording
+ * is a handful of atomic adds and never allocates.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42; // 2^42 ns is about 73 minutes
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Use {@link Metrics#histogram(String)} to get a histogram that shows up in snapshots.
+     */
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one duration. Negative values count as zero and values past the range as its maximum.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // Another thread raised the maximum meanwhile, compare again
+        }
+    }
+
+    /**
+     * Records the time since a span started and adds the span to the recent spans, e.g.
+     * {@code long start = Metrics.start(); ...; histogram.recordSince(start);}
+     *
+     * @param startNanos The System.nanoTime() value at which the span started.
+     */
+    public void recordSince(long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        record(duration);
+        Metrics.onSpan(this, startNanos, duration);
+    }
+
+    public long getCount() { return count.sum(); }
+    public long getMaxNanos() { return max.get(); }
+
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.99.
+     * @return The value at or below which that share of the recorded values lie, rounded up to the
+     * end of its bucket, or 0 if nothing was recorded.
+     */
+    public long getValueAtQuantile(double quantile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestEquivalentValue(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // Values below 2 * SUB_BUCKETS get a bucket each; above, each power of two gets SUB_BUCKETS of them
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long lowestEquivalentValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    static long highestEquivalentValue(int bucket) {
+        return bucket + 1 < BUCKETS ? lowestEquivalentValue(bucket + 1) - 1 : MAX_VALUE;
+    }
+
+    /**
+     * E.g. "http.request  12  p50 45.1 ms  p90 80.2 ms  p99 120.0 ms  max 130.4 ms".
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s  %d  p50 %.1f ms  p90 %.1f ms  p99 %.1f ms  max %.1f ms", name, getCount(),
+                getValueAtQuantile(0.5) / 1e6, getValueAtQuantile(0.9) / 1e6, getValueAtQuantile(0.99) / 1e6, getMaxNanos() / 1e6);
+    }
+}
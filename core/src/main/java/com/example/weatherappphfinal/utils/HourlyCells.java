@@ -0,0 +1,127 @@
+package com.example.weatherappphfinal.utils;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+
+/**
+ * Display values and change detection for the cells of the hourly timeline.
+ * Labels come from tables built once, so binding a row allocates nothing, and two rows are
+ * compared by what they would display, so a change below display precision never rebinds a cell.
+ */
+public class HourlyCells {
+
+    // Bits of a change mask, one per cell of a row
+    public static final int CELL_TIME = 1;
+    public static final int CELL_ICON = 1 << 1;
+    public static final int CELL_TEMPERATURE = 1 << 2;
+    public static final int CELL_PRECIPITATION = 1 << 3;
+    public static final int CELL_WIND = 1 << 4;
+    public static final int ALL_CELLS = CELL_TIME | CELL_ICON | CELL_TEMPERATURE | CELL_PRECIPITATION | CELL_WIND;
+
+    // Shown for missing samples
+    public static final String MISSING_LABEL = "–";
+
+    // Ranges covered by the label tables; anything outside is formatted on demand
+    private static final int MIN_TEMPERATURE = -60;
+    private static final int MAX_TEMPERATURE = 60;
+    private static final int MAX_WIND = 250;
+
+    private static final String[] HOUR_LABELS = new String[24];
+    private static final String[] TEMPERATURE_LABELS = new String[MAX_TEMPERATURE - MIN_TEMPERATURE + 1];
+    private static final String[] PERCENT_LABELS = new String[101];
+    private static final String[] WIND_LABELS = new String[MAX_WIND + 1];
+
+    static {
+        for (int hour = 0; hour < 24; hour++) {
+            int clock = hour % 12 == 0 ? 12 : hour % 12;
+            HOUR_LABELS[hour] = clock + (hour < 12 ? " AM" : " PM");
+        }
+        for (int i = 0; i < TEMPERATURE_LABELS.length; i++) TEMPERATURE_LABELS[i] = (i + MIN_TEMPERATURE) + "°";
+        for (int i = 0; i < PERCENT_LABELS.length; i++) PERCENT_LABELS[i] = i + "%";
+        for (int i = 0; i < WIND_LABELS.length; i++) WIND_LABELS[i] = i + " km/h";
+    }
+
+    /**
+     * Local hour of a timestamp, e.g. "3 PM".
+     */
+    public static String hourLabel(long epochSeconds, int utcOffsetSeconds) {
+        long local = epochSeconds + utcOffsetSeconds;
+        return HOUR_LABELS[(int) Math.floorMod(local, (long) ForecastDates.SECONDS_PER_DAY) / 3600];
+    }
+
+    public static String temperatureLabel(float celsius) {
+        if (Float.isNaN(celsius)) return MISSING_LABEL;
+        int rounded = Math.round(celsius);
+        if (rounded < MIN_TEMPERATURE || rounded > MAX_TEMPERATURE) return rounded + "°";
+        return TEMPERATURE_LABELS[rounded - MIN_TEMPERATURE];
+    }
+
+    public static String percentLabel(float percent) {
+        if (Float.isNaN(percent)) return MISSING_LABEL;
+        return PERCENT_LABELS[Math.max(0, Math.min(100, Math.round(percent)))];
+    }
+
+    public static String windLabel(float kmh) {
+        if (Float.isNaN(kmh)) return MISSING_LABEL;
+        int rounded = Math.max(0, Math.round(kmh));
+        return rounded <= MAX_WIND ? WIND_LABELS[rounded] : rounded + " km/h";
+    }
+
+    /**
+     * Column indices of the hourly variables in one series, resolved once per update.
+     */
+    public static class Columns {
+        public final int weatherCode;
+        public final int temperature;
+        public final int precipitation;
+        public final int wind;
+        public final int isDay;
+
+        public Columns(ForecastSeries series) {
+            weatherCode = series.indexOf(ForecastSeries.WEATHER_CODE);
+            temperature = series.indexOf(ForecastSeries.TEMPERATURE);
+            precipitation = series.indexOf(ForecastSeries.PRECIPITATION_PROBABILITY);
+            wind = series.indexOf(ForecastSeries.WIND_SPEED);
+            isDay = series.indexOf(ForecastSeries.IS_DAY);
+        }
+    }
+
+    /**
+     * @return False for night hours; hours without day/night data count as day.
+     */
+    public static boolean isDay(ForecastSeries series, Columns columns, int row) {
+        return series.getInt(columns.isDay, row, 1) != 0;
+    }
+
+    /**
+     * Compares two rows by their displayed values.
+     *
+     * @return A mask of the CELL_ bits that differ, or 0 if the rows look the same.
+     */
+    public static int changedCells(ForecastSeries oldSeries, Columns oldColumns, int oldRow,
+                                   ForecastSeries newSeries, Columns newColumns, int newRow) {
+        int mask = 0;
+        if (oldSeries.getTime(oldRow) + oldSeries.getUtcOffsetSeconds() != newSeries.getTime(newRow) + newSeries.getUtcOffsetSeconds()) {
+            mask |= CELL_TIME;
+        }
+        if (oldSeries.getInt(oldColumns.weatherCode, oldRow, -1) != newSeries.getInt(newColumns.weatherCode, newRow, -1)
+                || isDay(oldSeries, oldColumns, oldRow) != isDay(newSeries, newColumns, newRow)) {
+            mask |= CELL_ICON;
+        }
+        if (!sameRounded(oldSeries.getFloat(oldColumns.temperature, oldRow), newSeries.getFloat(newColumns.temperature, newRow))) {
+            mask |= CELL_TEMPERATURE;
+        }
+        if (!sameRounded(oldSeries.getFloat(oldColumns.precipitation, oldRow), newSeries.getFloat(newColumns.precipitation, newRow))) {
+            mask |= CELL_PRECIPITATION;
+        }
+        if (!sameRounded(oldSeries.getFloat(oldColumns.wind, oldRow), newSeries.getFloat(newColumns.wind, newRow))) {
+            mask |= CELL_WIND;
+        }
+        return mask;
+    }
+
+    // Labels show whole numbers, and a missing sample only matches another missing one
+    private static boolean sameRounded(float a, float b) {
+        if (Float.isNaN(a) || Float.isNaN(b)) return Float.isNaN(a) && Float.isNaN(b);
+        return Math.round(a) == Math.round(b);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.weatherappphfinal.utils;
+
+import com.example.weatherappphfinal.services.CircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms for the fetch pipeline, plus a ring of the most
+ * recent spans. Instrumented classes look their metrics up once and keep them in static fields,
+ * so the hot path only does atomic adds:
+ * <pre>
+ * private static final Histogram parseTime = Metrics.histogram("parse.forecast");
+ * long start = Metrics.start();
+ * ...
+ * parseTime.recordSince(start);
+ * </pre>
+ * Nothing on the recording path allocates, so the instrumentation does not add garbage
+ * collections to the timings it measures. Snapshots are built on demand for the debug screen.
+ */
+public final class Metrics {
+
+    // How many finished spans are kept for the debug screen
+    static final int RECENT_SPANS = 64;
+
+    private static final long originNanos = System.nanoTime();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    // Ring of recent spans, preallocated. A slot may be read while it is being overwritten,
+    // which at worst shows one mixed-up span on the debug screen.
+    private static final AtomicLong spanSequence = new AtomicLong();
+    private static final Histogram[] spanOwners = new Histogram[RECENT_SPANS];
+    private static final String[] spanThreads = new String[RECENT_SPANS];
+    private static final long[] spanStarts = new long[RECENT_SPANS];
+    private static final long[] spanDurations = new long[RECENT_SPANS];
+
+    private Metrics() {
+    }
+
+    /**
+     * @param name Dotted name, e.g. "cache.hit".
+     * @return The counter with that name, created on first use.
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * @param name Dotted name, e.g. "http.request".
+     * @return The histogram with that name, created on first use.
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Starts a span; pass the result to {@link Histogram#recordSince(long)} when it ends.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    static void onSpan(Histogram owner, long startNanos, long durationNanos) {
+        int slot = (int) (spanSequence.getAndIncrement() % RECENT_SPANS);
+        spanOwners[slot] = owner;
+        spanThreads[slot] = Thread.currentThread().getName();
+        spanStarts[slot] = startNanos;
+        spanDurations[slot] = durationNanos;
+    }
+
+    /**
+     * @return The most recent spans, oldest first.
+     */
+    public static List<Span> getRecentSpans() {
+        long end = spanSequence.get();
+        List<Span> spans = new ArrayList<>();
+        for (long i = Math.max(0, end - RECENT_SPANS); i < end; i++) {
+            int slot = (int) (i % RECENT_SPANS);
+            Histogram owner = spanOwners[slot];
+            if (owner == null) continue;
+            spans.add(new Span(owner.getName(), spanThreads[slot], spanStarts[slot] - originNanos, spanDurations[slot]));
+        }
+        return spans;
+    }
+
+    /**
+     * Zeroes every counter and histogram and forgets the recent spans. The metrics themselves
+     * stay registered, since instrumented classes hold on to them.
+     */
+    public static void reset() {
+        for (LongAdder counter : counters.values()) counter.reset();
+        for (Histogram histogram : histograms.values()) histogram.reset();
+        for (int i = 0; i < RECENT_SPANS; i++) spanOwners[i] = null;
+    }
+
+    /**
+     * A readable report of all metrics, e.g. for the debug screen or a bug report.
+     */
+    public static String snapshot() {
+        StringBuilder out = new StringBuilder(String.format(Locale.US, "Metrics after %.1f s",
+                (System.nanoTime() - originNanos) / 1e9));
+        out.append("\n\nCounters:");
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            out.append("\n  ").append(counter.getKey()).append("  ").append(counter.getValue().sum());
+        }
+        out.append("\n\nLatency:");
+        for (Histogram histogram : new TreeMap<>(histograms).values()) {
+            out.append("\n  ").append(histogram);
+        }
+        out.append("\n\nRecent spans:");
+        for (Span span : getRecentSpans()) {
+            out.append(String.format(Locale.US, "\n  +%.1f s  %s  %.1f ms  [%s]",
+                    span.startNanos / 1e9, span.name, span.durationNanos / 1e6, span.thread));
+        }
+        return out.toString();
+    }
+
+    /**
+     * All metrics and the state of the circuit breakers as a JSON document, for exporting and
+     * comparing runs. Durations are in nanoseconds.
+     */
+    public static String toJson() {
+        StringBuilder out = new StringBuilder("{\"uptimeNanos\":").append(System.nanoTime() - originNanos);
+        out.append(",\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            out.append(separator).append(quote(counter.getKey())).append(':').append(counter.getValue().sum());
+            separator = ",";
+        }
+        out.append("},\"histograms\":{");
+        separator = "";
+        for (Histogram histogram : new TreeMap<>(histograms).values()) {
+            out.append(separator).append(quote(histogram.getName()))
+                    .append(":{\"count\":").append(histogram.getCount())
+                    .append(",\"mean\":").append(histogram.getMeanNanos())
+                    .append(",\"p50\":").append(histogram.getValueAtQuantile(0.5))
+                    .append(",\"p90\":").append(histogram.getValueAtQuantile(0.9))
+                    .append(",\"p99\":").append(histogram.getValueAtQuantile(0.99))
+                    .append(",\"max\":").append(histogram.getMaxNanos()).append('}');
+            separator = ",";
+        }
+        out.append("},\"breakers\":{");
+        separator = "";
+        for (Map.Entry<String, CircuitBreaker> entry : CircuitBreaker.all().entrySet()) {
+            CircuitBreaker breaker = entry.getValue();
+            out.append(separator).append(quote(entry.getKey()))
+                    .append(":{\"state\":").append(quote(breaker.getState().name()))
+                    .append(",\"consecutiveFailures\":").append(breaker.getConsecutiveFailures())
+                    .append(",\"timesOpened\":").append(breaker.getTimesOpened())
+                    .append(",\"rejected\":").append(breaker.getRejected()).append('}');
+            separator = ",";
+        }
+        return out.append("}}").toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * A finished span.
+     */
+    public static class Span {
+        public final String name;
+        public final String thread;
+        public final long startNanos; // Offset from process start
+        public final long durationNanos;
+
+        Span(String name, String thread, long startNanos, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
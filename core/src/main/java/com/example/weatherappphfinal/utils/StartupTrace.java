@@ -0,0 +1,112 @@
+package com.example.weatherappphfinal.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the phases of an app launch, so each launch shows where its milliseconds went.
+ * Phases may run on any thread and overlap; each one is recorded with its offset from the
+ * start of the trace and its duration. One trace lives for the whole process.
+ */
+public class StartupTrace {
+
+    private static final StartupTrace process = new StartupTrace(System.nanoTime());
+
+    private final long originNanos;
+    private final List<Phase> phases = new ArrayList<>();
+
+    /**
+     * @param originNanos The System.nanoTime() value that phase offsets are measured from.
+     */
+    public StartupTrace(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    /**
+     * @return The trace of the current process launch.
+     */
+    public static StartupTrace get() {
+        return process;
+    }
+
+    /**
+     * Starts a phase. Close the returned span when the phase is done.
+     *
+     * @param name Short name of the phase, e.g. "geocode-index".
+     */
+    public Span begin(String name) {
+        long start = System.nanoTime();
+        String thread = Thread.currentThread().getName();
+        return () -> record(new Phase(name, thread, start - originNanos, System.nanoTime() - start));
+    }
+
+    /**
+     * Records an instant event, such as the first frame with content.
+     */
+    public void mark(String name) {
+        record(new Phase(name, Thread.currentThread().getName(), System.nanoTime() - originNanos, 0));
+    }
+
+    /**
+     * @return The phases recorded so far, in the order they finished.
+     */
+    public synchronized List<Phase> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    /**
+     * @return The recorded phase with the given name, or null.
+     */
+    public synchronized Phase find(String name) {
+        for (Phase phase : phases) {
+            if (phase.name.equals(name)) return phase;
+        }
+        return null;
+    }
+
+    /**
+     * One line per phase, e.g. "  +12.4 ms  geocode-index  3.1 ms  [startup]".
+     */
+    public synchronized String summary() {
+        StringBuilder out = new StringBuilder("Startup trace:");
+        for (Phase phase : phases) {
+            out.append(String.format(Locale.US, "%n  +%.1f ms  %s  %.1f ms  [%s]",
+                    phase.startNanos / 1e6, phase.name, phase.durationNanos / 1e6, phase.thread));
+        }
+        return out.toString();
+    }
+
+    private synchronized void record(Phase phase) {
+        phases.add(phase);
+    }
+
+    /**
+     * An open phase; closing it records its duration.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A finished phase.
+     */
+    public static class Phase {
+        public final String name;
+        public final String thread;
+        public final long startNanos; // Offset from the start of the trace
+        public final long durationNanos; // Zero for instant events
+
+        Phase(String name, String thread, long startNanos, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        public long endNanos() {
+            return startNanos + durationNanos;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.weatherappphfinal.utils;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizes place names for matching: strips diacritics ("Parañaque" becomes "paranaque"),
+ * lower-cases, turns punctuation into single spaces and trims.
+ */
+public class TextNormalizer {
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue; // Accent of the previous letter
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) builder.append(' ');
+                pendingSpace = false;
+                builder.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+}
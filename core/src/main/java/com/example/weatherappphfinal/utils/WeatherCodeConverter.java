@@ -0,0 +1,182 @@
+package com.example.weatherappphfinal.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps WMO weather codes to display conditions.
+ * The conditions come from the wmo_codes.tsv resource, with optional per-language overrides such
+ * as wmo_codes_fil.tsv, so a new code or translation is a table edit. Each table is loaded once
+ * into a dense array of shared, immutable conditions indexed by code and day/night, so a lookup
+ * is an array read and never allocates.
+ */
+public class WeatherCodeConverter {
+
+    // Highest WMO code; anything above, or below zero, is unknown
+    public static final int MAX_CODE = 99;
+
+    private static final String TABLE = "wmo_codes";
+    private static final String ANY_CODE = "*";
+
+    // One converter per language, loaded on first use
+    private static final Map<String, WeatherCodeConverter> byLanguage = new ConcurrentHashMap<>();
+    private static final WeatherCodeConverter ENGLISH = forLocale(Locale.ENGLISH);
+
+    private final WeatherCondition[] conditions = new WeatherCondition[(MAX_CODE + 1) * 2]; // code * 2 + (night ? 1 : 0)
+    private final WeatherCondition unknownDay;
+    private final WeatherCondition unknownNight;
+
+    /**
+     * English daytime condition, as stored in WeatherModel descriptions.
+     */
+    public static WeatherCondition convert(int code) {
+        return ENGLISH.lookup(code, true);
+    }
+
+    /**
+     * @return The converter for the locale's language, falling back to English text for
+     * languages and codes without a translation.
+     */
+    public static WeatherCodeConverter forLocale(Locale locale) {
+        String language = locale.getLanguage();
+        if (language.equals("tl")) language = "fil"; // Older Android releases report Filipino as Tagalog
+        // Languages without a table share the English conditions
+        if (WeatherCodeConverter.class.getResource(TABLE + "_" + language + ".tsv") == null) language = "en";
+        return byLanguage.computeIfAbsent(language, WeatherCodeConverter::load);
+    }
+
+    /**
+     * @param code  WMO weather code.
+     * @param isDay False between sunset and sunrise.
+     * @return The shared condition for the code, or the unknown condition.
+     */
+    public WeatherCondition lookup(int code, boolean isDay) {
+        if (code < 0 || code > MAX_CODE) return isDay ? unknownDay : unknownNight;
+        return conditions[code * 2 + (isDay ? 0 : 1)];
+    }
+
+    private WeatherCodeConverter(Map<String, Map<String, String>> rows) {
+        Map<String, String> unknown = rows.containsKey(ANY_CODE) ? rows.get(ANY_CODE) : new HashMap<>();
+        unknownDay = condition(-1, unknown, false);
+        unknownNight = nightVariant(-1, unknown, unknownDay);
+        for (int code = 0; code <= MAX_CODE; code++) {
+            Map<String, String> row = rows.get(Integer.toString(code));
+            if (row == null) {
+                conditions[code * 2] = unknownDay;
+                conditions[code * 2 + 1] = unknownNight;
+            } else {
+                WeatherCondition day = condition(code, row, false);
+                conditions[code * 2] = day;
+                conditions[code * 2 + 1] = nightVariant(code, row, day);
+            }
+        }
+    }
+
+    // Nights without their own text or emoji share the daytime instance
+    private static WeatherCondition nightVariant(int code, Map<String, String> row, WeatherCondition day) {
+        if (cell(row, "night_description", "").isEmpty() && cell(row, "night_emoji", "").isEmpty()) return day;
+        return condition(code, row, true);
+    }
+
+    private static WeatherCondition condition(int code, Map<String, String> row, boolean night) {
+        String description = cell(row, "description", "Weather unknown");
+        String emoji = cell(row, "day_emoji", "🌤️");
+        if (night) {
+            description = cell(row, "night_description", description);
+            emoji = cell(row, "night_emoji", emoji);
+        }
+        Intensity intensity;
+        try {
+            intensity = Intensity.valueOf(cell(row, "intensity", "none").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            intensity = Intensity.NONE;
+        }
+        return new WeatherCondition(code, intensity,
+                cell(row, "condition", "Unknown").intern(), description.intern(), emoji.intern());
+    }
+
+    private static String cell(Map<String, String> row, String column, String fallback) {
+        String value = row.get(column);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+
+    // Base table overlaid with the language's table, if there is one
+    private static WeatherCodeConverter load(String language) {
+        Map<String, Map<String, String>> rows = readTable(TABLE + ".tsv");
+        Map<String, Map<String, String>> translated = readTable(TABLE + "_" + language + ".tsv");
+        for (Map.Entry<String, Map<String, String>> entry : translated.entrySet()) {
+            Map<String, String> row = rows.get(entry.getKey());
+            if (row == null) {
+                rows.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            for (Map.Entry<String, String> cell : entry.getValue().entrySet()) {
+                if (!cell.getValue().isEmpty()) row.put(cell.getKey(), cell.getValue());
+            }
+        }
+        return new WeatherCodeConverter(rows);
+    }
+
+    // Rows keyed by code, each a map from column name to cell; empty if the resource does not exist
+    private static Map<String, Map<String, String>> readTable(String name) {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        InputStream stream = WeatherCodeConverter.class.getResourceAsStream(name);
+        if (stream == null) return rows;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] cells = line.split("\t", -1);
+                if (header == null) {
+                    header = Arrays.asList(cells);
+                    continue;
+                }
+                Map<String, String> row = new HashMap<>();
+                for (int i = 1; i < cells.length && i < header.size(); i++) {
+                    row.put(header.get(i), cells[i].trim());
+                }
+                rows.put(cells[0].trim(), row);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    /**
+     * How strong the precipitation of a code is, for codes that come in several strengths.
+     */
+    public enum Intensity {
+        NONE, LIGHT, MODERATE, HEAVY
+    }
+
+    /**
+     * A condition as shown to the user. Instances are shared between lookups and never change.
+     */
+    public static class WeatherCondition {
+        public final int code; // -1 for unknown codes
+        public final Intensity intensity;
+        public final String condition;
+        public final String description;
+        public final String emoji;
+
+        WeatherCondition(int code, Intensity intensity, String condition, String description, String emoji) {
+            this.code = code;
+            this.intensity = intensity;
+            this.condition = condition;
+            this.description = description;
+            this.emoji = emoji;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.weatherappphfinal.managers;
+
+import com.example.weatherappphfinal.services.Cancellation;
+import com.example.weatherappphfinal.services.HttpTransport;
+import com.example.weatherappphfinal.services.StubHttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Covers the interleavings of joined, superseded and finished requests.
+ */
+public class RequestCoalescerTest {
+
+    private ExecutorService executor;
+    private final Queue<Runnable> mainThread = new ConcurrentLinkedQueue<>();
+    private RequestCoalescer<String, List<String>> coalescer;
+
+    @Before
+    public void setUp() {
+        // Single worker like WeatherManager; callbacks are queued and run by the test to control ordering
+        executor = Executors.newSingleThreadExecutor();
+        coalescer = new RequestCoalescer<>(executor, mainThread::add);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void identicalRequests_shareOneRun() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        RequestCoalescer.Work<List<String>> work = emitter -> {
+            runs.incrementAndGet();
+            release.await();
+            emitter.emit(l -> l.add("manila"));
+        };
+        coalescer.submit("manila", first, work);
+        coalescer.submit("manila", second, work);
+        coalescer.submit("manila", first, work); // Double tap from the same screen
+        release.countDown();
+        drain();
+
+        assertEquals(1, runs.get());
+        assertEquals(Collections.singletonList("manila"), first);
+        assertEquals(Collections.singletonList("manila"), second);
+    }
+
+    @Test
+    public void lateJoiner_receivesLatestEvent() throws Exception {
+        CountDownLatch emitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> first = new ArrayList<>();
+        List<String> late = new ArrayList<>();
+
+        coalescer.submit("manila", first, emitter -> {
+            emitter.emit(l -> l.add("cached"));
+            emitted.countDown();
+            release.await();
+            emitter.emit(l -> l.add("fresh"));
+        });
+        emitted.await();
+        coalescer.submit("manila", late, emitter -> fail("Should have joined"));
+        release.countDown();
+        drain();
+
+        assertEquals(List.of("cached", "fresh"), first);
+        assertEquals(List.of("cached", "fresh"), late);
+    }
+
+    @Test
+    public void newerQuery_supersedesRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> old = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+
+        coalescer.submit("manila", old, emitter -> {
+            started.countDown();
+            release.await();
+            emitter.emit(l -> l.add("manila"));
+        });
+        started.await();
+        coalescer.submit("cebu", current, emitter -> emitter.emit(l -> l.add("cebu")));
+        release.countDown();
+        drain();
+
+        assertTrue(old.isEmpty());
+        assertEquals(Collections.singletonList("cebu"), current);
+    }
+
+    @Test
+    public void queuedRequest_thatWasSuperseded_neverRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger davaoRuns = new AtomicInteger();
+        List<String> listener = new ArrayList<>();
+
+        // Keep the single worker busy so the next request has to wait in the queue
+        coalescer.submit("manila", listener, emitter -> {
+            started.countDown();
+            release.await();
+        });
+        started.await();
+        coalescer.submit("davao", listener, emitter -> davaoRuns.incrementAndGet());
+        coalescer.submit("cebu", listener, emitter -> emitter.emit(l -> l.add("cebu")));
+        release.countDown();
+        drain();
+
+        assertEquals(0, davaoRuns.get());
+        assertEquals(Collections.singletonList("cebu"), listener);
+    }
+
+    @Test
+    public void eventQueuedBeforeSupersede_isDropped() throws Exception {
+        CountDownLatch emitted = new CountDownLatch(1);
+        List<String> listener = new ArrayList<>();
+
+        coalescer.submit("manila", listener, emitter -> {
+            emitter.emit(l -> l.add("manila"));
+            emitted.countDown();
+        });
+        emitted.await();
+        // The event is posted but the UI thread has not run it yet when the next query arrives
+        coalescer.submit("cebu", listener, emitter -> emitter.emit(l -> l.add("cebu")));
+        drain();
+
+        assertEquals(Collections.singletonList("cebu"), listener);
+    }
+
+    @Test
+    public void eventOfFinishedRequest_isDroppedWhenSuperseded() throws Exception {
+        List<String> listener = new ArrayList<>();
+
+        coalescer.submit("manila", listener, emitter -> emitter.emit(l -> l.add("manila")));
+        // The request has completed, but the UI thread has not run its event yet
+        executor.submit(() -> { }).get();
+        coalescer.submit("cebu", listener, emitter -> emitter.emit(l -> l.add("cebu")));
+        drain();
+
+        assertEquals(Collections.singletonList("cebu"), listener);
+    }
+
+    @Test
+    public void finishedRequest_isNotJoined() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<String> listener = new ArrayList<>();
+        RequestCoalescer.Work<List<String>> work = emitter -> {
+            runs.incrementAndGet();
+            emitter.emit(l -> l.add("run"));
+        };
+
+        coalescer.submit("manila", listener, work);
+        drain();
+        coalescer.submit("manila", listener, work);
+        drain();
+
+        assertEquals(2, runs.get());
+        assertEquals(List.of("run", "run"), listener);
+    }
+
+    @Test
+    public void supersede_abortsTheHttpConnection() throws Exception {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.setLatencyMs(5_000);
+            server.respond("/slow", "{}");
+            HttpTransport transport = new HttpTransport(2_000, 10_000);
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+
+            coalescer.submit("manila", new ArrayList<>(), emitter -> {
+                started.countDown();
+                try {
+                    transport.get(server.baseUrl() + "/slow", HttpTransport::readFully);
+                } catch (Exception e) {
+                    failure.set(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+            started.await();
+            Thread.sleep(100); // Let the request reach the server
+            long start = System.nanoTime();
+            coalescer.submit("cebu", new ArrayList<>(), emitter -> { });
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertTrue(failure.get() instanceof InterruptedIOException);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    @Test
+    public void supersede_leavesTheAbortToTheAbortExecutor() throws Exception {
+        List<Runnable> aborts = new ArrayList<>();
+        coalescer = new RequestCoalescer<>(executor, mainThread::add, aborts::add);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        List<String> old = new ArrayList<>();
+
+        coalescer.submit("manila", old, emitter -> {
+            Cancellation.current().onCancel(aborted::countDown);
+            started.countDown();
+            aborted.await();
+            emitter.emit(l -> l.add("manila"));
+        });
+        started.await();
+        coalescer.submit("cebu", new ArrayList<>(), emitter -> { });
+
+        // The superseding call returned without running the abort itself
+        assertEquals(1, aborted.getCount());
+        assertEquals(1, aborts.size());
+        aborts.get(0).run();
+        drain();
+
+        assertEquals(0, aborted.getCount());
+        assertTrue(old.isEmpty());
+    }
+
+    // Wait for the worker to go idle, then run the queued callbacks as the main thread would
+    private void drain() throws Exception {
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        Runnable callback;
+        while ((callback = mainThread.poll()) != null) {
+            callback.run();
+        }
+    }
+}
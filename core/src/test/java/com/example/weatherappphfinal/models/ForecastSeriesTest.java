@@ -0,0 +1,116 @@
+package com.example.weatherappphfinal.models;
+
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+import com.example.weatherappphfinal.utils.AllocationCounter;
+import com.example.weatherappphfinal.utils.ForecastDates;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the columnar forecast container and compares its footprint with the object-per-row model.
+ */
+public class ForecastSeriesTest {
+
+    @Test
+    public void hourlyFixture_isParsedIntoColumns() throws Exception {
+        String body = StubHttpServer.fixture("forecast_hourly_16d.json");
+        WeatherModel weather = ForecastResponseParser.parse(new StringReader(body), -1);
+
+        ForecastSeries hourly = weather.getHourlySeries();
+        assertEquals(16 * 24, hourly.size());
+        assertEquals(28_800, hourly.getUtcOffsetSeconds());
+        assertEquals(3600, hourly.getTime(1) - hourly.getTime(0));
+        assertEquals("2025-11-25", ForecastDates.formatIsoDate(hourly.getTime(0), hourly.getUtcOffsetSeconds()));
+
+        // Precision is kept rather than rounded to ints
+        int temperature = hourly.indexOf(ForecastSeries.TEMPERATURE);
+        assertNotEquals(Math.round(hourly.getFloat(temperature, 0)), hourly.getFloat(temperature, 0), 0.0f);
+
+        // The last days have no precipitation probability in the fixture
+        ForecastSeries daily = weather.getDailySeries();
+        int precipitation = daily.indexOf(ForecastSeries.PRECIPITATION_PROBABILITY_MEAN);
+        assertTrue(Float.isNaN(daily.getFloat(precipitation, daily.size() - 1)));
+        assertEquals(-1, daily.getInt(precipitation, daily.size() - 1, -1));
+    }
+
+    @Test
+    public void slice_isAViewOverTheSameRows() {
+        ForecastSeries series = new ForecastSeries.Builder(new long[]{0, 3600, 7200, 10800}, 0)
+                .add(ForecastSeries.TEMPERATURE, new double[]{25.5, 26.0, 27.25, 28.0})
+                .add(ForecastSeries.WEATHER_CODE, new double[]{0, 1, 61, Double.NaN})
+                .build();
+
+        ForecastSeries next = series.slice(1, 4);
+        assertEquals(3, next.size());
+        assertEquals(3600, next.getTime(0));
+        assertEquals(27.25f, next.getFloat(next.indexOf(ForecastSeries.TEMPERATURE), 1), 0.0f);
+        assertEquals(-1, next.getInt(next.indexOf(ForecastSeries.WEATHER_CODE), 2, -1));
+        assertEquals(1, series.indexAtOrAfter(1));
+        assertEquals(2, next.indexAtOrAfter(10_000));
+        assertEquals(3, next.indexAtOrAfter(20_000));
+        assertEquals(series.footprintBytes(), next.footprintBytes());
+    }
+
+    @Test
+    public void legacyListView_matchesSeries() {
+        List<DailyForecastModel> days = new ArrayList<>();
+        days.add(new DailyForecastModel("2025-11-25", 80, 32, 25, 45));
+        days.add(new DailyForecastModel("2025-11-26", 3, 31, 25, 20));
+        WeatherModel weather = new WeatherModel(31.4, 66, 11.2, 2, "Some clouds", 45, 0, 1008.6, 58, days);
+
+        assertEquals(2, weather.getDailySeries().size());
+        assertEquals("2025-11-26", weather.getDailyForecast().get(1).getDate());
+        assertEquals(31, weather.getDailyForecast().get(1).getMaxTemp());
+    }
+
+    @Test
+    public void footprint_isSmallerThanObjectPerRow() {
+        int rows = 16 * 24;
+
+        // Warm up both paths so class loading and JIT do not count
+        buildObjects(rows);
+        buildColumns(rows);
+
+        long start = AllocationCounter.start();
+        List<DailyForecastModel> objects = buildObjects(rows);
+        long objectBytes = AllocationCounter.since(start);
+
+        start = AllocationCounter.start();
+        ForecastSeries columns = buildColumns(rows);
+        long columnBytes = AllocationCounter.since(start);
+
+        assertEquals(rows, objects.size());
+        assertEquals(rows, columns.size());
+        assertTrue(columnBytes * 2 < objectBytes);
+    }
+
+    private static List<DailyForecastModel> buildObjects(int rows) {
+        List<DailyForecastModel> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new DailyForecastModel(ForecastDates.formatIsoDate(i * 3600L, 0), 3, 31, 25, 40));
+        }
+        return list;
+    }
+
+    private static ForecastSeries buildColumns(int rows) {
+        long[] times = new long[rows];
+        double[] values = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            times[i] = i * 3600L;
+            values[i] = 30.5;
+        }
+        return new ForecastSeries.Builder(times, 0)
+                .add(ForecastSeries.WEATHER_CODE, values)
+                .add(ForecastSeries.TEMPERATURE_MAX, values)
+                .add(ForecastSeries.TEMPERATURE_MIN, values)
+                .add(ForecastSeries.PRECIPITATION_PROBABILITY_MEAN, values)
+                .build();
+    }
+}
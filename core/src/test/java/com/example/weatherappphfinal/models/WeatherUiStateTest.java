@@ -0,0 +1,79 @@
+package com.example.weatherappphfinal.models;
+
+import com.example.weatherappphfinal.services.ForecastResponseParser;
+import com.example.weatherappphfinal.services.StubHttpServer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that re-rendering the same forecast touches nothing and a refresh only the views that changed.
+ */
+public class WeatherUiStateTest {
+
+    private static final long NOW = 1_764_051_300_000L; // 2025-11-25 14:15 in Manila
+
+    private WeatherModel weather;
+    private WeatherUiState.Formatter formatter;
+
+    @Before
+    public void setUp() throws Exception {
+        weather = ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_manila.json")), -1);
+        formatter = new WeatherUiState.Formatter(Locale.US);
+    }
+
+    @Test
+    public void firstRender_updatesEverything() {
+        WeatherUiState state = formatter.format(weather, "Manila", 0, NOW);
+
+        assertEquals(WeatherUiState.ALL, state.changedFields(null));
+        assertEquals("31°C", state.temperatureText);
+        assertEquals("Partly cloudy", state.conditionText);
+        assertEquals("11.2 m/s", state.windText);
+        assertEquals("Tue", state.days.get(0).dayName);
+        assertEquals("11/25", state.days.get(0).monthDay);
+    }
+
+    @Test
+    public void sameForecastAgain_changesNothing() {
+        WeatherUiState first = formatter.format(weather, "Manila", 0, NOW);
+        WeatherModel reparsed = copy(weather, weather.getTemperature());
+        WeatherUiState second = formatter.format(reparsed, "Manila", 0, NOW + 60_000);
+
+        // A new hourly series is handed to the timeline, which diffs its own rows
+        assertEquals(WeatherUiState.HOURLY, second.changedFields(first));
+        assertEquals(0, formatter.format(weather, "Manila", 0, NOW).changedFields(first));
+    }
+
+    @Test
+    public void staleThenFresh_onlyTouchesWhatChanged() {
+        WeatherUiState snapshot = formatter.format(weather, "Manila", NOW - 2 * 3_600_000L, NOW);
+        WeatherUiState live = formatter.format(copy(weather, 29.8), "Manila", 0, NOW);
+
+        assertTrue(snapshot.dateText.endsWith(" · Updated 2 h ago"));
+        assertEquals(WeatherUiState.DATE | WeatherUiState.TEMPERATURE | WeatherUiState.HOURLY, live.changedFields(snapshot));
+    }
+
+    @Test
+    public void labels_areCachedBetweenStates() {
+        WeatherUiState first = formatter.format(weather, "Manila", 0, NOW);
+        WeatherUiState second = formatter.format(weather, "Cebu City", 0, NOW + 3_600_000L);
+
+        assertSame(first.dateText, second.dateText);
+        assertSame(first.days.get(3).dayName, second.days.get(3).dayName);
+        assertEquals(WeatherUiState.CITY, second.changedFields(first));
+    }
+
+    // Same forecast with its own hourly series, as a second fetch would return
+    private static WeatherModel copy(WeatherModel weather, double temperature) {
+        ForecastSeries hourly = weather.getHourlySeries();
+        return new WeatherModel(temperature, weather.getHumidity(), weather.getWindSpeed(), weather.getWeatherCode(),
+                weather.getWeatherDescription(), weather.getPrecipitationProbability(), weather.getPrecipitation(),
+                weather.getPressure(), weather.getCloudCover(), weather.getDailySeries(), hourly.slice(0, hourly.size()));
+    }
+}
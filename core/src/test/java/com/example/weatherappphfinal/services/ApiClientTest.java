@@ -0,0 +1,207 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Injects faults with the stub server to exercise retries, Retry-After and the circuit breaker.
+ */
+public class ApiClientTest {
+
+    private StubHttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubHttpServer();
+        server.respondWithFixture("/v1/forecast", "forecast_manila.json");
+        ApiEndpoints.setAll(server.baseUrl());
+        url = server.baseUrl() + "/v1/forecast";
+        // Short waits so the test does not sleep through real backoff
+        ApiClient.setRetryPolicy(new RetryPolicy(3, 20, 100, 2_000, 5_000, new Random(1)));
+        WeatherService.setCache(new ForecastCache(null, 4, 4, ForecastCache.DEFAULT_TTL_MS));
+    }
+
+    @After
+    public void tearDown() {
+        ApiClient.setRetryPolicy(RetryPolicy.DEFAULT);
+        CircuitBreaker.resetAll();
+        ApiEndpoints.reset();
+        WeatherService.resetCache();
+        server.close();
+    }
+
+    @Test
+    public void serverErrors_areRetried() throws IOException {
+        server.failNext(2, 503, null);
+
+        assertNotNull(ApiClient.fetch(url, HttpTransport::readFully));
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    public void rateLimit_waitsForRetryAfter() throws IOException {
+        server.failNext(1, 429, "1");
+
+        long start = System.nanoTime();
+        assertNotNull(ApiClient.fetch(url, HttpTransport::readFully));
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, server.requestCount());
+        assertTrue("Waited " + waitedMs + " ms", waitedMs >= 1_000);
+    }
+
+    @Test
+    public void rateLimit_tooLongToWait_failsAtOnce() {
+        server.failNext(1, 429, "3600");
+
+        ApiException error = fetchExpectingFailure();
+        assertEquals(ApiException.Kind.RATE_LIMITED, error.getKind());
+        assertEquals(3_600_000, error.getRetryAfterMs());
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    public void badRequest_isNotRetriedAndDoesNotTripTheBreaker() {
+        server.failNext(10, 400, null);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ApiException.Kind.CLIENT, fetchExpectingFailure().getKind());
+        }
+        assertEquals(10, server.requestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker().getState());
+    }
+
+    @Test
+    public void downHost_opensBreaker_andForecastFallsBackToCache() {
+        // A forecast cached earlier, now stale
+        WeatherService.setCache(new ForecastCache(null, 4, 4, 0));
+        WeatherService.setRefreshExecutor(Runnable::run);
+        WeatherModel cached = WeatherService.getWeather(14.6042, 120.9822);
+        int before = server.requestCount();
+
+        server.failNext(100, 503, null);
+        for (int i = 0; i < 3; i++) {
+            // Each call retries; together they exceed the failure threshold
+            assertNull(WeatherService.fetchWeather(14.6042, 120.9822));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker().getState());
+        int whileOpen = server.requestCount();
+
+        // Open: the host is not called at all, and the stale forecast is still served
+        assertNull(WeatherService.fetchWeather(14.6042, 120.9822));
+        assertSame(cached, WeatherService.getWeather(14.6042, 120.9822));
+        assertEquals(whileOpen, server.requestCount());
+        assertEquals(ApiException.Kind.CIRCUIT_OPEN, WeatherService.getLastError(14.6042, 120.9822).getKind());
+        assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, whileOpen - before);
+        assertTrue(breaker().getRejected() > 0);
+    }
+
+    @Test
+    public void failedPlaces_rememberOnlyTheLatestErrors() {
+        server.failNext(ForecastCache.DEFAULT_MEMORY_ENTRIES + 1, 400, null);
+        for (int i = 0; i <= ForecastCache.DEFAULT_MEMORY_ENTRIES; i++) {
+            assertNull(WeatherService.fetchWeather(10 + i, 120));
+        }
+
+        // The oldest failure has been forgotten, the newest is still there
+        assertNull(WeatherService.getLastError(10, 120));
+        assertEquals(ApiException.Kind.CLIENT,
+                WeatherService.getLastError(10 + ForecastCache.DEFAULT_MEMORY_ENTRIES, 120).getKind());
+    }
+
+    @Test
+    public void deadConnection_doesNotHoldTheCaller() {
+        server.setLatencyMs(10_000);
+
+        long start = System.nanoTime();
+        WeatherModel weather = AsyncStages.joinOrNull(
+                AsyncStages.supply(() -> WeatherService.fetchWeather(14.6042, 120.9822), 300));
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertNull(weather);
+        assertTrue("Took " + tookMs + " ms", tookMs < 1_000);
+    }
+
+    @Test
+    public void breaker_letsOneTrialThroughAfterTheOpenPeriod() throws IOException {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, 1_000, now::get);
+        ApiException down = new ApiException(ApiException.Kind.SERVER, 503, -1, "HTTP 503", null);
+        for (int i = 0; i < 2; i++) {
+            try {
+                breaker.call(() -> { throw down; });
+            } catch (ApiException expected) {
+                assertSame(down, expected);
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.set(1_000);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // While the trial runs, other calls are still rejected
+        String result = breaker.call(() -> {
+            try {
+                breaker.call(() -> "second");
+                fail("Only one trial call may run");
+            } catch (ApiException e) {
+                assertEquals(ApiException.Kind.CIRCUIT_OPEN, e.getKind());
+            }
+            return "trial";
+        });
+        assertEquals("trial", result);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getTimesOpened());
+    }
+
+    @Test
+    public void backoff_isJitteredAndCapped() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1_000, 2_000, 60_000, new Random(3));
+        ApiException busy = new ApiException(ApiException.Kind.SERVER, 503, -1, "HTTP 503", null);
+        boolean varied = false;
+        long previous = -1;
+        for (int attempt = 1; attempt < 10; attempt++) {
+            long delay = policy.delayBeforeRetry(busy, attempt);
+            assertTrue(delay >= 0 && delay <= Math.min(1_000, 100L << (attempt - 1)));
+            varied |= previous >= 0 && delay != previous;
+            previous = delay;
+        }
+        assertTrue(varied);
+        assertEquals(-1, policy.delayBeforeRetry(busy, 10));
+        assertEquals(-1, policy.delayBeforeRetry(new ApiException(ApiException.Kind.CLIENT, 400, -1, "HTTP 400", null), 1));
+        assertEquals(1_500, policy.delayBeforeRetry(new ApiException(ApiException.Kind.RATE_LIMITED, 429, 1_500, "HTTP 429", null), 1));
+    }
+
+    @Test
+    public void retryAfter_acceptsSecondsAndHttpDates() {
+        assertEquals(120_000, HttpTransport.retryAfterMs("120", 0));
+        long serverNow = 1_764_050_400_000L; // Tue, 25 Nov 2025 06:00:00 GMT
+        assertEquals(90_000, HttpTransport.retryAfterMs("Tue, 25 Nov 2025 06:01:30 GMT", serverNow));
+        assertEquals(-1, HttpTransport.retryAfterMs("soon", 0));
+        assertEquals(-1, HttpTransport.retryAfterMs(null, 0));
+    }
+
+    private ApiException fetchExpectingFailure() {
+        try {
+            ApiClient.fetch(url, HttpTransport::readFully);
+            fail("Expected the call to fail");
+            return null;
+        } catch (ApiException e) {
+            return e;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private CircuitBreaker breaker() {
+        return CircuitBreaker.forHost(server.baseUrl().substring("http://".length()));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the two-tier forecast cache in front of WeatherService.
+ */
+public class ForecastCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StubHttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubHttpServer();
+        server.respondWithFixture("/v1/forecast", "forecast_manila.json");
+        ApiEndpoints.setAll(server.baseUrl());
+    }
+
+    @After
+    public void tearDown() {
+        ApiEndpoints.reset();
+        WeatherService.resetCache();
+        server.close();
+    }
+
+    @Test
+    public void secondLookup_isServedFromMemory() {
+        ForecastCache cache = new ForecastCache(null, 4, 4, ForecastCache.DEFAULT_TTL_MS);
+        WeatherService.setCache(cache);
+
+        WeatherModel first = WeatherService.getWeather(14.6042, 120.9822);
+        WeatherModel second = WeatherService.getWeather(14.6042, 120.9822);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, server.requestCount());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void diskTier_survivesNewInstance() throws IOException {
+        File dir = folder.newFolder("forecast");
+        WeatherService.setCache(new ForecastCache(dir, 4, 4, ForecastCache.DEFAULT_TTL_MS));
+        WeatherModel fetched = WeatherService.getWeather(14.6042, 120.9822);
+
+        // Simulate process death: a new cache over the same directory
+        ForecastCache restored = new ForecastCache(dir, 4, 4, ForecastCache.DEFAULT_TTL_MS);
+        WeatherService.setCache(restored);
+        WeatherModel cached = WeatherService.getWeather(14.6042, 120.9822);
+
+        assertEquals(1, server.requestCount());
+        assertEquals(1, restored.getDiskHits());
+        assertEquals(fetched.getTemperature(), cached.getTemperature(), 0.0);
+        assertEquals(fetched.getDailyForecast().size(), cached.getDailyForecast().size());
+        assertEquals(fetched.getDailyForecast().get(2).getDate(), cached.getDailyForecast().get(2).getDate());
+    }
+
+    @Test
+    public void staleEntry_isReturnedAndRevalidated() {
+        ForecastCache cache = new ForecastCache(null, 4, 4, 0);
+        WeatherService.setCache(cache);
+        List<Runnable> refreshes = new ArrayList<>();
+        WeatherService.setRefreshExecutor(refreshes::add);
+        WeatherService.getWeather(14.6042, 120.9822);
+
+        ForecastCache.Entry stale = WeatherService.getCachedWeather(14.6042, 120.9822);
+        assertNotNull(stale);
+        assertFalse(stale.isFresh());
+        assertEquals(1, cache.getStaleHits());
+
+        // A stale entry is returned without waiting for the network; the refresh runs afterwards
+        assertSame(stale.weather, WeatherService.getWeather(14.6042, 120.9822));
+        assertEquals(1, server.requestCount());
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+        assertEquals(2, server.requestCount());
+        assertNotSame(stale.weather, WeatherService.getCachedWeather(14.6042, 120.9822).weather);
+    }
+
+    @Test
+    public void memoryTier_evictsLeastRecentlyUsed() {
+        ForecastCache cache = new ForecastCache(null, 2, 2, ForecastCache.DEFAULT_TTL_MS);
+        WeatherService.setCache(cache);
+
+        WeatherService.getWeather(14.60, 120.98);
+        WeatherService.getWeather(10.31, 123.89);
+        WeatherService.getWeather(7.07, 125.61);
+
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(14.60, 120.98));
+    }
+
+    @Test
+    public void nearbyCoordinates_shareAnEntry() {
+        assertEquals(ForecastCache.keyFor(14.6042, 120.9822), ForecastCache.keyFor(14.6011, 120.9849));
+    }
+
+    @Test
+    public void concurrentFetches_shareOneRequest() throws Exception {
+        WeatherService.setCache(new ForecastCache(null, 4, 4, ForecastCache.DEFAULT_TTL_MS));
+        String body = StubHttpServer.fixture("forecast_manila.json");
+        CountDownLatch arrived = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.respond("/v1/forecast", query -> {
+            arrived.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return body;
+        });
+
+        // The startup prefetch is held on the server while the main screen's load asks for the same place
+        CompletableFuture<WeatherModel> prefetch = CompletableFuture.supplyAsync(() -> WeatherService.fetchWeather(14.6042, 120.9822));
+        arrived.await();
+        CompletableFuture<WeatherModel> load = CompletableFuture.supplyAsync(() -> WeatherService.fetchWeather(14.6042, 120.9822));
+        while (WeatherService.sharedFetchWaiters(14.6042, 120.9822) == 0) {
+            Thread.yield();
+        }
+        release.countDown();
+
+        assertSame(prefetch.get(), load.get());
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    public void staleEntry_withEtag_isRevalidatedWithoutDownload() throws IOException {
+        server.setValidators("\"manila-1\"", null);
+        File dir = folder.newFolder("forecast");
+        WeatherService.setCache(new ForecastCache(dir, 4, 4, 0));
+        WeatherModel fetched = WeatherService.getWeather(14.6042, 120.9822);
+
+        // A new process: the validators come back from the disk tier
+        ForecastCache restored = new ForecastCache(dir, 4, 4, 0);
+        WeatherService.setCache(restored);
+        WeatherService.setRefreshExecutor(Runnable::run);
+        NetworkUsage usage = new NetworkUsage();
+        WeatherModel revalidated;
+        try (NetworkUsage.Scope ignored = usage.enter()) {
+            revalidated = WeatherService.getWeather(14.6042, 120.9822);
+        }
+
+        assertEquals(2, server.requestCount());
+        assertEquals(1, server.notModifiedCount());
+        assertEquals(fetched.getTemperature(), revalidated.getTemperature(), 0.0);
+        assertEquals(1, usage.getRequests());
+        assertEquals(1, usage.getNotModified());
+        assertEquals(0, usage.getBytesReceived());
+        assertEquals("\"manila-1\"", restored.peek(14.6042, 120.9822).validators.etag);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.DailyForecastModel;
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the streaming forecast parser against the previous JSONObject-based parsing on
+ * recorded responses.
+ */
+public class ForecastResponseParserTest {
+
+    @Test
+    public void matchesJsonObjectPath_onRecordedFixtures() throws Exception {
+        for (String fixture : new String[]{"forecast_manila.json", "forecast_hourly_16d.json"}) {
+            String body = StubHttpServer.fixture(fixture);
+            WeatherModel streamed = ForecastResponseParser.parse(new StringReader(body), body.length());
+            WeatherModel tree = parseWithJsonObject(body);
+
+            assertEquals(tree.getTemperature(), streamed.getTemperature(), 0.0);
+            assertEquals(tree.getHumidity(), streamed.getHumidity());
+            assertEquals(tree.getWindSpeed(), streamed.getWindSpeed(), 0.0);
+            assertEquals(tree.getWeatherCode(), streamed.getWeatherCode());
+            assertEquals(tree.getPressure(), streamed.getPressure(), 0.0);
+            assertEquals(tree.getCloudCover(), streamed.getCloudCover());
+            assertEquals(tree.getDailyForecast().size(), streamed.getDailyForecast().size());
+            for (int i = 0; i < tree.getDailyForecast().size(); i++) {
+                DailyForecastModel expected = tree.getDailyForecast().get(i);
+                DailyForecastModel actual = streamed.getDailyForecast().get(i);
+                assertEquals(expected.getDate(), actual.getDate());
+                assertEquals(expected.getWeatherCode(), actual.getWeatherCode());
+                assertEquals(expected.getMaxTemp(), actual.getMaxTemp());
+                assertEquals(expected.getMinTemp(), actual.getMinTemp());
+                assertEquals(expected.getPrecipitationProbability(), actual.getPrecipitationProbability());
+            }
+        }
+    }
+
+    @Test
+    public void pullParser_handlesEscapesNestingAndNumbers() throws IOException {
+        JsonPullParser parser = new JsonPullParser(new StringReader(
+                "{\"a\\\"b\":[1,-2.5,3e2,null,true,{\"x\":[]}],\"s\":\"\\u00f1\\n\"}"), 4);
+        parser.beginObject();
+        assertEquals("a\"b", parser.nextName());
+        parser.beginArray();
+        assertEquals(1.0, parser.nextDouble(), 0.0);
+        assertEquals(-2.5, parser.nextDouble(), 0.0);
+        assertEquals(300.0, parser.nextDouble(), 0.0);
+        assertTrue(Double.isNaN(parser.nextDouble()));
+        assertTrue(parser.nextBoolean());
+        parser.skipValue();
+        assertFalse(parser.hasNext());
+        parser.endArray();
+        assertEquals("s", parser.nextName());
+        assertEquals("ñ\n", parser.nextString());
+        parser.endObject();
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser.peek());
+    }
+
+    @Test
+    public void parseAll_keepsRequestOrder_onRecordedMultiCityResponse() throws IOException {
+        String body = StubHttpServer.fixture("forecast_multi_city.json");
+        List<WeatherModel> forecasts = ForecastResponseParser.parseAll(new StringReader(body), body.length());
+
+        assertEquals(5, forecasts.size());
+        assertEquals(31.4, forecasts.get(0).getTemperature(), 0.0);
+        assertEquals(32.4, forecasts.get(1).getTemperature(), 1e-9);
+        assertEquals(22.4, forecasts.get(3).getTemperature(), 1e-9);
+        assertEquals(7, forecasts.get(4).getDailyForecast().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedBody_fails() throws IOException {
+        ForecastResponseParser.parse(new StringReader("{\"current\":{\"temperature_2m\":31"), -1);
+    }
+
+    // The JSONObject-based parsing WeatherService used before the streaming parser
+    private static WeatherModel parseWithJsonObject(String body) {
+        JSONObject response = new JSONObject(body);
+        JSONObject current = response.getJSONObject("current");
+        JSONObject daily = response.getJSONObject("daily");
+
+        List<DailyForecastModel> dailyForecasts = new ArrayList<>();
+        JSONArray dailyTime = daily.getJSONArray("time");
+        JSONArray dailyWeatherCodes = daily.getJSONArray("weather_code");
+        JSONArray maxTemps = daily.getJSONArray("temperature_2m_max");
+        JSONArray minTemps = daily.getJSONArray("temperature_2m_min");
+        JSONArray precipProb = daily.getJSONArray("precipitation_probability_mean");
+        for (int i = 0; i < dailyTime.length(); i++) {
+            dailyForecasts.add(new DailyForecastModel(
+                    dailyTime.getString(i),
+                    dailyWeatherCodes.getInt(i),
+                    (int) Math.round(maxTemps.getDouble(i)),
+                    (int) Math.round(minTemps.getDouble(i)),
+                    precipProb.optInt(i, 0)
+            ));
+        }
+
+        return new WeatherModel(
+                current.getDouble("temperature_2m"),
+                current.getInt("relative_humidity_2m"),
+                current.getDouble("wind_speed_10m"),
+                current.getInt("weather_code"),
+                "",
+                dailyForecasts.get(0).getPrecipitationProbability(),
+                current.getDouble("precipitation"),
+                current.getDouble("surface_pressure"),
+                current.getInt("cloud_cover"),
+                dailyForecasts
+        );
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.utils.AllocationCounter;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the offline geocode index and its use by LocationService.
+ */
+public class GeocodeIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        ApiEndpoints.reset();
+        LocationService.resetGeocodeIndex();
+        LocationService.setNetworkReverseGeocoding(true);
+    }
+
+    @Test
+    public void legacyCities_resolveOffline() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        String[] legacy = {
+                "Bacolod", "Baguio", "Cagayan de Oro", "Cebu City", "Davao City", "General Santos",
+                "Iligan", "Iloilo City", "Lapu-Lapu", "Las Piñas", "Makati", "Malabon", "Mandaluyong",
+                "Mandaue", "Manila", "Marikina", "Muntinlupa", "Navotas", "Olongapo", "Parañaque",
+                "Pasay", "Pasig", "Puerto Princesa", "Quezon City", "San Juan", "Tacloban", "Taguig",
+                "Valenzuela", "Zamboanga City"
+        };
+        for (String city : legacy) {
+            LocationModel location = index.lookup(city);
+            assertNotNull(city, location);
+            assertEquals(city, location.getName());
+        }
+    }
+
+    @Test
+    public void lookup_ignoresCaseDiacriticsAndCitySuffix() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        assertEquals("Parañaque", index.lookup("paranaque").getName());
+        assertEquals("Cebu City", index.lookup("CEBU").getName());
+        assertEquals("Makati", index.lookup("Makati City").getName());
+        // Two places called San Fernando: the more populous one wins
+        assertEquals(15.0286, index.lookup("San Fernando").getLatitude(), 0.001);
+        assertNull(index.lookup("Atlantis"));
+    }
+
+    @Test
+    public void binaryForm_roundTrips() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        index.add("Sagada", "Mountain Province", 17.0833, 120.9000, 11510);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        GeocodeIndex restored = GeocodeIndex.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(index.size(), restored.size());
+        assertEquals(index.getDataVersion(), restored.getDataVersion());
+        assertEquals(17.0833, restored.lookup("Sagada").getLatitude(), 0.001);
+    }
+
+    @Test
+    public void apiResults_areAppendedToIndex() throws IOException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.respond("/v1/search", "{\"results\":[{\"name\":\"Sagada\",\"latitude\":17.0833,"
+                    + "\"longitude\":120.9,\"country_code\":\"PH\",\"admin1\":\"Cordillera\",\"population\":11510}]}");
+            ApiEndpoints.setAll(server.baseUrl());
+            File indexFile = folder.newFile("geocode.idx");
+            indexFile.delete();
+            LocationService.initGeocodeIndex(indexFile, GeocodeIndexTest::bundled);
+
+            // Known city: no request at all
+            assertEquals("Manila", LocationService.getPhilippineLocation("Manila").getName());
+            assertEquals(0, server.requestCount());
+            assertFalse(LocationService.getSearchEngine().search("Sagada", 8).contains("Sagada"));
+
+            // Unknown place: one request, then it is served from the index
+            assertEquals("Sagada", LocationService.getPhilippineLocation("Sagada").getName());
+            assertEquals("Sagada", LocationService.getPhilippineLocation("sagada").getName());
+            assertEquals(1, server.requestCount());
+
+            // The learned place is suggested from now on
+            assertTrue(LocationService.getSearchEngine().search("Sagada", 8).contains("Sagada"));
+
+            // The learned place was persisted with the compiled index
+            GeocodeIndex persisted = GeocodeIndex.readFrom(new FileInputStream(indexFile));
+            assertNotNull(persisted.lookup("Sagada"));
+        }
+    }
+
+    @Test
+    public void nearest_namesCoordinatesOffline() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        assertEquals("Manila", index.nearest(14.6042, 120.9822, 25).getName());
+        assertEquals("Cebu City", index.nearest(10.3100, 123.8900, 25).getName());
+        assertEquals("Davao City", index.nearest(7.10, 125.50, 25).getName());
+        // Sulu Sea, far from any bundled place
+        assertNull(index.nearest(8.5, 120.5, 25));
+
+        // A learned place is found by the rebuilt tree
+        index.add("Sagada", "Mountain Province", 17.0833, 120.9000, 11510);
+        assertEquals("Sagada", index.nearest(17.09, 120.91, 25).getName());
+    }
+
+    @Test
+    public void nearest_matchesBruteForce() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        String[] names = index.getNames();
+        double[][] places = new double[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            LocationModel place = index.lookup(names[i]);
+            places[i] = new double[]{place.getLatitude(), place.getLongitude()};
+        }
+
+        Random random = new Random(42);
+        for (int q = 0; q < 20_000; q++) {
+            double latitude = 4.5 + random.nextDouble() * 16.5;
+            double longitude = 116.5 + random.nextDouble() * 10;
+            double closest = Double.MAX_VALUE;
+            for (double[] place : places) {
+                closest = Math.min(closest, haversineKm(latitude, longitude, place[0], place[1]));
+            }
+            LocationModel found = index.nearest(latitude, longitude, Double.MAX_VALUE);
+            double distance = haversineKm(latitude, longitude, found.getLatitude(), found.getLongitude());
+            // The tree measures on a flat projection; it may only pick a near-tie differently
+            assertTrue(distance + " vs " + closest, distance <= closest * 1.05 + 0.01);
+        }
+    }
+
+    @Test
+    public void reverseGeocoding_usesNetworkAwayFromBundledPlaces() throws IOException {
+        try (StubHttpServer server = new StubHttpServer()) {
+            server.respond("/data/reverse-geocode-client",
+                    query -> "{\"locality\":\"" + (query.contains("latitude=12.0") ? "Coron" : "Rosario") + "\"}");
+            ApiEndpoints.setAll(server.baseUrl());
+            File indexFile = folder.newFile("geocode.idx");
+            indexFile.delete();
+            LocationService.initGeocodeIndex(indexFile, GeocodeIndexTest::bundled);
+
+            assertEquals("Manila", LocationService.getLocationNameFromCoordinates(14.6042, 120.9822));
+            assertEquals(0, server.requestCount());
+
+            // About 10 km from Cavite City: too far to be named after it while the API can answer
+            assertEquals("Rosario", LocationService.getLocationNameFromCoordinates(14.55, 120.85));
+            assertEquals("Coron", LocationService.getLocationNameFromCoordinates(12.0, 120.2));
+            assertEquals(2, server.requestCount());
+
+            // Without an answer from the API, a bundled place nearby is better than no name
+            server.respond("/data/reverse-geocode-client", (String) null);
+            assertEquals("Cavite City", LocationService.getLocationNameFromCoordinates(14.55, 120.85));
+            assertNull(LocationService.getLocationNameFromCoordinates(12.0, 120.2));
+
+            LocationService.setNetworkReverseGeocoding(false);
+            int requests = server.requestCount();
+            assertEquals("Cavite City", LocationService.getLocationNameFromCoordinates(14.55, 120.85));
+            assertEquals(requests, server.requestCount());
+        }
+    }
+
+    @Test
+    public void reverseLookup_doesNotAllocate() throws IOException {
+        GeocodeIndex index = GeocodeIndex.fromTsv(bundled());
+        Random random = new Random(7);
+        int queries = 200_000;
+        double[] latitudes = new double[queries];
+        double[] longitudes = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            latitudes[i] = 4.5 + random.nextDouble() * 16.5;
+            longitudes[i] = 116.5 + random.nextDouble() * 10;
+        }
+
+        // Warm up so the tree is built and the lookup compiled
+        int checksum = lookUp(index, latitudes, longitudes);
+        long startBytes = AllocationCounter.start();
+        checksum += lookUp(index, latitudes, longitudes);
+        long allocated = AllocationCounter.since(startBytes);
+
+        assertTrue(checksum > 0);
+        assertTrue("Allocated " + allocated + " B", allocated < 256);
+    }
+
+    // The place list bundled with the app, on the test classpath
+    private static InputStream bundled() throws IOException {
+        InputStream in = GeocodeIndexTest.class.getResourceAsStream("/ph_places.tsv");
+        if (in == null) throw new IOException("Missing ph_places.tsv");
+        return in;
+    }
+
+    private static int lookUp(GeocodeIndex index, double[] latitudes, double[] longitudes) {
+        int checksum = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            checksum += index.nearestRow(latitudes[i], longitudes[i], Double.MAX_VALUE);
+        }
+        return checksum;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371 * 2 * Math.asin(Math.sqrt(a));
+    }
+}
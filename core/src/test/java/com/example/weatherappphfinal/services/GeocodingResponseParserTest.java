@@ -0,0 +1,54 @@
+package com.example.weatherappphfinal.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeocodingResponseParserTest {
+
+    @Test
+    public void search_keepsRankedResultsWithTheirCountry() throws IOException {
+        List<GeocodingResponseParser.Place> places = GeocodingResponseParser.parseSearch(
+                new StringReader(StubHttpServer.fixture("geocode_manila.json")), -1);
+
+        assertEquals(2, places.size());
+        GeocodingResponseParser.Place manila = places.get(0);
+        assertEquals("Manila", manila.name);
+        assertEquals("Metro Manila", manila.admin1);
+        assertEquals("PH", manila.countryCode);
+        assertEquals(14.6042, manila.latitude, 0.0);
+        assertEquals(120.9822, manila.longitude, 0.0);
+        assertEquals(1_600_000, manila.population);
+        assertEquals("US", places.get(1).countryCode);
+    }
+
+    @Test
+    public void search_withoutResults_isEmpty() throws IOException {
+        assertTrue(GeocodingResponseParser.parseSearch(new StringReader("{\"generationtime_ms\":0.4}"), -1).isEmpty());
+        // Results missing required fields are dropped; missing optional ones get defaults
+        List<GeocodingResponseParser.Place> places = GeocodingResponseParser.parseSearch(new StringReader(
+                "{\"results\":[{\"name\":\"Nowhere\"},{\"name\":\"Pasig\",\"latitude\":14.57,\"longitude\":121.08,"
+                        + "\"country_code\":\"PH\",\"admin1\":null}]}"), -1);
+        assertEquals(1, places.size());
+        assertEquals("", places.get(0).admin1);
+        assertEquals(0, places.get(0).population);
+    }
+
+    @Test
+    public void reverse_prefersLocalityOverCity() throws IOException {
+        assertEquals("Manila", GeocodingResponseParser.parseReverse(
+                new StringReader(StubHttpServer.fixture("reverse_manila.json")), -1));
+        assertEquals("Cebu City", GeocodingResponseParser.parseReverse(
+                new StringReader("{\"city\":\"Cebu City\",\"localityInfo\":{\"administrative\":[]}}"), -1));
+        assertNull(GeocodingResponseParser.parseReverse(new StringReader("{\"countryCode\":\"PH\"}"), -1));
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedBody_fails() throws IOException {
+        GeocodingResponseParser.parseSearch(new StringReader("{\"results\":[{\"name\":"), -1);
+    }
+}
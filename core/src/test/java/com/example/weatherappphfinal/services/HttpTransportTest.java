@@ -0,0 +1,131 @@
+package com.example.weatherappphfinal.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exercises HttpTransport against a local stub server.
+ */
+public class HttpTransportTest {
+
+    private StubHttpServer server;
+    private HttpTransport transport;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubHttpServer();
+        server.respond("/v1/forecast", "{\"latitude\":14.6,\"longitude\":121.0}");
+        transport = new HttpTransport(2_000, 2_000);
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void sequentialRequests_reuseOneConnection() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            String body = transport.get(server.baseUrl() + "/v1/forecast", HttpTransport::readFully);
+            assertEquals("{\"latitude\":14.6,\"longitude\":121.0}", body);
+        }
+        assertEquals(5, server.requestCount());
+        assertEquals(1, server.connectionCount());
+    }
+
+    @Test
+    public void gzipBody_isDecoded() throws IOException {
+        server.setGzip(true);
+        String body = transport.get(server.baseUrl() + "/v1/forecast", HttpTransport::readFully);
+        assertEquals("{\"latitude\":14.6,\"longitude\":121.0}", body);
+    }
+
+    @Test
+    public void timings_arePublishedPerRequest() throws IOException {
+        List<HttpTransport.RequestTiming> timings = new ArrayList<>();
+        transport.setTimingListener(timings::add);
+
+        for (int i = 0; i < 3; i++) {
+            transport.get(server.baseUrl() + "/v1/forecast", HttpTransport::readFully);
+        }
+
+        assertEquals(3, timings.size());
+        for (HttpTransport.RequestTiming timing : timings) {
+            assertEquals(200, timing.status);
+            assertTrue(timing.bytesReceived > 0);
+            assertTrue(timing.totalNanos() > 0);
+        }
+        assertEquals(1, server.connectionCount());
+    }
+
+    @Test
+    public void networkUsage_countsOnlyRequestsOfItsOwnWork() throws Exception {
+        String url = server.baseUrl() + "/v1/forecast";
+        NetworkUsage usage = new NetworkUsage();
+
+        try (NetworkUsage.Scope ignored = usage.enter()) {
+            transport.get(url, HttpTransport::readFully);
+            // A stage started by the counted work is counted too
+            AsyncStages.supply(() -> transport.get(url, HttpTransport::readFully), 2_000).join();
+            // Another thread of the process is not
+            Thread other = new Thread(() -> {
+                try {
+                    transport.get(url, HttpTransport::readFully);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            other.start();
+            other.join();
+        }
+        transport.get(url, HttpTransport::readFully);
+
+        assertEquals(4, server.requestCount());
+        assertEquals(2, usage.getRequests());
+        assertNull(NetworkUsage.current());
+    }
+
+    @Test(expected = IOException.class)
+    public void non200_throws() throws IOException {
+        transport.get(server.baseUrl() + "/missing", HttpTransport::readFully);
+    }
+
+    @Test
+    public void conditionalRequest_matchingEtag_getsNotModified() throws IOException {
+        server.setValidators("\"v1\"", null);
+        HttpTransport.Conditional<String> first = transport.getConditional(server.baseUrl() + "/v1/forecast", null, HttpTransport::readFully);
+        assertFalse(first.notModified);
+        assertEquals("\"v1\"", first.validators.etag);
+
+        HttpTransport.Conditional<String> second = transport.getConditional(server.baseUrl() + "/v1/forecast", first.validators, (body, length) -> {
+            throw new AssertionError("A 304 has no body to read");
+        });
+        assertTrue(second.notModified);
+        assertNull(second.value);
+        assertEquals("\"v1\"", second.validators.etag);
+        assertEquals(1, server.notModifiedCount());
+        // The bodiless 304 keeps the connection reusable
+        assertEquals(1, server.connectionCount());
+    }
+
+    @Test
+    public void conditionalRequest_changedResource_downloadsBody() throws IOException {
+        server.setValidators(null, "Tue, 25 Nov 2025 06:00:00 GMT");
+        HttpTransport.Conditional<String> first = transport.getConditional(server.baseUrl() + "/v1/forecast", null, HttpTransport::readFully);
+
+        server.setValidators(null, "Tue, 25 Nov 2025 06:15:00 GMT");
+        HttpTransport.Conditional<String> second = transport.getConditional(server.baseUrl() + "/v1/forecast", first.validators, HttpTransport::readFully);
+
+        assertFalse(second.notModified);
+        assertEquals("{\"latitude\":14.6,\"longitude\":121.0}", second.value);
+        assertEquals("Tue, 25 Nov 2025 06:15:00 GMT", second.validators.lastModified);
+        assertEquals(0, server.notModifiedCount());
+    }
+}
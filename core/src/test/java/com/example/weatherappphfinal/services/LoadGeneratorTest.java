@@ -0,0 +1,95 @@
+package com.example.weatherappphfinal.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs short loads against the stub server: the whole fetch pipeline at several users, and the
+ * bare transport under injected errors, a request rate limit and a bandwidth limit.
+ */
+public class LoadGeneratorTest {
+
+    private static final long LATENCY_MS = 20;
+    private static final long JITTER_MS = 10;
+
+    private StubHttpServer server;
+    private HttpTransport transport;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubHttpServer();
+        server.respondWithRecordedApis();
+        server.setSeed(1);
+        ApiEndpoints.setAll(server.baseUrl());
+        WeatherService.setCache(new ForecastCache(null, 16, 0, ForecastCache.DEFAULT_TTL_MS));
+        transport = new HttpTransport(2_000, 5_000);
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        ApiEndpoints.reset();
+        WeatherService.resetCache();
+    }
+
+    @Test
+    public void pipeline_underConcurrentUsers_reportsLatencyAndThroughput() throws InterruptedException {
+        server.setLatencyMs(LATENCY_MS);
+        server.setJitterMs(JITTER_MS);
+
+        // Every request is for new coordinates, so none is answered from the cache
+        LoadGenerator.Report report = new LoadGenerator(8, 300, 1_000).run("pipeline", (user, iteration) ->
+                WeatherPipeline.getDefault().loadWeather(5 + user, 115 + iteration * 0.01).join().weather);
+
+        assertTrue(report.requests > 0);
+        assertEquals(0, report.failures);
+        assertTrue(report.getLatencyMs(0.5) >= LATENCY_MS);
+        // Each load asks for a forecast and a place name; warmup loads reach the server too
+        assertTrue(server.requestCount() >= 2 * report.requests);
+    }
+
+    @Test
+    public void errorRate_showsUpAsFailedRequests() throws InterruptedException {
+        server.setErrorRate(0.25, 503);
+
+        // No warmup, so every request the server sees is measured
+        LoadGenerator.Report report = new LoadGenerator(2, 0, 500).run("errors", (user, iteration) ->
+                transport.get(server.baseUrl() + "/v1/forecast?latitude=14.6", HttpTransport::readFully));
+
+        assertEquals(server.requestCount(), report.requests);
+        assertEquals(server.injectedErrorCount(), report.failures);
+    }
+
+    @Test
+    public void requestRateLimit_refusesTheExcessWith429() throws InterruptedException {
+        // Fewer than the users send at once, so some are refused however slow the machine
+        server.setMaxRequestsPerSecond(2);
+
+        LoadGenerator.Report report = new LoadGenerator(4, 0, 500).run("throttled", (user, iteration) ->
+                transport.get(server.baseUrl() + "/v1/forecast?latitude=14.6", HttpTransport::readFully));
+
+        assertEquals(server.requestCount(), report.requests);
+        assertEquals(server.throttledCount(), report.failures);
+        assertTrue(server.throttledCount() > 0);
+    }
+
+    @Test
+    public void bandwidthLimit_stretchesEveryResponse() throws Exception {
+        String body = StubHttpServer.fixture("forecast_hourly_16d.json");
+        server.respond("/v1/forecast", body);
+        server.setBytesPerSecond(64 * 1024);
+        long expectedMs = body.length() * 1000L / (64 * 1024);
+
+        LoadGenerator.Report report = new LoadGenerator(2, 0, 1_000).run("bandwidth", (user, iteration) ->
+                transport.get(server.baseUrl() + "/v1/forecast", HttpTransport::readFully));
+
+        assertEquals(0, report.failures);
+        assertEquals(server.requestCount(), report.requests);
+        assertTrue(report.getLatencyMs(0.5) >= expectedMs * 0.8);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.weatherappphfinal.services;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies matching and ranking of the location search engine, including on a dataset the size of
+ * the full barangay list.
+ */
+public class LocationSearchEngineTest {
+
+    private final LocationSearchEngine engine = new LocationSearchEngine(
+            new String[]{"Parañaque", "Pasay", "Pasig", "Quezon City", "Cebu City", "San Fernando", "San Juan", "Santa Rosa"},
+            new int[]{689992, 440656, 803159, 2960048, 964169, 354666, 126347, 414812});
+
+    @Test
+    public void diacriticsAreIgnored() {
+        assertEquals("Parañaque", engine.search("Paranaque", 5).get(0));
+    }
+
+    @Test
+    public void typosAreTolerated() {
+        assertEquals("Parañaque", engine.search("Paranake", 5).get(0));
+        assertEquals("Quezon City", engine.search("Quezn", 5).get(0));
+    }
+
+    @Test
+    public void wordStartsMatch() {
+        List<String> results = engine.search("city", 5);
+        assertTrue(results.containsAll(Arrays.asList("Quezon City", "Cebu City")));
+    }
+
+    @Test
+    public void rankingPrefersPopulationThenRecentUse() {
+        assertEquals(Arrays.asList("Pasig", "Pasay"), engine.search("Pas", 5));
+        engine.recordSelection("Pasay");
+        assertEquals(Arrays.asList("Pasay", "Pasig"), engine.search("Pas", 5));
+    }
+
+    @Test
+    public void cancelledQueryReturnsNothing() {
+        assertTrue(engine.search("San", 5, () -> true).isEmpty());
+    }
+
+    @Test
+    public void everyKeystroke_onFullSizeDataset_returnsBoundedMatches() {
+        int size = 42_000;
+        String[] syllables = {"ba", "ca", "da", "ga", "ha", "la", "ma", "na", "pa", "sa", "ta", "bu", "lu", "ni", "an", "on", "ng", "ñ"};
+        String[] prefixes = {"", "", "San ", "Santa ", "Poblacion ", "Barangay "};
+        Random random = new Random(42);
+        String[] names = new String[size];
+        int[] populations = new int[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder name = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+            int length = 2 + random.nextInt(3);
+            for (int j = 0; j < length; j++) name.append(syllables[random.nextInt(syllables.length)]);
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            names[i] = name.toString();
+            populations[i] = random.nextInt(50_000);
+        }
+        LocationSearchEngine big = new LocationSearchEngine(names, populations);
+
+        String typed = "San Malunaga";
+        for (int i = 1; i <= typed.length(); i++) {
+            List<String> results = big.search(typed.substring(0, i), 8);
+            assertFalse(results.isEmpty());
+            assertTrue(results.size() <= 8);
+        }
+    }
+}
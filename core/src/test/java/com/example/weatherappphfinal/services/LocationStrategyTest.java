@@ -0,0 +1,148 @@
+package com.example.weatherappphfinal.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the tiered acquisition against a fake provider that records which tiers were asked.
+ */
+public class LocationStrategyTest {
+
+    @Test
+    public void recentLastKnownFix_skipsNewFixes() {
+        FakeProvider provider = new FakeProvider();
+        provider.lastKnown = new LocationProvider.Fix(14.6042, 120.9822, 40, 60_000);
+
+        LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+        assertEquals("last known", result.tier);
+        assertEquals(Arrays.asList("last known"), provider.calls);
+    }
+
+    @Test
+    public void oldLastKnownFix_fallsThroughToBalanced() {
+        FakeProvider provider = new FakeProvider();
+        provider.lastKnown = new LocationProvider.Fix(14.6042, 120.9822, 40, 6 * 60 * 60_000L);
+        provider.balanced = new LocationProvider.Fix(14.6011, 120.9849, 120, 0);
+
+        LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+        assertEquals("balanced", result.tier);
+        assertEquals(Arrays.asList("last known", "balanced"), provider.calls);
+    }
+
+    @Test
+    public void noCheapFix_usesHighAccuracyWithItsTimeout() {
+        FakeProvider provider = new FakeProvider();
+        provider.high = new LocationProvider.Fix(10.3157, 123.8854, 5, 0);
+
+        LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+        assertEquals("high", result.tier);
+        assertEquals(Arrays.asList("last known", "balanced", "high"), provider.calls);
+        assertEquals(Long.valueOf(10_000), provider.timeouts.get(1));
+    }
+
+    @Test
+    public void coarseFixes_keepTheMostAccurate() {
+        FakeProvider provider = new FakeProvider();
+        provider.balanced = new LocationProvider.Fix(14.6, 121.0, 2_000, 0);
+        provider.high = new LocationProvider.Fix(14.7, 121.1, 8_000, 0);
+        List<LocationStrategy.Tier> strict = Arrays.asList(
+                LocationStrategy.Tier.current(LocationProvider.Accuracy.BALANCED, 1_000, 500),
+                LocationStrategy.Tier.current(LocationProvider.Accuracy.HIGH, 1_000, 500));
+
+        LocationStrategy.Result result = new LocationStrategy(provider, strict, 0).acquire();
+
+        assertEquals("balanced", result.tier);
+        assertEquals(14.6, result.latitude, 0.0);
+    }
+
+    @Test
+    public void failingTier_isSkipped() {
+        FakeProvider provider = new FakeProvider();
+        provider.failLastKnown = true;
+        provider.balanced = new LocationProvider.Fix(14.6, 121.0, 100, 0);
+
+        LocationStrategy strategy = new LocationStrategy(provider);
+        assertEquals("balanced", strategy.acquire().tier);
+        assertNotNull(strategy.getLastError());
+    }
+
+    @Test
+    public void snappedResult_keepsTheMeasuredCoordinates() {
+        FakeProvider provider = new FakeProvider();
+        provider.lastKnown = new LocationProvider.Fix(14.6042, 120.9822, 40, 0);
+
+        LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+        assertEquals(14.60, result.latitude, 0.0);
+        assertEquals(121.00, result.longitude, 0.0);
+        assertEquals(14.6042, result.rawLatitude, 0.0);
+        assertEquals(120.9822, result.rawLongitude, 0.0);
+    }
+
+    @Test
+    public void noFixAtAll_returnsNull() {
+        assertNull(new LocationStrategy(new FakeProvider()).acquire());
+    }
+
+    @Test
+    public void nearbyFixes_snapToOneForecastCacheEntry() {
+        double[][] aroundManila = {{14.6042, 120.9822}, {14.5891, 120.9961}, {14.6149, 121.0105}};
+        String key = null;
+        for (double[] point : aroundManila) {
+            FakeProvider provider = new FakeProvider();
+            provider.balanced = new LocationProvider.Fix(point[0], point[1], 100, 0);
+            LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+            String pointKey = ForecastCache.keyFor(result.latitude, result.longitude);
+            if (key != null) assertEquals(key, pointKey);
+            key = pointKey;
+        }
+        assertEquals("14.60_121.00", key);
+        assertEquals(-3.45, LocationStrategy.snap(-3.4512, 0.05), 0.0);
+        assertEquals(14.6042, LocationStrategy.snap(14.6042, 0), 0.0);
+    }
+
+    @Test
+    public void timeToFix_includesSlowTiers() {
+        FakeProvider provider = new FakeProvider();
+        provider.balancedDelayMs = 50;
+        provider.balanced = new LocationProvider.Fix(14.6, 121.0, 100, 0);
+
+        LocationStrategy.Result result = new LocationStrategy(provider).acquire();
+
+        assertTrue(result.timeToFixMs >= 50);
+    }
+
+    private static class FakeProvider implements LocationProvider {
+        Fix lastKnown;
+        Fix balanced;
+        Fix high;
+        boolean failLastKnown;
+        long balancedDelayMs;
+        final List<String> calls = new ArrayList<>();
+        final List<Long> timeouts = new ArrayList<>();
+
+        @Override
+        public Fix lastKnown() throws Exception {
+            calls.add("last known");
+            if (failLastKnown) throw new IllegalStateException("Location services unavailable");
+            return lastKnown;
+        }
+
+        @Override
+        public Fix current(Accuracy accuracy, long timeoutMs) throws Exception {
+            calls.add(accuracy == Accuracy.HIGH ? "high" : "balanced");
+            timeouts.add(timeoutMs);
+            if (accuracy == Accuracy.BALANCED && balancedDelayMs > 0) Thread.sleep(balancedDelayMs);
+            return accuracy == Accuracy.HIGH ? high : balanced;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.listeners.WeatherListener;
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs multi-city loads against a local stub server with simulated network latency.
+ */
+public class MultiCityFetcherTest {
+
+    private static final long LATENCY_MS = 80;
+
+    private StubHttpServer server;
+    private ExecutorService pool;
+    private final AtomicInteger forecastRequests = new AtomicInteger();
+    private final AtomicInteger forecastLocations = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        String forecast = StubHttpServer.fixture("forecast_manila.json");
+        server = new StubHttpServer();
+        server.setLatencyMs(LATENCY_MS);
+
+        // Every city geocodes to its own coordinates so nothing is shared through the cache
+        server.respond("/v1/search", query -> {
+            String name = parameter(query, "name");
+            double offset = Integer.parseInt(name.replaceAll("\\D", "")) * 0.01;
+            return "{\"results\":[{\"name\":\"" + name + "\",\"latitude\":" + (10 + offset) +
+                    ",\"longitude\":" + (120 + offset) + ",\"country_code\":\"PH\",\"admin1\":\"Test\"}]}";
+        });
+        // One forecast per requested coordinate, as a top-level array when several were asked for
+        server.respond("/v1/forecast", query -> {
+            int count = parameter(query, "latitude").split(",").length;
+            forecastRequests.incrementAndGet();
+            forecastLocations.addAndGet(count);
+            if (count == 1) return forecast;
+            return "[" + String.join(",", Collections.nCopies(count, forecast)) + "]";
+        });
+
+        ApiEndpoints.setAll(server.baseUrl());
+        WeatherService.setCache(new ForecastCache(null, 256, 0, ForecastCache.DEFAULT_TTL_MS));
+        pool = Executors.newFixedThreadPool(MultiCityFetcher.DEFAULT_POOL_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+        server.close();
+        ApiEndpoints.reset();
+        WeatherService.resetCache();
+    }
+
+    @Test
+    public void everyCity_isReportedOnce() throws InterruptedException {
+        Results results = load(cities(0, 12));
+
+        assertEquals(12, results.loaded.size());
+        assertTrue(results.errors.isEmpty());
+        assertEquals(2, forecastRequests.get());
+        assertEquals(12, forecastLocations.get());
+    }
+
+    @Test
+    public void freshCities_areServedFromTheCache() throws InterruptedException {
+        load(cities(0, 3));
+        forecastRequests.set(0);
+
+        Results results = load(cities(0, 3));
+        assertEquals(3, results.loaded.size());
+        assertEquals(0, forecastRequests.get());
+    }
+
+    @Test
+    public void twentyCities_shareBatchedForecastRequests() throws InterruptedException {
+        Results twenty = load(cities(300, 20));
+
+        assertEquals(20, twenty.loaded.size());
+        assertEquals(20, forecastLocations.get());
+        assertEquals(20 / WeatherService.MAX_BATCH_SIZE, forecastRequests.get());
+        // Geocoding and batches overlap on the pool instead of taking one connection per city
+        assertTrue(server.connectionCount() <= MultiCityFetcher.DEFAULT_POOL_SIZE);
+    }
+
+    @Test
+    public void prefetch_fetchesOnlyMissingOrStaleForecasts() throws InterruptedException {
+        load(cities(0, 3));
+        forecastRequests.set(0);
+        forecastLocations.set(0);
+
+        int cached = new MultiCityFetcher(pool, command -> fail("Prefetch reported a result"), WeatherService.MAX_BATCH_SIZE)
+                .prefetch(cities(0, 5));
+        assertEquals(5, cached);
+        assertEquals(1, forecastRequests.get());
+        assertEquals(2, forecastLocations.get());
+    }
+
+    private Results load(List<String> names) throws InterruptedException {
+        Results results = new Results();
+        new MultiCityFetcher(pool, Runnable::run, WeatherService.MAX_BATCH_SIZE).fetch(names, results);
+        return results;
+    }
+
+    private static List<String> cities(int first, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = first; i < first + count; i++) names.add("Testcity" + i);
+        return names;
+    }
+
+    private static String parameter(String query, String name) {
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1).replace("%2C", ",");
+        }
+        return "";
+    }
+
+    // Collects listener callbacks from the pool threads
+    private static class Results implements WeatherListener {
+        final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onWeatherLoaded(WeatherModel weather, String cityName) { loaded.add(cityName); }
+
+        @Override
+        public void onWeatherError(String message) { errors.add(message); }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+import com.example.weatherappphfinal.models.WeatherModel;
+import com.example.weatherappphfinal.utils.ForecastDates;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the per-city snapshots used to render the main screen on a cold start.
+ */
+public class SnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void snapshot_survivesNewInstance() throws IOException {
+        File dir = folder.newFolder("snapshots");
+        WeatherModel weather = ForecastResponseParser.parse(
+                new StringReader(StubHttpServer.fixture("forecast_hourly_16d.json")), -1);
+        new SnapshotStore(dir, 4).save("Las Piñas", weather, 1_700_000_000_000L);
+
+        // Simulate process death: a new store over the same directory, looked up by a differently typed name
+        SnapshotStore.Snapshot snapshot = new SnapshotStore(dir, 4).load("las pinas");
+
+        assertNotNull(snapshot);
+        assertEquals("Las Piñas", snapshot.cityName);
+        assertEquals(1_700_000_000_000L, snapshot.fetchedAt);
+        assertEquals(weather.getTemperature(), snapshot.weather.getTemperature(), 0.0);
+        assertEquals(weather.getHourlySeries().size(), snapshot.weather.getHourlySeries().size());
+        int temperature = weather.getHourlySeries().indexOf(ForecastSeries.TEMPERATURE);
+        assertEquals(weather.getHourlySeries().getFloat(temperature, 100),
+                snapshot.weather.getHourlySeries().getFloat(temperature, 100), 0.0f);
+    }
+
+    @Test
+    public void unknownCity_hasNoSnapshot() throws IOException {
+        assertNull(new SnapshotStore(folder.newFolder("snapshots"), 4).load("Manila"));
+    }
+
+    @Test
+    public void corruptSnapshot_isDropped() throws IOException {
+        File dir = folder.newFolder("snapshots");
+        SnapshotStore store = new SnapshotStore(dir, 4);
+        store.save("Manila", sampleWeather(), System.currentTimeMillis());
+        File[] files = dir.listFiles();
+        assertEquals(1, files.length);
+        try (FileOutputStream out = new FileOutputStream(files[0])) {
+            out.write(new byte[]{0x53, 0x4e, 0x50, 0x31, 0, 99}); // Right magic, unknown version
+        }
+
+        assertNull(store.load("Manila"));
+        assertFalse(files[0].exists());
+    }
+
+    @Test
+    public void oldestSnapshots_areTrimmed() throws IOException {
+        File dir = folder.newFolder("snapshots");
+        SnapshotStore store = new SnapshotStore(dir, 2);
+        String[] cities = {"Manila", "Cebu City", "Davao City"};
+        for (int i = 0; i < cities.length; i++) {
+            store.save(cities[i], sampleWeather(), System.currentTimeMillis());
+            new File(dir, "snapshot_" + cities[i].toLowerCase().replace(' ', '_') + ".bin").setLastModified(1_000_000L * (i + 1));
+        }
+        store.save("Davao City", sampleWeather(), System.currentTimeMillis());
+
+        assertNull(store.load("Manila"));
+        assertNotNull(store.load("Cebu City"));
+        assertNotNull(store.load("Davao City"));
+    }
+
+    @Test
+    public void ageMarker_isReadable() {
+        assertEquals("just now", ForecastDates.formatAge(20_000));
+        assertEquals("12 min ago", ForecastDates.formatAge(12 * 60_000));
+        assertEquals("3 h ago", ForecastDates.formatAge(3 * 3_600_000 + 59 * 60_000));
+        assertEquals("2 d ago", ForecastDates.formatAge(50L * 3_600_000));
+    }
+
+    private static WeatherModel sampleWeather() throws IOException {
+        return ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_manila.json")), -1);
+    }
+}
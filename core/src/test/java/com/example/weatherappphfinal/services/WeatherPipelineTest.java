@@ -0,0 +1,204 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.models.LocationModel;
+import com.example.weatherappphfinal.models.WeatherModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the forecast and reverse-geocode stages overlap, using a stub server with injected latency,
+ * and that a pipeline runs on sources other than the network services.
+ */
+public class WeatherPipelineTest {
+
+    private static final long FORECAST_LATENCY_MS = 300;
+    private static final long REVERSE_LATENCY_MS = 250;
+
+    private StubHttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StubHttpServer();
+        server.respondWithFixture("/v1/forecast", "forecast_manila.json");
+        server.respondWithFixture("/data/reverse-geocode-client", "reverse_manila.json");
+        server.setLatencyMs("/v1/forecast", FORECAST_LATENCY_MS);
+        server.setLatencyMs("/data/reverse-geocode-client", REVERSE_LATENCY_MS);
+        ApiEndpoints.setAll(server.baseUrl());
+        WeatherService.setCache(new ForecastCache(null, 16, 0, ForecastCache.DEFAULT_TTL_MS));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        ApiEndpoints.reset();
+        WeatherService.resetCache();
+    }
+
+    @Test
+    public void refresh_runsBothStagesAtOnce() throws IOException {
+        // Each request is held until the other has arrived, so scheduling delays cannot separate them
+        CountDownLatch bothArrived = new CountDownLatch(2);
+        holdUntil(bothArrived, "/v1/forecast", StubHttpServer.fixture("forecast_manila.json"));
+        holdUntil(bothArrived, "/data/reverse-geocode-client", StubHttpServer.fixture("reverse_manila.json"));
+
+        WeatherPipeline.LocatedWeather result = WeatherPipeline.getDefault().loadWeather(14.6042, 120.9822).join();
+
+        assertNotNull(result.weather);
+        assertEquals("Manila", result.locationName);
+        // The server was handling both requests at the same time, not one after the other
+        List<StubHttpServer.Timing> forecasts = server.timings("/v1/forecast");
+        List<StubHttpServer.Timing> names = server.timings("/data/reverse-geocode-client");
+        assertEquals(1, forecasts.size());
+        assertEquals(1, names.size());
+        assertTrue(forecasts.get(0).overlaps(names.get(0)));
+    }
+
+    // Answers the path once the latch is released, or after a second if it never is
+    private void holdUntil(CountDownLatch latch, String path, String body) {
+        server.respond(path, query -> {
+            latch.countDown();
+            try {
+                latch.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return body;
+        });
+    }
+
+    @Test
+    public void slowReverseGeocode_fallsBackAtItsTimeout() {
+        server.setLatencyMs("/data/reverse-geocode-client", 5_000);
+
+        long start = System.nanoTime();
+        String name = WeatherPipeline.getDefault().locationName(14.6042, 120.9822, 200).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(WeatherPipeline.FALLBACK_LOCATION_NAME, name);
+        assertTrue(elapsedMs < 1_000);
+    }
+
+    @Test
+    public void failedReverseGeocode_fallsBack() {
+        server.respond("/data/reverse-geocode-client", (String) null);
+
+        assertEquals(WeatherPipeline.FALLBACK_LOCATION_NAME, WeatherPipeline.getDefault().locationName(14.6042, 120.9822).join());
+    }
+
+    @Test
+    public void cancellingTheCaller_abortsItsStages() throws Exception {
+        server.setLatencyMs("/v1/forecast", 5_000);
+        Cancellation cancellation = new Cancellation();
+
+        CompletableFuture<?> forecast;
+        try (Cancellation.Scope ignored = cancellation.enter()) {
+            forecast = WeatherPipeline.getDefault().fetchWeather(14.6042, 120.9822);
+        }
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        cancellation.cancel();
+
+        assertNull(forecast.get());
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+
+    @Test
+    public void pipeline_runsOnInMemorySources() throws IOException {
+        WeatherModel weather = ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_manila.json")), -1);
+        InMemorySource source = new InMemorySource(weather, "Tagaytay");
+        WeatherPipeline pipeline = new WeatherPipeline(source, source);
+
+        WeatherPipeline.LocatedWeather result = pipeline.loadWeather(14.1, 120.9).join();
+
+        assertSame(weather, result.weather);
+        assertEquals("Tagaytay", result.locationName);
+        assertEquals(0, server.requestCount());
+    }
+
+    @Test
+    public void cachedForecast_isNotHeldUpBySlowReverseGeocode() throws Exception {
+        WeatherModel weather = ForecastResponseParser.parse(new StringReader(StubHttpServer.fixture("forecast_manila.json")), -1);
+        CountDownLatch nameReleased = new CountDownLatch(1);
+        InMemorySource source = new InMemorySource(weather, "Tagaytay") {
+            @Override
+            public ForecastCache.Entry getCachedWeather(double latitude, double longitude) {
+                return new ForecastCache.Entry(weather, System.currentTimeMillis(), ForecastCache.DEFAULT_TTL_MS, null);
+            }
+
+            @Override
+            public String getLocationNameFromCoordinates(double latitude, double longitude) {
+                try {
+                    nameReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getLocationNameFromCoordinates(latitude, longitude);
+            }
+        };
+        WeatherPipeline pipeline = new WeatherPipeline(source, source);
+        BlockingQueue<String> shown = new LinkedBlockingQueue<>();
+        AtomicReference<String> settled = new AtomicReference<>();
+
+        Thread load = new Thread(() -> pipeline.revalidate(14.1, 120.9, pipeline.locationName(14.1, 120.9),
+                new WeatherPipeline.RevalidationListener() {
+                    @Override public void onWeather(WeatherModel w, String name) { shown.add(name); }
+                    @Override public void onSettled(WeatherModel w, String name, long fetchedAt) { settled.set(name); }
+                    @Override public void onError(ApiException error) { fail("Cached forecast should be shown"); }
+                }));
+        load.start();
+
+        // Shown while the name lookup is still blocked
+        assertEquals(WeatherPipeline.FALLBACK_LOCATION_NAME, shown.poll(1, TimeUnit.SECONDS));
+        nameReleased.countDown();
+        assertEquals("Tagaytay", shown.poll(1, TimeUnit.SECONDS));
+        load.join(1_000);
+        assertEquals("Tagaytay", settled.get());
+        assertEquals(0, server.requestCount());
+    }
+
+    // Serves one forecast and one place name for every location
+    private static class InMemorySource implements ForecastSource, PlaceResolver {
+        private final WeatherModel weather;
+        private final String name;
+
+        InMemorySource(WeatherModel weather, String name) {
+            this.weather = weather;
+            this.name = name;
+        }
+
+        @Override public WeatherModel getWeather(double latitude, double longitude) { return weather; }
+        @Override public WeatherModel fetchWeather(double latitude, double longitude) { return weather; }
+
+        @Override
+        public WeatherModel[] fetchWeather(double[] latitudes, double[] longitudes) {
+            WeatherModel[] results = new WeatherModel[latitudes.length];
+            Arrays.fill(results, weather);
+            return results;
+        }
+
+        @Override public ForecastCache.Entry getCachedWeather(double latitude, double longitude) { return null; }
+        @Override public ApiException getLastError(double latitude, double longitude) { return null; }
+
+        @Override
+        public LocationModel getPhilippineLocation(String locationName) {
+            return new LocationModel(name, 14.1, 120.9, "PH");
+        }
+
+        @Override public String getLocationNameFromCoordinates(double latitude, double longitude) { return name; }
+    }
+}
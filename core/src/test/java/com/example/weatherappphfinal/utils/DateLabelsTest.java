@@ -0,0 +1,97 @@
+package com.example.weatherappphfinal.utils;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the cached labels against SimpleDateFormat, and that looking them up allocates nothing.
+ */
+public class DateLabelsTest {
+
+    private static final long FIRST_DAY = ForecastDates.epochDay(2024, 1, 1);
+    private static final long LAST_DAY = ForecastDates.epochDay(2026, 12, 31);
+
+    @Test
+    public void labels_matchSimpleDateFormat() {
+        for (Locale locale : new Locale[]{Locale.US, new Locale("fil", "PH"), Locale.GERMANY}) {
+            DateLabels labels = DateLabels.forLocale(locale);
+            SimpleDateFormat dayName = utc("EEE", locale);
+            SimpleDateFormat monthDay = utc("MM/dd", locale);
+            SimpleDateFormat header = utc("EEEE, MMM dd, yyyy", locale);
+            for (long day = FIRST_DAY; day <= LAST_DAY; day++) {
+                Date midnight = new Date(day * ForecastDates.SECONDS_PER_DAY * 1000L);
+                assertEquals(dayName.format(midnight), labels.dayName(day));
+                assertEquals(monthDay.format(midnight), labels.monthDay(day));
+                assertEquals(header.format(midnight), labels.headerDate(day));
+            }
+        }
+        assertEquals("Tuesday, Nov 25, 2025", DateLabels.forLocale(Locale.US).headerDate(ForecastDates.epochDay(2025, 11, 25)));
+        assertSame(DateLabels.forLocale(Locale.US), DateLabels.forLocale(Locale.US));
+    }
+
+    @Test
+    public void labels_areSafeToShareBetweenThreads() throws Exception {
+        DateLabels labels = DateLabels.forLocale(Locale.US);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int t = 0; t < results.length; t++) {
+                results[t] = pool.submit(() -> {
+                    SimpleDateFormat header = utc("EEEE, MMM dd, yyyy", Locale.US);
+                    for (long day = FIRST_DAY; day <= LAST_DAY; day++) {
+                        assertEquals(header.format(new Date(day * ForecastDates.SECONDS_PER_DAY * 1000L)), labels.headerDate(day));
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> result : results) result.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void labellingAWeek_doesNotAllocate() {
+        DateLabels labels = DateLabels.forLocale(Locale.US);
+        long[] epochDays = new long[7];
+        for (int i = 0; i < 7; i++) {
+            epochDays[i] = ForecastDates.epochDay(2025, 11, 25 + i);
+        }
+        int renders = 2_000;
+
+        // Warm up so class loading and JIT do not count
+        int checksum = labelAll(labels, epochDays, renders);
+
+        long start = AllocationCounter.start();
+        checksum += labelAll(labels, epochDays, renders);
+        long allocated = AllocationCounter.since(start);
+
+        assertTrue(checksum > 0);
+        assertTrue("Allocated " + allocated + " B", allocated < 256);
+    }
+
+    private static int labelAll(DateLabels labels, long[] epochDays, int renders) {
+        int checksum = 0;
+        for (int r = 0; r < renders; r++) {
+            for (long day : epochDays) {
+                checksum += labels.dayName(day).length() + labels.monthDay(day).length();
+            }
+        }
+        return checksum;
+    }
+
+    private static SimpleDateFormat utc(String pattern, Locale locale) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+}
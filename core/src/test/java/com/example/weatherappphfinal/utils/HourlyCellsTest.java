@@ -0,0 +1,124 @@
+package com.example.weatherappphfinal.utils;
+
+import com.example.weatherappphfinal.models.ForecastSeries;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the hourly timeline's labels and change masks, and that rebinding a week of hours allocates nothing.
+ */
+public class HourlyCellsTest {
+
+    private static final int HOURS = 168;
+    private static final int MANILA_OFFSET = 8 * 3600;
+
+    @Test
+    public void labels_areFormattedAndShared() {
+        assertEquals("12 AM", HourlyCells.hourLabel(-MANILA_OFFSET, MANILA_OFFSET));
+        assertEquals("3 PM", HourlyCells.hourLabel(15 * 3600 - MANILA_OFFSET, MANILA_OFFSET));
+        assertEquals("28°", HourlyCells.temperatureLabel(27.6f));
+        assertEquals("-3°", HourlyCells.temperatureLabel(-2.6f));
+        assertEquals("75°", HourlyCells.temperatureLabel(75f));
+        assertEquals("100%", HourlyCells.percentLabel(104f));
+        assertEquals("12 km/h", HourlyCells.windLabel(11.8f));
+        assertEquals(HourlyCells.MISSING_LABEL, HourlyCells.percentLabel(Float.NaN));
+        assertSame(HourlyCells.temperatureLabel(27.6f), HourlyCells.temperatureLabel(28.2f));
+    }
+
+    @Test
+    public void changedCells_ignoresChangesBelowDisplayPrecision() {
+        ForecastSeries before = week(0, 0f);
+        ForecastSeries same = week(0, 0.2f);
+        ForecastSeries warmer = week(0, 1f);
+        HourlyCells.Columns columns = new HourlyCells.Columns(before);
+
+        assertEquals(0, HourlyCells.changedCells(before, columns, 5, same, columns, 5));
+        assertEquals(HourlyCells.CELL_TEMPERATURE, HourlyCells.changedCells(before, columns, 5, warmer, columns, 5));
+        assertEquals(HourlyCells.CELL_TIME, HourlyCells.changedCells(before, columns, 0, before, columns, 24) & HourlyCells.CELL_TIME);
+    }
+
+    @Test
+    public void changedCells_comparesValuesOutsideTheLabelTables() {
+        // Above the cached temperature labels, so every label is a new string
+        ForecastSeries before = week(0, 50f);
+        ForecastSeries after = week(0, 50.05f);
+        HourlyCells.Columns columns = new HourlyCells.Columns(before);
+
+        for (int row = 0; row < HOURS; row++) {
+            assertEquals(0, HourlyCells.changedCells(before, columns, row, after, columns, row));
+        }
+    }
+
+    @Test
+    public void changedCells_handlesSeriesWithoutSomeVariables() {
+        ForecastSeries full = week(0, 0f);
+        ForecastSeries bare = new ForecastSeries.Builder(times(0), MANILA_OFFSET)
+                .add(ForecastSeries.TEMPERATURE, temperatures(0f))
+                .build();
+
+        int mask = HourlyCells.changedCells(full, new HourlyCells.Columns(full), 3, bare, new HourlyCells.Columns(bare), 3);
+        assertEquals(HourlyCells.CELL_ICON | HourlyCells.CELL_PRECIPITATION | HourlyCells.CELL_WIND, mask);
+    }
+
+    @Test
+    public void rebindingAWeek_doesNotAllocate() {
+        ForecastSeries before = week(0, 0f);
+        ForecastSeries after = week(0, 1f);
+        HourlyCells.Columns columns = new HourlyCells.Columns(before);
+
+        // Warm up so class loading and JIT do not count
+        for (int i = 0; i < 50; i++) bindAll(before, columns, after, columns);
+
+        long start = AllocationCounter.start();
+        int checksum = bindAll(before, columns, after, columns);
+        long allocated = AllocationCounter.since(start);
+
+        assertTrue(checksum > 0);
+        // The counter itself can cost a few bytes; per-hour strings would be kilobytes
+        assertTrue("Allocated " + allocated + " B", allocated < 256);
+    }
+
+    // What the adapter does per update: diff every row, then look up every label of the changed rows
+    private static int bindAll(ForecastSeries before, HourlyCells.Columns beforeColumns, ForecastSeries after, HourlyCells.Columns afterColumns) {
+        int checksum = 0;
+        for (int row = 0; row < after.size(); row++) {
+            checksum += HourlyCells.changedCells(before, beforeColumns, row, after, afterColumns, row);
+            checksum += HourlyCells.hourLabel(after.getTime(row), after.getUtcOffsetSeconds()).length();
+            checksum += HourlyCells.temperatureLabel(after.getFloat(afterColumns.temperature, row)).length();
+            checksum += HourlyCells.percentLabel(after.getFloat(afterColumns.precipitation, row)).length();
+            checksum += HourlyCells.windLabel(after.getFloat(afterColumns.wind, row)).length();
+        }
+        return checksum;
+    }
+
+    private static ForecastSeries week(long start, float warming) {
+        double[] codes = new double[HOURS];
+        double[] precipitation = new double[HOURS];
+        double[] wind = new double[HOURS];
+        for (int i = 0; i < HOURS; i++) {
+            codes[i] = i % 3 == 0 ? 61 : 2;
+            precipitation[i] = i >= 120 ? Double.NaN : (i * 7) % 100;
+            wind[i] = 5 + (i % 20) * 0.7;
+        }
+        return new ForecastSeries.Builder(times(start), MANILA_OFFSET)
+                .add(ForecastSeries.WEATHER_CODE, codes)
+                .add(ForecastSeries.TEMPERATURE, temperatures(warming))
+                .add(ForecastSeries.PRECIPITATION_PROBABILITY, precipitation)
+                .add(ForecastSeries.WIND_SPEED, wind)
+                .build();
+    }
+
+    private static long[] times(long start) {
+        long[] times = new long[HOURS];
+        for (int i = 0; i < HOURS; i++) times[i] = start + i * 3600L;
+        return times;
+    }
+
+    private static double[] temperatures(float warming) {
+        double[] temperatures = new double[HOURS];
+        for (int i = 0; i < HOURS; i++) temperatures[i] = 25 + (i % 24) * 0.25 + warming;
+        return temperatures;
+    }
+}
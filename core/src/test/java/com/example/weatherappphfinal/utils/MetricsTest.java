@@ -0,0 +1,124 @@
+package com.example.weatherappphfinal.utils;
+
+import com.example.weatherappphfinal.services.ApiException;
+import com.example.weatherappphfinal.services.CircuitBreaker;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @After
+    public void tearDown() {
+        Metrics.reset();
+        CircuitBreaker.resetAll();
+    }
+
+    @Test
+    public void buckets_coverTheRangeWithinSixPercent() {
+        for (long value = 0; value < Histogram.MAX_VALUE; value = value * 3 / 2 + 1) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.lowestEquivalentValue(bucket) <= value);
+            assertTrue(Histogram.highestEquivalentValue(bucket) >= value);
+            long width = Histogram.highestEquivalentValue(bucket) - Histogram.lowestEquivalentValue(bucket) + 1;
+            assertTrue("Bucket of " + value + " is " + width + " wide", width == 1 || width <= value / 15.0 + 1);
+        }
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(Histogram.MAX_VALUE));
+    }
+
+    @Test
+    public void quantiles_matchTheRecordedDistribution() {
+        Histogram histogram = Metrics.histogram("test.quantiles");
+        for (int ms = 1; ms <= 100; ms++) histogram.record(ms * 1_000_000L);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMaxNanos());
+        assertEquals(50_500_000, histogram.getMeanNanos());
+        assertEquals(50e6, histogram.getValueAtQuantile(0.5), 50e6 * 0.07);
+        assertEquals(99e6, histogram.getValueAtQuantile(0.99), 99e6 * 0.07);
+        assertEquals(100_000_000, histogram.getValueAtQuantile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtQuantile(0.5));
+    }
+
+    @Test
+    public void recording_doesNotAllocate() {
+        Histogram histogram = Metrics.histogram("test.allocation");
+        LongAdder counter = Metrics.counter("test.allocation");
+
+        // Warm up so the recording path is compiled
+        recordAll(histogram, counter, 1_000_000);
+        long startBytes = AllocationCounter.start();
+        recordAll(histogram, counter, 100_000);
+        long allocated = AllocationCounter.since(startBytes);
+
+        assertTrue("Allocated " + allocated + " B", allocated < 256);
+        assertEquals(1_100_000, counter.sum());
+    }
+
+    private static void recordAll(Histogram histogram, LongAdder counter, int spans) {
+        for (int i = 0; i < spans; i++) {
+            long start = Metrics.start();
+            counter.increment();
+            histogram.recordSince(start);
+        }
+    }
+
+    @Test
+    public void recentSpans_keepTheNewestInOrder() {
+        Histogram histogram = Metrics.histogram("test.spans");
+        // Each span a millisecond longer than the one before, far beyond any timer jitter
+        for (int i = 0; i < Metrics.RECENT_SPANS + 10; i++) {
+            histogram.recordSince(System.nanoTime() - i * 1_000_000L);
+        }
+
+        List<Metrics.Span> spans = Metrics.getRecentSpans();
+        assertEquals(Metrics.RECENT_SPANS, spans.size());
+        assertEquals("test.spans", spans.get(0).name);
+        assertEquals(Thread.currentThread().getName(), spans.get(0).thread);
+        assertTrue(spans.get(0).durationNanos < spans.get(spans.size() - 1).durationNanos);
+    }
+
+    @Test
+    public void snapshot_andExport_listEveryMetric() {
+        Metrics.counter("test.requests").add(3);
+        Metrics.histogram("test.latency").record(2_500_000);
+
+        String snapshot = Metrics.snapshot();
+        assertTrue(snapshot, snapshot.contains("test.requests  3"));
+        assertTrue(snapshot, snapshot.contains("test.latency  1  p50 2.5 ms"));
+
+        JSONObject json = new JSONObject(Metrics.toJson());
+        assertEquals(3, json.getJSONObject("counters").getLong("test.requests"));
+        JSONObject latency = json.getJSONObject("histograms").getJSONObject("test.latency");
+        assertEquals(1, latency.getLong("count"));
+        assertEquals(2_500_000, latency.getLong("max"));
+    }
+
+    @Test
+    public void export_includesTheCircuitBreakers() throws IOException {
+        CircuitBreaker breaker = CircuitBreaker.forHost("test.example:80");
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            try {
+                breaker.call(() -> { throw new ApiException(ApiException.Kind.SERVER, 503, -1, "HTTP 503", null); });
+            } catch (ApiException expected) {
+                // Counted by the breaker
+            }
+        }
+
+        JSONObject state = new JSONObject(Metrics.toJson()).getJSONObject("breakers").getJSONObject("test.example:80");
+        assertEquals("OPEN", state.getString("state"));
+        assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, state.getInt("consecutiveFailures"));
+        assertEquals(1, state.getLong("timesOpened"));
+        assertEquals(0, state.getLong("rejected"));
+    }
+}
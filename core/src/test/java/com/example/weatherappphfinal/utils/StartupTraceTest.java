@@ -0,0 +1,45 @@
+package com.example.weatherappphfinal.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the startup phase trace.
+ */
+public class StartupTraceTest {
+
+    @Test
+    public void phases_areRecordedWithOffsetAndDuration() throws InterruptedException {
+        StartupTrace trace = new StartupTrace(System.nanoTime());
+        try (StartupTrace.Span ignored = trace.begin("prefs")) {
+            Thread.sleep(20);
+        }
+        trace.mark("splash-released:cache-fresh");
+
+        StartupTrace.Phase prefs = trace.find("prefs");
+        assertNotNull(prefs);
+        assertTrue(prefs.durationNanos >= 20_000_000L);
+        assertEquals(0, trace.find("splash-released:cache-fresh").durationNanos);
+        assertTrue(trace.find("splash-released:cache-fresh").startNanos >= prefs.endNanos());
+        assertNull(trace.find("forecast-prefetch"));
+    }
+
+    @Test
+    public void phasesFromSeveralThreads_areAllKept() throws InterruptedException {
+        StartupTrace trace = new StartupTrace(System.nanoTime());
+        Thread worker = new Thread(() -> trace.begin("geocode-index").close(), "startup");
+        worker.start();
+        trace.begin("splash-create").close();
+        worker.join();
+
+        List<StartupTrace.Phase> phases = trace.getPhases();
+        assertEquals(2, phases.size());
+        assertEquals("startup", trace.find("geocode-index").thread);
+        String summary = trace.summary();
+        assertTrue(summary.contains("geocode-index"));
+        assertTrue(summary.contains("[startup]"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.weatherappphfinal.utils;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the resource-backed condition table and that looking a condition up allocates nothing.
+ */
+public class WeatherCodeConverterTest {
+
+    // Every code open-meteo documents
+    private static final int[] WMO_CODES = {0, 1, 2, 3, 45, 48, 51, 53, 55, 56, 57, 61, 63, 65, 66, 67,
+            71, 73, 75, 77, 80, 81, 82, 85, 86, 95, 96, 99};
+
+    @Test
+    public void convert_returnsSharedEnglishConditions() {
+        WeatherCodeConverter.WeatherCondition clear = WeatherCodeConverter.convert(0);
+        assertEquals("Clear sky", clear.condition);
+        assertEquals("Clear and sunny", clear.description);
+        assertEquals("☀️", clear.emoji);
+        assertSame(clear, WeatherCodeConverter.convert(0));
+        assertEquals("Partly cloudy", WeatherCodeConverter.convert(2).condition);
+
+        for (int code : WMO_CODES) {
+            assertNotEquals("Code " + code, "Unknown", WeatherCodeConverter.convert(code).condition);
+        }
+        assertEquals("Unknown", WeatherCodeConverter.convert(4).condition);
+        assertEquals("Unknown", WeatherCodeConverter.convert(-1).condition);
+        assertSame(WeatherCodeConverter.convert(4), WeatherCodeConverter.convert(1000));
+    }
+
+    @Test
+    public void lookup_hasNightAndIntensityVariants() {
+        WeatherCodeConverter english = WeatherCodeConverter.forLocale(Locale.US);
+
+        assertEquals("🌙", english.lookup(0, false).emoji);
+        assertEquals("Clear night", english.lookup(0, false).description);
+        assertSame(english.lookup(45, true), english.lookup(45, false));
+        assertEquals(WeatherCodeConverter.Intensity.LIGHT, english.lookup(51, true).intensity);
+        assertEquals(WeatherCodeConverter.Intensity.HEAVY, english.lookup(55, true).intensity);
+        // Cloud cover is not precipitation
+        assertEquals(WeatherCodeConverter.Intensity.NONE, english.lookup(3, true).intensity);
+        assertEquals(55, english.lookup(55, true).code);
+    }
+
+    @Test
+    public void forLocale_overlaysTranslatedText() {
+        WeatherCodeConverter filipino = WeatherCodeConverter.forLocale(new Locale("fil", "PH"));
+
+        WeatherCodeConverter.WeatherCondition rain = filipino.lookup(61, true);
+        assertEquals("Ulan", rain.condition);
+        assertEquals("Mahinang ulan", rain.description);
+        assertEquals(WeatherCodeConverter.convert(61).emoji, rain.emoji);
+        assertEquals("Maaliwalas na gabi", filipino.lookup(0, false).description);
+        assertSame(filipino, WeatherCodeConverter.forLocale(new Locale("tl")));
+
+        // Languages without a table read English
+        assertSame(WeatherCodeConverter.convert(3), WeatherCodeConverter.forLocale(Locale.GERMAN).lookup(3, true));
+    }
+
+    @Test
+    public void lookup_doesNotAllocate() {
+        WeatherCodeConverter english = WeatherCodeConverter.forLocale(Locale.US);
+        int lookups = 1_000_000;
+
+        // Warm up so class loading and JIT do not count
+        int checksum = lookupAll(english, lookups);
+
+        long start = AllocationCounter.start();
+        checksum += lookupAll(english, lookups);
+        long allocated = AllocationCounter.since(start);
+
+        assertTrue(checksum > 0);
+        // The counter itself can cost a few bytes; one condition per lookup would be tens of megabytes
+        assertTrue("Allocated " + allocated + " B", allocated < 256);
+    }
+
+    private static int lookupAll(WeatherCodeConverter converter, int lookups) {
+        int checksum = 0;
+        for (int i = 0; i < lookups; i++) {
+            checksum += converter.lookup(WMO_CODES[i % WMO_CODES.length], (i & 1) == 0).emoji.length();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.weatherappphfinal.services;
+
+import com.example.weatherappphfinal.utils.Histogram;
+import com.example.weatherappphfinal.utils.Metrics;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a request from a number of concurrent users for a fixed time and reports latency
+ * percentiles and throughput, e.g. against a {@link StubHttpServer} to compare transport, cache
+ * or concurrency changes offline. Each user is a thread that sends its next request as soon as
+ * the previous one completes, so throughput is at most users divided by latency.
+ * Requests during the warmup are sent but not measured.
+ */
+public class LoadGenerator {
+
+    /**
+     * One request of one user.
+     */
+    public interface Request {
+        /**
+         * @param user      The user sending the request, from 0.
+         * @param iteration How many requests this user sent before, from 0.
+         * @return The result; null or an exception counts as a failed request.
+         */
+        Object run(int user, int iteration) throws Exception;
+    }
+
+    private final int users;
+    private final long warmupMs;
+    private final long durationMs;
+
+    /**
+     * @param users      Number of concurrent users.
+     * @param warmupMs   Time spent warming up connections and code before measuring.
+     * @param durationMs Time measured.
+     */
+    public LoadGenerator(int users, long warmupMs, long durationMs) {
+        this.users = users;
+        this.warmupMs = warmupMs;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Runs the load and waits for every user to finish.
+     *
+     * @param name    Name of the workload; latencies go to the "load.&lt;name&gt;" histogram of {@link Metrics}.
+     * @param request The request each user sends over and over.
+     * @return The measured requests.
+     */
+    public Report run(String name, Request request) throws InterruptedException {
+        Histogram latency = Metrics.histogram("load." + name);
+        latency.reset();
+        LongAdder failures = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(users);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] window = new long[2]; // Start and end of the measurement, set before the users start
+
+        Thread[] threads = new Thread[users];
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            threads[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int iteration = 0; System.nanoTime() < window[1]; iteration++) {
+                    long start = System.nanoTime();
+                    boolean failed;
+                    try {
+                        failed = request.run(user, iteration) == null;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    if (start < window[0]) continue;
+                    latency.record(System.nanoTime() - start);
+                    if (failed) failures.increment();
+                }
+            }, "load-" + name + "-" + user);
+            threads[i].start();
+        }
+
+        ready.await();
+        long now = System.nanoTime();
+        window[0] = now + warmupMs * 1_000_000;
+        window[1] = window[0] + durationMs * 1_000_000;
+        go.countDown(); // Publishes the window to the users
+        for (Thread thread : threads) thread.join();
+        long elapsedNanos = Math.max(System.nanoTime() - window[0], 1);
+
+        return new Report(name, users, latency, failures.sum(), elapsedNanos);
+    }
+
+    /**
+     * The outcome of a run. Latencies include failed requests.
+     */
+    public static class Report {
+        public final String name;
+        public final int users;
+        public final Histogram latency;
+        public final long requests;
+        public final long failures;
+        public final long elapsedNanos; // From the end of the warmup until the last user stopped
+
+        public Report(String name, int users, Histogram latency, long failures, long elapsedNanos) {
+            this.name = name;
+            this.users = users;
+            this.latency = latency;
+            this.requests = latency.getCount();
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getRequestsPerSecond() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        public double getFailureRate() {
+            return requests == 0 ? 0 : (double) failures / requests;
+        }
+
+        public double getLatencyMs(double quantile) {
+            return latency.getValueAtQuantile(quantile) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d users  %.1f req/s  %d failed  ", users, getRequestsPerSecond(), failures) + latency;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.weatherappphfinal.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal local HTTP server used to exercise the network layer from JVM unit tests.
+ * Responses are registered per path; the server counts requests and distinct client connections,
+ * and records when each request arrived and was answered, so tests can check what overlapped.
+ * With validators set, responses carry ETag/Last-Modified and matching conditional requests get a 304.
+ * Faults can be queued to answer the next requests with an error status, e.g. a 503 or a 429 with Retry-After.
+ * To model a real upstream under load, latency can vary with jitter, a share of requests can fail at
+ * random, requests above a rate are refused with a 429 and response bodies can be paced to a bandwidth.
+ */
+public class StubHttpServer implements AutoCloseable {
+
+    // Exchange attribute holding when the request arrived, on the System.nanoTime clock
+    private static final String ARRIVED = "arrivedNanos";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Function<String, String>> handlers = new ConcurrentHashMap<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+    private final Map<String, Long> pathLatencyMs = new ConcurrentHashMap<>();
+    private final Queue<String[]> faults = new ConcurrentLinkedQueue<>(); // Status and Retry-After of upcoming failures
+    private final AtomicInteger injectedErrorCount = new AtomicInteger();
+    private final AtomicInteger throttledCount = new AtomicInteger();
+    private final Queue<Timing> timings = new ConcurrentLinkedQueue<>();
+    private volatile Random random = new Random();
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+    private volatile int maxRequestsPerSecond;
+    private volatile long bytesPerSecond;
+    private long windowStartNanos; // Start of the current one-second rate limit window, guarded by this
+    private int windowRequests;
+    private volatile boolean gzip;
+    private volatile String etag;
+    private volatile String lastModified;
+
+    static {
+        // Avoid Nagle/delayed-ACK stalls on reused connections, which would swamp the timings
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void respond(String path, String body) { handlers.put(path, query -> body); }
+
+    /**
+     * Builds the response from the raw query string of each request, e.g. to answer batched coordinates.
+     */
+    public void respond(String path, Function<String, String> handler) { handlers.put(path, handler); }
+
+    /**
+     * Serves a recorded response from the fixtures directory of the test fixtures.
+     */
+    public void respondWithFixture(String path, String fixtureName) throws IOException {
+        respond(path, fixture(fixtureName));
+    }
+
+    /**
+     * Serves the recorded Open-Meteo forecast and geocoding responses and the BigDataCloud reverse
+     * geocoding response at the paths the services call, so the whole fetch layer runs offline.
+     * Batched forecast requests get one recorded forecast per requested coordinate.
+     */
+    public void respondWithRecordedApis() throws IOException {
+        String forecast = fixture("forecast_manila.json");
+        respond("/v1/forecast", query -> {
+            int count = parameter(query, "latitude").split(",").length;
+            if (count == 1) return forecast;
+            return "[" + String.join(",", Collections.nCopies(count, forecast)) + "]";
+        });
+        respondWithFixture("/v1/search", "geocode_manila.json");
+        respondWithFixture("/data/reverse-geocode-client", "reverse_manila.json");
+    }
+
+    public static String fixture(String name) throws IOException {
+        try (InputStream in = StubHttpServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IOException("Missing fixture " + name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Value of one query parameter, "" if absent
+    private static String parameter(String query, String name) {
+        if (query == null) return "";
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+        }
+        return "";
+    }
+
+    public void setLatencyMs(long latencyMs) { this.latencyMs = latencyMs; }
+
+    /**
+     * Overrides the latency for one path, e.g. to make one upstream API slower than another.
+     */
+    public void setLatencyMs(String path, long latencyMs) { pathLatencyMs.put(path, latencyMs); }
+    public void setGzip(boolean gzip) { this.gzip = gzip; }
+
+    /**
+     * Adds a random delay of up to jitterMs, uniformly distributed, on top of the latency.
+     */
+    public void setJitterMs(long jitterMs) { this.jitterMs = jitterMs; }
+
+    /**
+     * Answers a random share of requests with an error, after their latency, e.g. 0.05 for one in twenty.
+     *
+     * @param rate   Probability that a request fails, from 0 to 1.
+     * @param status The status to answer failed requests with.
+     */
+    public void setErrorRate(double rate, int status) {
+        this.errorRate = rate;
+        this.errorStatus = status;
+    }
+
+    /**
+     * Refuses requests beyond this many per second with a 429 and "Retry-After: 1", as the
+     * public APIs do; 0 for no limit. The limit applies to whole one-second windows.
+     */
+    public void setMaxRequestsPerSecond(int maxRequestsPerSecond) { this.maxRequestsPerSecond = maxRequestsPerSecond; }
+
+    /**
+     * Paces every response body to this many bytes per second, e.g. to model a slow mobile link;
+     * 0 to send bodies at full speed. The limit applies to each response on its own.
+     */
+    public void setBytesPerSecond(long bytesPerSecond) { this.bytesPerSecond = bytesPerSecond; }
+
+    /**
+     * Seeds the random jitter and errors, so a run makes the same choices for the same request order.
+     */
+    public void setSeed(long seed) { this.random = new Random(seed); }
+
+    /**
+     * Makes every response carry these validators; either may be null to leave that header out.
+     */
+    public void setValidators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Answers the next requests, whatever their path, with an error.
+     *
+     * @param count      How many requests fail.
+     * @param status     The status to answer with.
+     * @param retryAfter Value of the Retry-After header, or null to leave it out.
+     */
+    public void failNext(int count, int status, String retryAfter) {
+        for (int i = 0; i < count; i++) {
+            faults.add(new String[]{Integer.toString(status), retryAfter});
+        }
+    }
+
+    public int requestCount() { return requestCount.get(); }
+    public int notModifiedCount() { return notModifiedCount.get(); }
+    public int connectionCount() { return clientPorts.size(); }
+    public int injectedErrorCount() { return injectedErrorCount.get(); }
+    public int throttledCount() { return throttledCount.get(); }
+
+    /**
+     * @return When each request for the path arrived and was answered, in the order they were answered.
+     */
+    public List<Timing> timings(String path) {
+        List<Timing> matching = new ArrayList<>();
+        for (Timing timing : timings) {
+            if (timing.path.equals(path)) matching.add(timing);
+        }
+        return matching;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.setAttribute(ARRIVED, System.nanoTime());
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        if (!admit()) {
+            throttledCount.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            answer(exchange, 429, -1);
+            exchange.close();
+            return;
+        }
+        try {
+            long delay = pathLatencyMs.getOrDefault(exchange.getRequestURI().getPath(), latencyMs);
+            if (jitterMs > 0) delay += (long) (random.nextDouble() * jitterMs);
+            if (delay > 0) Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        String[] fault = faults.poll();
+        if (fault != null) {
+            if (fault[1] != null) exchange.getResponseHeaders().set("Retry-After", fault[1]);
+            answer(exchange, Integer.parseInt(fault[0]), -1);
+            exchange.close();
+            return;
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrorCount.incrementAndGet();
+            answer(exchange, errorStatus, -1);
+            exchange.close();
+            return;
+        }
+
+        Function<String, String> handler = handlers.get(exchange.getRequestURI().getPath());
+        String body = handler != null ? handler.apply(exchange.getRequestURI().getRawQuery()) : null;
+        if (body == null) {
+            answer(exchange, 404, -1);
+            exchange.close();
+            return;
+        }
+
+        if (etag != null) exchange.getResponseHeaders().set("ETag", etag);
+        if (lastModified != null) exchange.getResponseHeaders().set("Last-Modified", lastModified);
+        if (isNotModified(exchange)) {
+            notModifiedCount.incrementAndGet();
+            answer(exchange, 304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        answer(exchange, 200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            write(out, bytes);
+        }
+    }
+
+    // Record the timing before the status goes out, so it is there by the time the client has its answer
+    private void answer(HttpExchange exchange, int status, long length) throws IOException {
+        timings.add(new Timing(exchange.getRequestURI().getPath(), (Long) exchange.getAttribute(ARRIVED), System.nanoTime()));
+        exchange.sendResponseHeaders(status, length);
+    }
+
+    // Whether the request fits in the current one-second window of the rate limit
+    private synchronized boolean admit() {
+        if (maxRequestsPerSecond <= 0) return true;
+        long now = System.nanoTime();
+        if (windowRequests == 0 || now - windowStartNanos >= 1_000_000_000L) {
+            windowStartNanos = now;
+            windowRequests = 0;
+        }
+        return ++windowRequests <= maxRequestsPerSecond;
+    }
+
+    // Write the body, in small flushed chunks timed to the bandwidth limit if there is one
+    private void write(OutputStream out, byte[] bytes) throws IOException {
+        long rate = bytesPerSecond;
+        if (rate <= 0) {
+            out.write(bytes);
+            return;
+        }
+        int chunk = (int) Math.max(1, Math.min(1024, rate / 20));
+        long start = System.nanoTime();
+        for (int offset = 0; offset < bytes.length; offset += chunk) {
+            int length = Math.min(chunk, bytes.length - offset);
+            out.write(bytes, offset, length);
+            out.flush();
+            long dueNanos = start + (offset + length) * 1_000_000_000L / rate;
+            long waitMs = (dueNanos - System.nanoTime()) / 1_000_000;
+            if (waitMs > 0) {
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since, as in RFC 9110
+    private boolean isNotModified(HttpExchange exchange) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) return ifNoneMatch.equals(etag);
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        return ifModifiedSince != null && ifModifiedSince.equals(lastModified);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * When one request was handled, on the System.nanoTime clock.
+     */
+    public static class Timing {
+        public final String path;
+        public final long arrivedNanos;
+        public final long answeredNanos;
+
+        Timing(String path, long arrivedNanos, long answeredNanos) {
+            this.path = path;
+            this.arrivedNanos = arrivedNanos;
+            this.answeredNanos = answeredNanos;
+        }
+
+        /**
+         * @return Whether the two requests were being handled at the same time.
+         */
+        public boolean overlaps(Timing other) {
+            return arrivedNanos < other.answeredNanos && other.arrivedNanos < answeredNanos;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.weatherappphfinal.utils;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counts the bytes the current thread allocates, for unit tests that guard a path against
+ * allocating per call. Only a coarse guard: allocation rates are measured by the JMH gc profiler.
+ * On JVMs that cannot count per-thread allocation the calling test is skipped, not failed.
+ */
+public final class AllocationCounter {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * @return The bytes allocated by the current thread so far, to pass to {@link #since(long)}.
+     */
+    public static long start() {
+        Assume.assumeTrue("Per-thread allocation counting is not supported",
+                threads instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled());
+        // The first reading loads and links the counter itself; only the second is the baseline
+        allocatedBytes();
+        return allocatedBytes();
+    }
+
+    /**
+     * @param start A value returned by {@link #start()} on the same thread.
+     * @return The bytes the current thread allocated since then.
+     */
+    public static long since(long start) {
+        return allocatedBytes() - start;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
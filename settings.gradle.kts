@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "WeatherAppPHFinal"
 include(":app")
+include(":core")
+include(":benchmarks")